@@ -2,12 +2,38 @@ package com.example.script.cdi;
 
 import com.example.domain.geocoord.service.CoordinateService;
 import com.example.domain.geocoord.service.DefaultCoordinateService;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.EquirectangularDistanceStrategy;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.LawOfCosinesDistanceStrategy;
+import com.example.domain.geocoord.service.RangeFilterKernel;
+import com.example.domain.geocoord.service.RangeFilterKernels;
+import com.example.domain.geocoord.service.VincentyDistanceStrategy;
+import com.example.domain.geocoord.service.Wgs84DistanceStrategy;
 import com.google.inject.AbstractModule;
+import com.google.inject.Provides;
+import com.google.inject.multibindings.MapBinder;
+
+import javax.inject.Singleton;
 
 public class CoordinateModule extends AbstractModule {
 
     @Override
     protected void configure() {
         bind(CoordinateService.class).to(DefaultCoordinateService.class);
+        bind(DistanceStrategy.class).to(LawOfCosinesDistanceStrategy.class);
+
+        MapBinder<String, DistanceStrategy> distanceStrategies =
+                MapBinder.newMapBinder(binder(), String.class, DistanceStrategy.class);
+        distanceStrategies.addBinding(LawOfCosinesDistanceStrategy.NAME).to(LawOfCosinesDistanceStrategy.class);
+        distanceStrategies.addBinding(HaversineDistanceStrategy.NAME).to(HaversineDistanceStrategy.class);
+        distanceStrategies.addBinding(EquirectangularDistanceStrategy.NAME).to(EquirectangularDistanceStrategy.class);
+        distanceStrategies.addBinding(VincentyDistanceStrategy.NAME).to(VincentyDistanceStrategy.class);
+        distanceStrategies.addBinding(Wgs84DistanceStrategy.NAME).to(Wgs84DistanceStrategy.class);
+    }
+
+    @Provides @Singleton
+    RangeFilterKernel provideRangeFilterKernel() {
+        return RangeFilterKernels.fromSystemProperty();
     }
 }
@@ -11,6 +11,7 @@ import lombok.extern.log4j.Log4j2;
 import ru.vyarus.guice.validator.ImplicitValidationModule;
 
 import javax.validation.ConstraintViolationException;
+import java.util.Arrays;
 import java.util.Optional;
 
 /**
@@ -19,6 +20,9 @@ import java.util.Optional;
 @Log4j2
 class CLI {
 
+    private static final String CONVERT_COMMAND = "convert";
+    private static final String ORGANIZE_COMMAND = "organize";
+
     private final CLIArgsParser parser;
     private final CLIArgsProcessor processor;
 
@@ -62,6 +66,15 @@ class CLI {
     }
 
     private void handle(String[] args) {
+        if (args.length > 0 && CONVERT_COMMAND.equals(args[0])) {
+            handleConvert(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        if (args.length > 0 && ORGANIZE_COMMAND.equals(args[0])) {
+            handleOrganize(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         Optional<CLIArgs> cliArgs = parser.parse(args);
 
         if (!cliArgs.isPresent()) {
@@ -72,6 +85,28 @@ class CLI {
         processor.process(cliArgs.get());
     }
 
+    private void handleConvert(String[] args) {
+        Optional<ConvertArgs> convertArgs = parser.parseConvert(args);
+
+        if (!convertArgs.isPresent()) {
+            log.info(parser.convertUsageInfo());
+            return;
+        }
+
+        processor.convert(convertArgs.get());
+    }
+
+    private void handleOrganize(String[] args) {
+        Optional<OrganizeArgs> organizeArgs = parser.parseOrganize(args);
+
+        if (!organizeArgs.isPresent()) {
+            log.info(parser.organizeUsageInfo());
+            return;
+        }
+
+        processor.organize(organizeArgs.get());
+    }
+
     private void displayHelp() {
         log.info(parser.usageInfo());
     }
@@ -1,12 +1,15 @@
 package com.example.script.cli;
 
+import com.example.domain.customer.index.CustomerIndexType;
 import com.example.script.validation.RegularFile;
 import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.service.DistanceStrategy;
 import lombok.Value;
 
 import javax.annotation.concurrent.Immutable;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.io.File;
 import java.math.BigDecimal;
@@ -38,6 +41,28 @@ class CLIArgs {
     @NotNull(message = "radius must not be null")
     BigDecimal radius;
 
+    /**
+     *
+     */
+    @NotNull(message = "distance strategy must not be null")
+    DistanceStrategy distanceStrategy;
+
+    /**
+     * directory of the parsed snapshots of JSON lines customer files, or null to parse them on every run
+     */
+    File cacheDirectory;
+
+    /**
+     * maximum size of the snapshots (in MB)
+     */
+    @Positive(message = "cache size must be greater than 0")
+    long cacheSize;
+
+    /**
+     * spatial index to build over the customers, or null to scan them all
+     */
+    CustomerIndexType indexType;
+
     /**
      *
      */
@@ -18,4 +18,30 @@ public interface CLIArgsParser {
      * @return
      */
     String usageInfo();
+
+    /**
+     *
+     * @param args arguments of the {@code convert} command, without the command name
+     * @return
+     */
+    Optional<ConvertArgs> parseConvert(String[] args);
+
+    /**
+     *
+     * @return
+     */
+    String convertUsageInfo();
+
+    /**
+     *
+     * @param args arguments of the {@code organize} command, without the command name
+     * @return
+     */
+    Optional<OrganizeArgs> parseOrganize(String[] args);
+
+    /**
+     *
+     * @return
+     */
+    String organizeUsageInfo();
 }
@@ -12,4 +12,16 @@ public interface CLIArgsProcessor {
      * @param args
      */
     void process(@Valid @NotNull CLIArgs args);
+
+    /**
+     *
+     * @param args
+     */
+    void convert(@Valid @NotNull ConvertArgs args);
+
+    /**
+     *
+     * @param args
+     */
+    void organize(@Valid @NotNull OrganizeArgs args);
 }
@@ -1,19 +1,28 @@
 package com.example.script.cli;
 
+import com.example.domain.customer.index.CustomerIndexType;
 import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.MathMode;
 import joptsimple.OptionParser;
 import joptsimple.OptionSet;
 import lombok.extern.log4j.Log4j2;
 
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeSet;
+import java.util.stream.Stream;
 
 import static java.util.Arrays.asList;
+import static java.util.stream.Collectors.toList;
 
 /**
  *
@@ -22,18 +31,28 @@ import static java.util.Arrays.asList;
 @Singleton
 public class DefaultCLIArgsParser implements CLIArgsParser {
 
+    private static final long DEFAULT_CACHE_SIZE = 1024L;
+
     private final OptionParser parser;
+    private final OptionParser convertParser;
+    private final OptionParser organizeParser;
+    private final Map<String, DistanceStrategy> distanceStrategies;
 
     /**
      *
+     * @param distanceStrategies
+     * @param defaultDistanceStrategy
      */
-    public DefaultCLIArgsParser() {
+    @Inject
+    public DefaultCLIArgsParser(Map<String, DistanceStrategy> distanceStrategies,
+                                DistanceStrategy defaultDistanceStrategy) {
+        this.distanceStrategies = distanceStrategies;
         this.parser = new OptionParser() {
             {
                 acceptsAll(asList("h", "help", "?"), "show help").forHelp();
                 acceptsAll(asList("v", "verbose"), "verbose mode");
 
-                accepts("input-file", "customer file")
+                accepts("input-file", "customer file (JSON lines or binary columnar)")
                         .withRequiredArg().ofType(File.class)
                         .required();
 
@@ -49,6 +68,47 @@ public class DefaultCLIArgsParser implements CLIArgsParser {
                         .withRequiredArg().ofType(BigDecimal.class)
                         .defaultsTo(new BigDecimal("100.0"));
 
+                accepts("distance", "distance formula, one of " + new TreeSet<>(distanceStrategies.keySet()))
+                        .withRequiredArg().describedAs("name")
+                        .defaultsTo(defaultDistanceStrategy.getName());
+
+                accepts("math", "trigonometric functions, one of " + mathModeNames())
+                        .withRequiredArg().describedAs("mode")
+                        .defaultsTo(MathMode.STRICT.getName());
+
+                accepts("cache-dir", "directory of snapshots of parsed JSON lines customer files")
+                        .withRequiredArg().ofType(File.class);
+
+                accepts("cache-size", "maximum size of the snapshots (in MB)")
+                        .withRequiredArg().ofType(Long.class)
+                        .defaultsTo(DEFAULT_CACHE_SIZE);
+
+                accepts("index", "spatial index to search, one of " + indexTypeNames())
+                        .withRequiredArg().describedAs("type");
+
+                allowsUnrecognizedOptions();
+            }
+        };
+        this.convertParser = fileCommandParser("customer file (JSON lines)");
+        this.organizeParser = fileCommandParser("binary columnar customer file");
+    }
+
+    private static OptionParser fileCommandParser(String inputFileDescription) {
+        return new OptionParser() {
+            {
+                acceptsAll(asList("h", "help", "?"), "show help").forHelp();
+                acceptsAll(asList("v", "verbose"), "verbose mode");
+
+                accepts("input-file", inputFileDescription)
+                        .withRequiredArg().ofType(File.class)
+                        .required();
+
+                accepts("output-file", "binary columnar customer file to write")
+                        .withRequiredArg().ofType(File.class)
+                        .required();
+
+                accepts("compress", "delta/varint encode user IDs and coordinates");
+
                 allowsUnrecognizedOptions();
             }
         };
@@ -80,9 +140,95 @@ public class DefaultCLIArgsParser implements CLIArgsParser {
         BigDecimal latitude = (BigDecimal) options.valueOf("latitude");
         BigDecimal longitude = (BigDecimal) options.valueOf("longitude");
         BigDecimal radius = (BigDecimal) options.valueOf("radius");
+        DistanceStrategy distanceStrategy = distanceStrategy((String) options.valueOf("distance"))
+                .withMathMode(mathMode((String) options.valueOf("math")));
+        File cacheDirectory = (File) options.valueOf("cache-dir");
+        long cacheSize = (Long) options.valueOf("cache-size");
+        CustomerIndexType indexType = options.has("index") ? indexType((String) options.valueOf("index")) : null;
         boolean verbose = options.has("verbose") || options.has("v");
 
-        return Optional.of(new CLIArgs(inputFile, Coordinate.of(latitude, longitude), radius, verbose));
+        return Optional.of(new CLIArgs(inputFile, Coordinate.of(latitude, longitude), radius, distanceStrategy,
+                cacheDirectory, cacheSize, indexType, verbose));
+    }
+
+    /**
+     *
+     * @param args
+     * @return
+     */
+    @Override
+    public Optional<ConvertArgs> parseConvert(String[] args) {
+        return parseFileCommand(convertParser, args).map(options -> new ConvertArgs(
+                (File) options.valueOf("input-file"),
+                (File) options.valueOf("output-file"),
+                options.has("compress"),
+                options.has("verbose") || options.has("v")));
+    }
+
+    /**
+     *
+     * @param args
+     * @return
+     */
+    @Override
+    public Optional<OrganizeArgs> parseOrganize(String[] args) {
+        return parseFileCommand(organizeParser, args).map(options -> new OrganizeArgs(
+                (File) options.valueOf("input-file"),
+                (File) options.valueOf("output-file"),
+                options.has("compress"),
+                options.has("verbose") || options.has("v")));
+    }
+
+    private static Optional<OptionSet> parseFileCommand(OptionParser parser, String[] args) {
+        if (args.length == 0) {
+            return Optional.empty();
+        }
+
+        OptionSet options = parser.parse(args);
+
+        if (options.has("?") || options.has("h")) {
+            return Optional.empty();
+        }
+
+        if (!options.nonOptionArguments().isEmpty()) {
+            throw new IllegalArgumentException("Unrecognized options/arguments: "
+                    + options.nonOptionArguments());
+        }
+
+        return Optional.of(options);
+    }
+
+    private DistanceStrategy distanceStrategy(String name) {
+        DistanceStrategy distanceStrategy = distanceStrategies.get(name);
+        if (distanceStrategy == null) {
+            throw new IllegalArgumentException("Unknown distance formula '" + name + "', expected one of "
+                    + new TreeSet<>(distanceStrategies.keySet()));
+        }
+        return distanceStrategy;
+    }
+
+    private static MathMode mathMode(String name) {
+        return Stream.of(MathMode.values())
+                .filter(mathMode -> mathMode.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown math mode '" + name + "', expected one of "
+                        + mathModeNames()));
+    }
+
+    private static List<String> mathModeNames() {
+        return Stream.of(MathMode.values()).map(MathMode::getName).collect(toList());
+    }
+
+    private static CustomerIndexType indexType(String name) {
+        return Stream.of(CustomerIndexType.values())
+                .filter(indexType -> indexType.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown index '" + name + "', expected one of "
+                        + indexTypeNames()));
+    }
+
+    private static List<String> indexTypeNames() {
+        return Stream.of(CustomerIndexType.values()).map(CustomerIndexType::getName).collect(toList());
     }
 
     /**
@@ -91,6 +237,28 @@ public class DefaultCLIArgsParser implements CLIArgsParser {
      */
     @Override
     public String usageInfo() {
+        return usageInfo(parser);
+    }
+
+    /**
+     *
+     * @return
+     */
+    @Override
+    public String convertUsageInfo() {
+        return usageInfo(convertParser);
+    }
+
+    /**
+     *
+     * @return
+     */
+    @Override
+    public String organizeUsageInfo() {
+        return usageInfo(organizeParser);
+    }
+
+    private static String usageInfo(OptionParser parser) {
         OutputStream out = new ByteArrayOutputStream();
         try {
             parser.printHelpOn(out);
@@ -3,9 +3,16 @@ package com.example.script.cli;
 import com.example.domain.customer.dto.CustomerRecord;
 import com.example.domain.customer.model.Customer;
 import com.example.domain.customer.service.CustomerService;
+import com.example.domain.customer.store.ColumnEncoding;
+import com.example.domain.customer.store.ColumnarCustomerFile;
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.HeapCustomerStore;
+import com.example.domain.customer.store.HilbertOrder;
+import com.example.domain.customer.store.MappedCustomerStore;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import com.example.script.io.CustomerSnapshotCache;
 import com.example.script.io.FileParser;
 import lombok.extern.log4j.Log4j2;
-import ma.glasnost.orika.MapperFacade;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.core.config.Configurator;
 
@@ -13,11 +20,16 @@ import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
 import java.util.Comparator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.function.Function;
 
-import static com.example.script.functional.Predicates.safeTest;
+import static com.example.script.functional.Functions.safeCall;
 
 /**
  *
@@ -27,19 +39,16 @@ import static com.example.script.functional.Predicates.safeTest;
 public class DefaultCLIArgsProcessor implements CLIArgsProcessor {
 
     private final FileParser fileParser;
-    private final MapperFacade mapper;
     private final CustomerService customerService;
 
     /**
      *
      * @param fileParser
-     * @param mapper
      * @param customerService
      */
     @Inject
-    public DefaultCLIArgsProcessor(FileParser fileParser, MapperFacade mapper, CustomerService customerService) {
+    public DefaultCLIArgsProcessor(FileParser fileParser, CustomerService customerService) {
         this.fileParser = fileParser;
-        this.mapper = mapper;
         this.customerService = customerService;
     }
 
@@ -53,21 +62,110 @@ public class DefaultCLIArgsProcessor implements CLIArgsProcessor {
             increaseLogLevel();
         }
 
-        List<CustomerRecord> customersRecords =
-                fileParser.parse(args.getInputFile(), CustomerRecord.class);
+        CustomerStore store = args.getCacheDirectory() == null
+                ? loadCustomers(args.getInputFile())
+                : loadCustomers(args.getInputFile(), f -> new CustomerSnapshotCache(
+                        args.getCacheDirectory().toPath(), args.getCacheSize() * 1024 * 1024)
+                        .load(f, this::parseCustomers));
 
-        List<Customer> customers = customersRecords.stream()
-                .map(r -> mapper.map(r, Customer.class))
-                .collect(Collectors.toList());
+        PreparedRangeQuery query = customerService.prepareRangeQuery(
+                args.getTargetLocation(), args.getRadius().doubleValue() * 1_000.0 /* 1km */,
+                args.getDistanceStrategy());
 
-        List<Customer> customersWithinRange = customers.stream()
-                        .filter(safeTest(c -> customerService.isCustomerWithinRange(
-                                c, args.getTargetLocation(), args.getRadius().doubleValue() * 1_000.0 /* 1km */), false))
-                        .collect(Collectors.toList());
+        BitSet customersWithinRange = args.getIndexType() == null
+                ? customerService.findCustomersWithinRange(store, query)
+                : customerService.findCustomersWithinRange(customerService.indexCustomers(store, args.getIndexType()),
+                        query);
 
-        customersWithinRange.stream()
+        store.customers(customersWithinRange)
                 .sorted(Comparator.comparing(Customer::getUserId))
-                .forEach(r -> log.info(r.toString()));
+                .forEach(c -> log.info(c.toString()));
+    }
+
+    /**
+     *
+     * @param args
+     */
+    @Override
+    public void convert(@Valid @NotNull final ConvertArgs args) {
+        if (args.isVerbose()) {
+            increaseLogLevel();
+        }
+
+        CustomerStore store = parseCustomers(args.getInputFile());
+        try {
+            ColumnarCustomerFile.write(store, args.getOutputFile().toPath(), ColumnarCustomerFile.DEFAULT_BLOCK_SIZE,
+                    encoding(args.isCompress()));
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        log.info("{} customers written to {}", store.size(), args.getOutputFile());
+    }
+
+    /**
+     * Rewrites the customers of a binary columnar file sorted by Hilbert curve index of their location, with an
+     * external sort when they do not fit in a quarter of the heap. JSON lines files are rejected, since they would
+     * have to be parsed into the heap first: they are to be converted beforehand.
+     *
+     * @param args
+     */
+    @Override
+    public void organize(@Valid @NotNull final OrganizeArgs args) {
+        if (args.isVerbose()) {
+            increaseLogLevel();
+        }
+
+        Path inputFile = args.getInputFile().toPath();
+        Path outputFile = args.getOutputFile().getAbsoluteFile().toPath();
+        try {
+            if (Files.exists(outputFile) && Files.isSameFile(inputFile, outputFile)) {
+                throw new IllegalArgumentException("output file must not be the input file");
+            }
+            if (!ColumnarCustomerFile.isColumnarCustomerFile(inputFile)) {
+                throw new IllegalArgumentException(
+                        "input file must be a binary columnar customer file, convert it first");
+            }
+            CustomerStore store = HilbertOrder.sort(MappedCustomerStore.open(inputFile),
+                    HilbertOrder.defaultRunSize(), outputFile.getParent());
+            ColumnarCustomerFile.write(store, outputFile, ColumnarCustomerFile.DEFAULT_BLOCK_SIZE,
+                    encoding(args.isCompress()));
+            log.info("{} customers written to {}", store.size(), args.getOutputFile());
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private static ColumnEncoding encoding(boolean compress) {
+        return compress ? ColumnEncoding.DELTA_VARINT : ColumnEncoding.PLAIN;
+    }
+
+    /**
+     * Maps a columnar customer file into memory as is, or parses and validates a JSON lines customer file, depending on the
+     * header of the file.
+     */
+    private CustomerStore loadCustomers(File file) {
+        return loadCustomers(file, this::parseCustomers);
+    }
+
+    private CustomerStore loadCustomers(File file, Function<File, CustomerStore> jsonLinesLoader) {
+        try {
+            if (ColumnarCustomerFile.isColumnarCustomerFile(file.toPath())) {
+                return MappedCustomerStore.open(file.toPath());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+        return jsonLinesLoader.apply(file);
+    }
+
+    private CustomerStore parseCustomers(File file) {
+        List<CustomerRecord> customersRecords = fileParser.parse(file, CustomerRecord.class);
+
+        CustomerStore.Builder storeBuilder = HeapCustomerStore.builder(customersRecords.size());
+        Function<CustomerRecord, CustomerStore.Builder> addCustomer =
+                safeCall(r -> customerService.addCustomer(storeBuilder, r), null);
+        customersRecords.forEach(addCustomer::apply);
+        return storeBuilder.build();
     }
 
     private void increaseLogLevel() {
@@ -0,0 +1,38 @@
+package com.example.script.cli;
+
+import com.example.script.validation.RegularFile;
+import lombok.Value;
+
+import javax.annotation.concurrent.Immutable;
+import javax.validation.constraints.NotNull;
+import java.io.File;
+
+/**
+ * Arguments of the {@code organize} command.
+ */
+@Value
+@Immutable
+class OrganizeArgs {
+    /**
+     *
+     */
+    @RegularFile
+    @NotNull(message = "file must not be null")
+    File inputFile;
+
+    /**
+     *
+     */
+    @NotNull(message = "output file must not be null")
+    File outputFile;
+
+    /**
+     * whether to delta/varint encode the user ID and coordinate columns
+     */
+    boolean compress;
+
+    /**
+     *
+     */
+    boolean verbose;
+}
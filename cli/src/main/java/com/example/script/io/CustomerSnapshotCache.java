@@ -0,0 +1,165 @@
+package com.example.script.io;
+
+import com.example.domain.customer.store.ColumnarCustomerFile;
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.MappedCustomerStore;
+import com.google.common.hash.Hashing;
+import lombok.extern.log4j.Log4j2;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+/**
+ * Cache of the parsed and validated customers of customer files, as binary columnar snapshots.
+ * <p>
+ * Snapshots are named after the fingerprint of the file they were parsed from: its absolute path, size, last
+ * modification time and a hash of its content, so that a modified file never hits a stale snapshot. Hashing the file
+ * still reads it, but costs a fraction of parsing and validating it. Snapshots are memory-mapped when hit, and the
+ * least recently used ones are deleted once the snapshots take more than the maximum size of the cache. Snapshots
+ * which cannot be mapped, e.g. truncated ones or ones of an older file format version, count as misses.
+ */
+@Log4j2
+public class CustomerSnapshotCache {
+
+    static final String SNAPSHOT_SUFFIX = ".snapshot";
+
+    private final Path directory;
+    private final long maxSize;
+
+    /**
+     *
+     * @param directory directory of the snapshots, created if missing
+     * @param maxSize maximum size of the snapshots (in bytes)
+     */
+    public CustomerSnapshotCache(Path directory, long maxSize) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("cache size must be greater than 0");
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     *
+     * @param file customer file
+     * @param parser parses the customer file, on cache misses
+     * @return customers of the snapshot of the given file if any and readable, otherwise the parsed customers
+     */
+    public CustomerStore load(File file, Function<File, CustomerStore> parser) {
+        try {
+            Files.createDirectories(directory);
+            Path snapshot = directory.resolve(fingerprint(file) + SNAPSHOT_SUFFIX);
+            if (Files.isRegularFile(snapshot)) {
+                log.debug("Loading snapshot {} of {}", snapshot, file);
+                try {
+                    Files.setLastModifiedTime(snapshot, FileTime.fromMillis(System.currentTimeMillis()));
+                    return MappedCustomerStore.open(snapshot);
+                } catch (IOException e) {
+                    log.warn("Discarding unreadable snapshot {} of {}: {}", snapshot, file, e.getMessage());
+                    Files.deleteIfExists(snapshot);
+                }
+            }
+
+            CustomerStore store = parser.apply(file);
+            Path temporaryFile = Files.createTempFile(directory, null, null);
+            try {
+                ColumnarCustomerFile.write(store, temporaryFile);
+                Files.move(temporaryFile, snapshot, ATOMIC_MOVE, REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporaryFile);
+            }
+            log.debug("Saved snapshot {} of {}", snapshot, file);
+            evictLeastRecentlyUsed(snapshot);
+            return store;
+        } catch (IOException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     *
+     * @param file
+     * @return hexadecimal fingerprint of the given file
+     * @throws IOException
+     */
+    static String fingerprint(File file) throws IOException {
+        Path path = file.toPath().toAbsolutePath().normalize();
+        return Hashing.murmur3_128().newHasher()
+                .putString(path.toString(), UTF_8)
+                .putLong(Files.size(path))
+                .putLong(Files.getLastModifiedTime(path).toMillis())
+                .putBytes(com.google.common.io.Files.asByteSource(file).hash(Hashing.murmur3_128()).asBytes())
+                .hash()
+                .toString();
+    }
+
+    /**
+     * Deletes the least recently used snapshots beyond the maximum size, but never the given one, even if it alone
+     * takes more. The modification time and size of each snapshot are read once, and snapshots deleted meanwhile, e.g.
+     * by another process sharing the directory, are skipped.
+     */
+    private void evictLeastRecentlyUsed(Path savedSnapshot) throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing
+                    .filter(f -> f.getFileName().toString().endsWith(SNAPSHOT_SUFFIX) && !f.equals(savedSnapshot))
+                    .collect(Collectors.toList());
+        }
+        List<Snapshot> snapshots = new ArrayList<>();
+        for (Path file : files) {
+            try {
+                snapshots.add(new Snapshot(file, Files.readAttributes(file, BasicFileAttributes.class)));
+            } catch (IOException e) {
+                log.debug("Skipping snapshot {}: {}", file, e.getMessage());
+            }
+        }
+        snapshots.sort(Comparator.comparing((Snapshot snapshot) -> snapshot.lastModifiedTime).reversed());
+
+        long size = sizeOf(savedSnapshot);
+        for (Snapshot snapshot : snapshots) {
+            size += snapshot.size;
+            if (size > maxSize) {
+                log.debug("Evicting snapshot {}", snapshot.path);
+                Files.deleteIfExists(snapshot.path);
+            }
+        }
+    }
+
+    private static long sizeOf(Path snapshot) {
+        try {
+            return Files.size(snapshot);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Snapshot file with the attributes it had when listed.
+     */
+    private static final class Snapshot {
+
+        private final Path path;
+        private final FileTime lastModifiedTime;
+        private final long size;
+
+        private Snapshot(Path path, BasicFileAttributes attributes) {
+            this.path = path;
+            this.lastModifiedTime = attributes.lastModifiedTime();
+            this.size = attributes.size();
+        }
+    }
+}
@@ -2,10 +2,22 @@ package com.example.script.cdi;
 
 import com.example.domain.geocoord.service.CoordinateService;
 import com.example.domain.geocoord.service.DefaultCoordinateService;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.EquirectangularDistanceStrategy;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.LawOfCosinesDistanceStrategy;
+import com.example.domain.geocoord.service.RangeFilterKernel;
+import com.example.domain.geocoord.service.VincentyDistanceStrategy;
+import com.example.domain.geocoord.service.Wgs84DistanceStrategy;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.TypeLiteral;
 import org.junit.Test;
 
+import java.util.Map;
+
+import static org.hamcrest.Matchers.hasEntry;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.sameInstance;
@@ -33,4 +45,37 @@ public class CoordinateModuleTest {
         // then
         assertThat(coordinateService, is(sameInstance(anotherCoordinateService)));
     }
+
+    @Test
+    public void distanceStrategy_shouldBeBoundToLawOfCosinesByDefault() {
+        // when
+        DistanceStrategy distanceStrategy = injector.getInstance(DistanceStrategy.class);
+
+        // then
+        assertThat(distanceStrategy, is(instanceOf(LawOfCosinesDistanceStrategy.class)));
+    }
+
+    @Test
+    public void distanceStrategies_shouldBeBoundByName() {
+        // when
+        Map<String, DistanceStrategy> distanceStrategies =
+                injector.getInstance(Key.get(new TypeLiteral<Map<String, DistanceStrategy>>() {}));
+
+        // then
+        assertThat(distanceStrategies, hasEntry(is("law-of-cosines"), is(instanceOf(LawOfCosinesDistanceStrategy.class))));
+        assertThat(distanceStrategies, hasEntry(is("haversine"), is(instanceOf(HaversineDistanceStrategy.class))));
+        assertThat(distanceStrategies, hasEntry(is("equirectangular"), is(instanceOf(EquirectangularDistanceStrategy.class))));
+        assertThat(distanceStrategies, hasEntry(is("vincenty"), is(instanceOf(VincentyDistanceStrategy.class))));
+        assertThat(distanceStrategies, hasEntry(is("wgs84"), is(instanceOf(Wgs84DistanceStrategy.class))));
+    }
+
+    @Test
+    public void rangeFilterKernel_shouldHaveSingletonScope() {
+        // when
+        RangeFilterKernel rangeFilterKernel = injector.getInstance(RangeFilterKernel.class);
+        RangeFilterKernel anotherRangeFilterKernel = injector.getInstance(RangeFilterKernel.class);
+
+        // then
+        assertThat(rangeFilterKernel, is(sameInstance(anotherRangeFilterKernel)));
+    }
 }
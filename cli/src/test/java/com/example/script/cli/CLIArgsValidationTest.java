@@ -60,11 +60,23 @@ public class CLIArgsValidationTest {
                 "Option (* = required)               Description",
                 "---------------------               -----------",
                 "-?, -h, --help                      show help",
-                "* --input-file <File>               customer file",
+                "--cache-dir <File>                  directory of snapshots of parsed JSON lines",
+                "                                      customer files",
+                "--cache-size <Long>                 maximum size of the snapshots (in MB)",
+                "                                      (default: 1024)",
+                "--distance <String: name>           distance formula, one of [equirectangular,",
+                "                                      haversine, law-of-cosines, vincenty,",
+                "                                      wgs84] (default: law-of-cosines)",
+                "--index <String: type>              spatial index to search, one of [geohash,",
+                "                                      kd-tree, r-tree, vp-tree, quadtree]",
+                "* --input-file <File>               customer file (JSON lines or binary",
+                "                                      columnar)",
                 "* --lat, --latitude <BigDecimal>    latitude coordinate (in degrees) of target",
                 "                                      location",
                 "* --long, --longitude <BigDecimal>  longitude coordinate (in degrees) of target",
                 "                                      location",
+                "--math <String: mode>               trigonometric functions, one of [strict,",
+                "                                      fast, approx] (default: strict)",
                 "-r, --radius <BigDecimal>           radius of proximity (in km) (default: 100.0)",
                 "-v, --verbose                       verbose mode"
         ));
@@ -80,11 +92,23 @@ public class CLIArgsValidationTest {
                 "Option (* = required)               Description",
                 "---------------------               -----------",
                 "-?, -h, --help                      show help",
-                "* --input-file <File>               customer file",
+                "--cache-dir <File>                  directory of snapshots of parsed JSON lines",
+                "                                      customer files",
+                "--cache-size <Long>                 maximum size of the snapshots (in MB)",
+                "                                      (default: 1024)",
+                "--distance <String: name>           distance formula, one of [equirectangular,",
+                "                                      haversine, law-of-cosines, vincenty,",
+                "                                      wgs84] (default: law-of-cosines)",
+                "--index <String: type>              spatial index to search, one of [geohash,",
+                "                                      kd-tree, r-tree, vp-tree, quadtree]",
+                "* --input-file <File>               customer file (JSON lines or binary",
+                "                                      columnar)",
                 "* --lat, --latitude <BigDecimal>    latitude coordinate (in degrees) of target",
                 "                                      location",
                 "* --long, --longitude <BigDecimal>  longitude coordinate (in degrees) of target",
                 "                                      location",
+                "--math <String: mode>               trigonometric functions, one of [strict,",
+                "                                      fast, approx] (default: strict)",
                 "-r, --radius <BigDecimal>           radius of proximity (in km) (default: 100.0)",
                 "-v, --verbose                       verbose mode"
         ));
@@ -100,11 +124,23 @@ public class CLIArgsValidationTest {
                 "Option (* = required)               Description",
                 "---------------------               -----------",
                 "-?, -h, --help                      show help",
-                "* --input-file <File>               customer file",
+                "--cache-dir <File>                  directory of snapshots of parsed JSON lines",
+                "                                      customer files",
+                "--cache-size <Long>                 maximum size of the snapshots (in MB)",
+                "                                      (default: 1024)",
+                "--distance <String: name>           distance formula, one of [equirectangular,",
+                "                                      haversine, law-of-cosines, vincenty,",
+                "                                      wgs84] (default: law-of-cosines)",
+                "--index <String: type>              spatial index to search, one of [geohash,",
+                "                                      kd-tree, r-tree, vp-tree, quadtree]",
+                "* --input-file <File>               customer file (JSON lines or binary",
+                "                                      columnar)",
                 "* --lat, --latitude <BigDecimal>    latitude coordinate (in degrees) of target",
                 "                                      location",
                 "* --long, --longitude <BigDecimal>  longitude coordinate (in degrees) of target",
                 "                                      location",
+                "--math <String: mode>               trigonometric functions, one of [strict,",
+                "                                      fast, approx] (default: strict)",
                 "-r, --radius <BigDecimal>           radius of proximity (in km) (default: 100.0)",
                 "-v, --verbose                       verbose mode"
         ));
@@ -120,11 +156,23 @@ public class CLIArgsValidationTest {
                 "Option (* = required)               Description",
                 "---------------------               -----------",
                 "-?, -h, --help                      show help",
-                "* --input-file <File>               customer file",
+                "--cache-dir <File>                  directory of snapshots of parsed JSON lines",
+                "                                      customer files",
+                "--cache-size <Long>                 maximum size of the snapshots (in MB)",
+                "                                      (default: 1024)",
+                "--distance <String: name>           distance formula, one of [equirectangular,",
+                "                                      haversine, law-of-cosines, vincenty,",
+                "                                      wgs84] (default: law-of-cosines)",
+                "--index <String: type>              spatial index to search, one of [geohash,",
+                "                                      kd-tree, r-tree, vp-tree, quadtree]",
+                "* --input-file <File>               customer file (JSON lines or binary",
+                "                                      columnar)",
                 "* --lat, --latitude <BigDecimal>    latitude coordinate (in degrees) of target",
                 "                                      location",
                 "* --long, --longitude <BigDecimal>  longitude coordinate (in degrees) of target",
                 "                                      location",
+                "--math <String: mode>               trigonometric functions, one of [strict,",
+                "                                      fast, approx] (default: strict)",
                 "-r, --radius <BigDecimal>           radius of proximity (in km) (default: 100.0)",
                 "-v, --verbose                       verbose mode"
         ));
@@ -377,6 +425,23 @@ public class CLIArgsValidationTest {
         });
     }
 
+    @Test
+    public void cli_shouldPrintErrorMessage_whenZeroIsGivenViaCacheSizeOption() {
+        // then
+        exit.expectSystemExitWithStatus(1);
+        exit.checkAssertionAfterwards(() -> assertThat(systemOutRule.getLog(), matchesOutput(
+                "cache size must be greater than 0"
+        )));
+
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--latitude", "0.0",
+                "--longitude", "0.0",
+                "--cache-size", "0"
+        });
+    }
+
     @Test
     public void cli_shouldPrintErrorMessage_whenNegativeValueIsGivenViaRadiusOption() {
         // then
@@ -394,6 +459,57 @@ public class CLIArgsValidationTest {
         });
     }
 
+    @Test
+    public void cli_shouldPrintErrorMessage_whenUnknownDistanceFormulaIsGiven() {
+        // then
+        exit.expectSystemExitWithStatus(1);
+        exit.checkAssertionAfterwards(() -> assertThat(systemOutRule.getLog(), matchesOutput(
+                "Unknown distance formula 'manhattan', expected one of [equirectangular, haversine, law-of-cosines, vincenty, wgs84]"
+        )));
+
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--latitude", "0.0",
+                "--longitude", "0.0",
+                "--distance", "manhattan"
+        });
+    }
+
+    @Test
+    public void cli_shouldPrintErrorMessage_whenUnknownMathModeIsGiven() {
+        // then
+        exit.expectSystemExitWithStatus(1);
+        exit.checkAssertionAfterwards(() -> assertThat(systemOutRule.getLog(), matchesOutput(
+                "Unknown math mode 'sloppy', expected one of [strict, fast, approx]"
+        )));
+
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--latitude", "0.0",
+                "--longitude", "0.0",
+                "--math", "sloppy"
+        });
+    }
+
+    @Test
+    public void cli_shouldPrintErrorMessage_whenUnknownIndexIsGiven() {
+        // then
+        exit.expectSystemExitWithStatus(1);
+        exit.checkAssertionAfterwards(() -> assertThat(systemOutRule.getLog(), matchesOutput(
+                "Unknown index 'btree', expected one of [geohash, kd-tree, r-tree, vp-tree, quadtree]"
+        )));
+
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--latitude", "0.0",
+                "--longitude", "0.0",
+                "--index", "btree"
+        });
+    }
+
     @Test
     public void cli_shouldPrintInfoMessage_whenVerboseModeIsEnabledViaLongOption() {
         // when
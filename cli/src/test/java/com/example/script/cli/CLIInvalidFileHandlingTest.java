@@ -79,19 +79,19 @@ public class CLIInvalidFileHandlingTest {
                 "an error was encountered while processing item ''",
                 "No content to map due to end-of-input\n at [Source: (String)\"\"; line: 1, column: 0]",
                 "skipping item",
-                "invalid item 'Customer(userId=null, name=null, location=Coordinate(latitude=null, longitude=null))'",
+                "invalid item 'CustomerRecord(userId=null, name=null, latitude=null, longitude=null)'",
                 "latitude must not be null",
                 "longitude must not be null",
                 "name must not be blank",
                 "user ID must not be null",
                 "skipping item",
-                "invalid item 'Customer(userId=null, name=null, location=Coordinate(latitude=null, longitude=null))'",
+                "invalid item 'CustomerRecord(userId=null, name=null, latitude=null, longitude=null)'",
                 "latitude must not be null",
                 "longitude must not be null",
                 "name must not be blank",
                 "user ID must not be null",
                 "skipping item",
-                "invalid item 'Customer(userId=2, name= , location=Coordinate(latitude=90.1, longitude=180.1))'",
+                "invalid item 'CustomerRecord(userId=2, name= , latitude=90.1, longitude=180.1)'",
                 "latitude must be between -90.0 and 90.0",
                 "longitude must be between -180.0 and 180.0",
                 "name must not be blank",
@@ -8,6 +8,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.contrib.java.lang.system.ExpectedSystemExit;
 import org.junit.contrib.java.lang.system.SystemOutRule;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -28,6 +29,9 @@ public class CLIValidFileHandlingTest {
     @Rule
     public final SystemOutRule systemOutRule = new SystemOutRule().enableLog();
 
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private Path inputFilePath;
 
     @Before
@@ -75,4 +79,295 @@ public class CLIValidFileHandlingTest {
                 "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
         ));
     }
+
+    @Test
+    public void cli_shouldOutputSameListOfCustomers_whenLoadingCachedSnapshot() {
+        // given
+        String cacheDirectory = temporaryFolder.getRoot().toPath().resolve("cache").toString();
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--cache-dir", cacheDirectory
+        });
+        systemOutRule.clearLog();
+
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--cache-dir", cacheDirectory
+        });
+
+        // then
+        assertThat(systemOutRule.getLog(), matchesOutput(
+                "Customer(userId=4, name=Ian Kehoe, location=Coordinate(latitude=53.2451022, longitude=-6.238335))",
+                "Customer(userId=5, name=Nora Dempsey, location=Coordinate(latitude=53.1302756, longitude=-6.2397222))",
+                "Customer(userId=6, name=Theresa Enright, location=Coordinate(latitude=53.1229599, longitude=-6.2705202))",
+                "Customer(userId=8, name=Eoin Ahearn, location=Coordinate(latitude=54.0894797, longitude=-6.18671))",
+                "Customer(userId=11, name=Richard Finnegan, location=Coordinate(latitude=53.008769, longitude=-6.1056711))",
+                "Customer(userId=12, name=Christina McArdle, location=Coordinate(latitude=52.986375, longitude=-6.043701))",
+                "Customer(userId=13, name=Olive Ahearn, location=Coordinate(latitude=53, longitude=-7))",
+                "Customer(userId=15, name=Michael Ahearn, location=Coordinate(latitude=52.966, longitude=-6.463))",
+                "Customer(userId=17, name=Patricia Cahill, location=Coordinate(latitude=54.180238, longitude=-5.920898))",
+                "Customer(userId=23, name=Eoin Gallagher, location=Coordinate(latitude=54.080556, longitude=-6.361944))",
+                "Customer(userId=24, name=Rose Enright, location=Coordinate(latitude=54.133333, longitude=-6.433333))",
+                "Customer(userId=26, name=Stephen McArdle, location=Coordinate(latitude=53.038056, longitude=-7.653889))",
+                "Customer(userId=29, name=Oliver Ahearn, location=Coordinate(latitude=53.74452, longitude=-7.11167))",
+                "Customer(userId=30, name=Nick Enright, location=Coordinate(latitude=53.761389, longitude=-7.2875))",
+                "Customer(userId=31, name=Alan Behan, location=Coordinate(latitude=53.1489345, longitude=-6.8422408))",
+                "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
+        ));
+    }
+
+    @Test
+    public void cli_shouldOutputSameListOfCustomers_whenUsingHaversineDistance() {
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--distance", "haversine"
+        });
+
+        // then
+        assertThat(systemOutRule.getLog(), matchesOutput(
+                "Customer(userId=4, name=Ian Kehoe, location=Coordinate(latitude=53.2451022, longitude=-6.238335))",
+                "Customer(userId=5, name=Nora Dempsey, location=Coordinate(latitude=53.1302756, longitude=-6.2397222))",
+                "Customer(userId=6, name=Theresa Enright, location=Coordinate(latitude=53.1229599, longitude=-6.2705202))",
+                "Customer(userId=8, name=Eoin Ahearn, location=Coordinate(latitude=54.0894797, longitude=-6.18671))",
+                "Customer(userId=11, name=Richard Finnegan, location=Coordinate(latitude=53.008769, longitude=-6.1056711))",
+                "Customer(userId=12, name=Christina McArdle, location=Coordinate(latitude=52.986375, longitude=-6.043701))",
+                "Customer(userId=13, name=Olive Ahearn, location=Coordinate(latitude=53, longitude=-7))",
+                "Customer(userId=15, name=Michael Ahearn, location=Coordinate(latitude=52.966, longitude=-6.463))",
+                "Customer(userId=17, name=Patricia Cahill, location=Coordinate(latitude=54.180238, longitude=-5.920898))",
+                "Customer(userId=23, name=Eoin Gallagher, location=Coordinate(latitude=54.080556, longitude=-6.361944))",
+                "Customer(userId=24, name=Rose Enright, location=Coordinate(latitude=54.133333, longitude=-6.433333))",
+                "Customer(userId=26, name=Stephen McArdle, location=Coordinate(latitude=53.038056, longitude=-7.653889))",
+                "Customer(userId=29, name=Oliver Ahearn, location=Coordinate(latitude=53.74452, longitude=-7.11167))",
+                "Customer(userId=30, name=Nick Enright, location=Coordinate(latitude=53.761389, longitude=-7.2875))",
+                "Customer(userId=31, name=Alan Behan, location=Coordinate(latitude=53.1489345, longitude=-6.8422408))",
+                "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
+        ));
+    }
+
+    @Test
+    public void cli_shouldOutputSameListOfCustomers_whenUsingEquirectangularDistance() {
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--distance", "equirectangular"
+        });
+
+        // then
+        assertThat(systemOutRule.getLog(), matchesOutput(
+                "Customer(userId=4, name=Ian Kehoe, location=Coordinate(latitude=53.2451022, longitude=-6.238335))",
+                "Customer(userId=5, name=Nora Dempsey, location=Coordinate(latitude=53.1302756, longitude=-6.2397222))",
+                "Customer(userId=6, name=Theresa Enright, location=Coordinate(latitude=53.1229599, longitude=-6.2705202))",
+                "Customer(userId=8, name=Eoin Ahearn, location=Coordinate(latitude=54.0894797, longitude=-6.18671))",
+                "Customer(userId=11, name=Richard Finnegan, location=Coordinate(latitude=53.008769, longitude=-6.1056711))",
+                "Customer(userId=12, name=Christina McArdle, location=Coordinate(latitude=52.986375, longitude=-6.043701))",
+                "Customer(userId=13, name=Olive Ahearn, location=Coordinate(latitude=53, longitude=-7))",
+                "Customer(userId=15, name=Michael Ahearn, location=Coordinate(latitude=52.966, longitude=-6.463))",
+                "Customer(userId=17, name=Patricia Cahill, location=Coordinate(latitude=54.180238, longitude=-5.920898))",
+                "Customer(userId=23, name=Eoin Gallagher, location=Coordinate(latitude=54.080556, longitude=-6.361944))",
+                "Customer(userId=24, name=Rose Enright, location=Coordinate(latitude=54.133333, longitude=-6.433333))",
+                "Customer(userId=26, name=Stephen McArdle, location=Coordinate(latitude=53.038056, longitude=-7.653889))",
+                "Customer(userId=29, name=Oliver Ahearn, location=Coordinate(latitude=53.74452, longitude=-7.11167))",
+                "Customer(userId=30, name=Nick Enright, location=Coordinate(latitude=53.761389, longitude=-7.2875))",
+                "Customer(userId=31, name=Alan Behan, location=Coordinate(latitude=53.1489345, longitude=-6.8422408))",
+                "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
+        ));
+    }
+
+    @Test
+    public void cli_shouldOutputSameListOfCustomers_whenUsingVincentyDistance() {
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--distance", "vincenty"
+        });
+
+        // then
+        assertThat(systemOutRule.getLog(), matchesOutput(
+                "Customer(userId=4, name=Ian Kehoe, location=Coordinate(latitude=53.2451022, longitude=-6.238335))",
+                "Customer(userId=5, name=Nora Dempsey, location=Coordinate(latitude=53.1302756, longitude=-6.2397222))",
+                "Customer(userId=6, name=Theresa Enright, location=Coordinate(latitude=53.1229599, longitude=-6.2705202))",
+                "Customer(userId=8, name=Eoin Ahearn, location=Coordinate(latitude=54.0894797, longitude=-6.18671))",
+                "Customer(userId=11, name=Richard Finnegan, location=Coordinate(latitude=53.008769, longitude=-6.1056711))",
+                "Customer(userId=12, name=Christina McArdle, location=Coordinate(latitude=52.986375, longitude=-6.043701))",
+                "Customer(userId=13, name=Olive Ahearn, location=Coordinate(latitude=53, longitude=-7))",
+                "Customer(userId=15, name=Michael Ahearn, location=Coordinate(latitude=52.966, longitude=-6.463))",
+                "Customer(userId=17, name=Patricia Cahill, location=Coordinate(latitude=54.180238, longitude=-5.920898))",
+                "Customer(userId=23, name=Eoin Gallagher, location=Coordinate(latitude=54.080556, longitude=-6.361944))",
+                "Customer(userId=24, name=Rose Enright, location=Coordinate(latitude=54.133333, longitude=-6.433333))",
+                "Customer(userId=26, name=Stephen McArdle, location=Coordinate(latitude=53.038056, longitude=-7.653889))",
+                "Customer(userId=29, name=Oliver Ahearn, location=Coordinate(latitude=53.74452, longitude=-7.11167))",
+                "Customer(userId=30, name=Nick Enright, location=Coordinate(latitude=53.761389, longitude=-7.2875))",
+                "Customer(userId=31, name=Alan Behan, location=Coordinate(latitude=53.1489345, longitude=-6.8422408))",
+                "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
+        ));
+    }
+
+    @Test
+    public void cli_shouldOutputSameListOfCustomers_whenUsingWgs84Distance() {
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--distance", "wgs84"
+        });
+
+        // then
+        assertThat(systemOutRule.getLog(), matchesOutput(
+                "Customer(userId=4, name=Ian Kehoe, location=Coordinate(latitude=53.2451022, longitude=-6.238335))",
+                "Customer(userId=5, name=Nora Dempsey, location=Coordinate(latitude=53.1302756, longitude=-6.2397222))",
+                "Customer(userId=6, name=Theresa Enright, location=Coordinate(latitude=53.1229599, longitude=-6.2705202))",
+                "Customer(userId=8, name=Eoin Ahearn, location=Coordinate(latitude=54.0894797, longitude=-6.18671))",
+                "Customer(userId=11, name=Richard Finnegan, location=Coordinate(latitude=53.008769, longitude=-6.1056711))",
+                "Customer(userId=12, name=Christina McArdle, location=Coordinate(latitude=52.986375, longitude=-6.043701))",
+                "Customer(userId=13, name=Olive Ahearn, location=Coordinate(latitude=53, longitude=-7))",
+                "Customer(userId=15, name=Michael Ahearn, location=Coordinate(latitude=52.966, longitude=-6.463))",
+                "Customer(userId=17, name=Patricia Cahill, location=Coordinate(latitude=54.180238, longitude=-5.920898))",
+                "Customer(userId=23, name=Eoin Gallagher, location=Coordinate(latitude=54.080556, longitude=-6.361944))",
+                "Customer(userId=24, name=Rose Enright, location=Coordinate(latitude=54.133333, longitude=-6.433333))",
+                "Customer(userId=26, name=Stephen McArdle, location=Coordinate(latitude=53.038056, longitude=-7.653889))",
+                "Customer(userId=29, name=Oliver Ahearn, location=Coordinate(latitude=53.74452, longitude=-7.11167))",
+                "Customer(userId=30, name=Nick Enright, location=Coordinate(latitude=53.761389, longitude=-7.2875))",
+                "Customer(userId=31, name=Alan Behan, location=Coordinate(latitude=53.1489345, longitude=-6.8422408))",
+                "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
+        ));
+    }
+
+    @Test
+    public void cli_shouldOutputSameListOfCustomers_whenUsingFastMath() {
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--math", "fast"
+        });
+
+        // then
+        assertThat(systemOutRule.getLog(), matchesOutput(
+                "Customer(userId=4, name=Ian Kehoe, location=Coordinate(latitude=53.2451022, longitude=-6.238335))",
+                "Customer(userId=5, name=Nora Dempsey, location=Coordinate(latitude=53.1302756, longitude=-6.2397222))",
+                "Customer(userId=6, name=Theresa Enright, location=Coordinate(latitude=53.1229599, longitude=-6.2705202))",
+                "Customer(userId=8, name=Eoin Ahearn, location=Coordinate(latitude=54.0894797, longitude=-6.18671))",
+                "Customer(userId=11, name=Richard Finnegan, location=Coordinate(latitude=53.008769, longitude=-6.1056711))",
+                "Customer(userId=12, name=Christina McArdle, location=Coordinate(latitude=52.986375, longitude=-6.043701))",
+                "Customer(userId=13, name=Olive Ahearn, location=Coordinate(latitude=53, longitude=-7))",
+                "Customer(userId=15, name=Michael Ahearn, location=Coordinate(latitude=52.966, longitude=-6.463))",
+                "Customer(userId=17, name=Patricia Cahill, location=Coordinate(latitude=54.180238, longitude=-5.920898))",
+                "Customer(userId=23, name=Eoin Gallagher, location=Coordinate(latitude=54.080556, longitude=-6.361944))",
+                "Customer(userId=24, name=Rose Enright, location=Coordinate(latitude=54.133333, longitude=-6.433333))",
+                "Customer(userId=26, name=Stephen McArdle, location=Coordinate(latitude=53.038056, longitude=-7.653889))",
+                "Customer(userId=29, name=Oliver Ahearn, location=Coordinate(latitude=53.74452, longitude=-7.11167))",
+                "Customer(userId=30, name=Nick Enright, location=Coordinate(latitude=53.761389, longitude=-7.2875))",
+                "Customer(userId=31, name=Alan Behan, location=Coordinate(latitude=53.1489345, longitude=-6.8422408))",
+                "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
+        ));
+    }
+
+    @Test
+    public void cli_shouldOutputSameListOfCustomers_whenUsingGeohashIndex() {
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--index", "geohash"
+        });
+
+        // then
+        assertThat(systemOutRule.getLog(), matchesOutput(
+                "Customer(userId=4, name=Ian Kehoe, location=Coordinate(latitude=53.2451022, longitude=-6.238335))",
+                "Customer(userId=5, name=Nora Dempsey, location=Coordinate(latitude=53.1302756, longitude=-6.2397222))",
+                "Customer(userId=6, name=Theresa Enright, location=Coordinate(latitude=53.1229599, longitude=-6.2705202))",
+                "Customer(userId=8, name=Eoin Ahearn, location=Coordinate(latitude=54.0894797, longitude=-6.18671))",
+                "Customer(userId=11, name=Richard Finnegan, location=Coordinate(latitude=53.008769, longitude=-6.1056711))",
+                "Customer(userId=12, name=Christina McArdle, location=Coordinate(latitude=52.986375, longitude=-6.043701))",
+                "Customer(userId=13, name=Olive Ahearn, location=Coordinate(latitude=53, longitude=-7))",
+                "Customer(userId=15, name=Michael Ahearn, location=Coordinate(latitude=52.966, longitude=-6.463))",
+                "Customer(userId=17, name=Patricia Cahill, location=Coordinate(latitude=54.180238, longitude=-5.920898))",
+                "Customer(userId=23, name=Eoin Gallagher, location=Coordinate(latitude=54.080556, longitude=-6.361944))",
+                "Customer(userId=24, name=Rose Enright, location=Coordinate(latitude=54.133333, longitude=-6.433333))",
+                "Customer(userId=26, name=Stephen McArdle, location=Coordinate(latitude=53.038056, longitude=-7.653889))",
+                "Customer(userId=29, name=Oliver Ahearn, location=Coordinate(latitude=53.74452, longitude=-7.11167))",
+                "Customer(userId=30, name=Nick Enright, location=Coordinate(latitude=53.761389, longitude=-7.2875))",
+                "Customer(userId=31, name=Alan Behan, location=Coordinate(latitude=53.1489345, longitude=-6.8422408))",
+                "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
+        ));
+    }
+
+    @Test
+    public void cli_shouldOutputSameListOfCustomers_whenUsingApproximateMath_withHaversineDistance() {
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--distance", "haversine",
+                "--math", "approx"
+        });
+
+        // then
+        assertThat(systemOutRule.getLog(), matchesOutput(
+                "Customer(userId=4, name=Ian Kehoe, location=Coordinate(latitude=53.2451022, longitude=-6.238335))",
+                "Customer(userId=5, name=Nora Dempsey, location=Coordinate(latitude=53.1302756, longitude=-6.2397222))",
+                "Customer(userId=6, name=Theresa Enright, location=Coordinate(latitude=53.1229599, longitude=-6.2705202))",
+                "Customer(userId=8, name=Eoin Ahearn, location=Coordinate(latitude=54.0894797, longitude=-6.18671))",
+                "Customer(userId=11, name=Richard Finnegan, location=Coordinate(latitude=53.008769, longitude=-6.1056711))",
+                "Customer(userId=12, name=Christina McArdle, location=Coordinate(latitude=52.986375, longitude=-6.043701))",
+                "Customer(userId=13, name=Olive Ahearn, location=Coordinate(latitude=53, longitude=-7))",
+                "Customer(userId=15, name=Michael Ahearn, location=Coordinate(latitude=52.966, longitude=-6.463))",
+                "Customer(userId=17, name=Patricia Cahill, location=Coordinate(latitude=54.180238, longitude=-5.920898))",
+                "Customer(userId=23, name=Eoin Gallagher, location=Coordinate(latitude=54.080556, longitude=-6.361944))",
+                "Customer(userId=24, name=Rose Enright, location=Coordinate(latitude=54.133333, longitude=-6.433333))",
+                "Customer(userId=26, name=Stephen McArdle, location=Coordinate(latitude=53.038056, longitude=-7.653889))",
+                "Customer(userId=29, name=Oliver Ahearn, location=Coordinate(latitude=53.74452, longitude=-7.11167))",
+                "Customer(userId=30, name=Nick Enright, location=Coordinate(latitude=53.761389, longitude=-7.2875))",
+                "Customer(userId=31, name=Alan Behan, location=Coordinate(latitude=53.1489345, longitude=-6.8422408))",
+                "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
+        ));
+    }
+
+    @Test
+    public void cli_shouldOutputSameListOfCustomers_whenUsingApproximateMath_withVincentyDistance() {
+        // when
+        CLI.main(new String[] {
+                "--input-file", inputFilePath.toString(),
+                "--lat", "53.339428",
+                "--long", "-6.257664",
+                "--distance", "vincenty",
+                "--math", "approx"
+        });
+
+        // then
+        assertThat(systemOutRule.getLog(), matchesOutput(
+                "Customer(userId=4, name=Ian Kehoe, location=Coordinate(latitude=53.2451022, longitude=-6.238335))",
+                "Customer(userId=5, name=Nora Dempsey, location=Coordinate(latitude=53.1302756, longitude=-6.2397222))",
+                "Customer(userId=6, name=Theresa Enright, location=Coordinate(latitude=53.1229599, longitude=-6.2705202))",
+                "Customer(userId=8, name=Eoin Ahearn, location=Coordinate(latitude=54.0894797, longitude=-6.18671))",
+                "Customer(userId=11, name=Richard Finnegan, location=Coordinate(latitude=53.008769, longitude=-6.1056711))",
+                "Customer(userId=12, name=Christina McArdle, location=Coordinate(latitude=52.986375, longitude=-6.043701))",
+                "Customer(userId=13, name=Olive Ahearn, location=Coordinate(latitude=53, longitude=-7))",
+                "Customer(userId=15, name=Michael Ahearn, location=Coordinate(latitude=52.966, longitude=-6.463))",
+                "Customer(userId=17, name=Patricia Cahill, location=Coordinate(latitude=54.180238, longitude=-5.920898))",
+                "Customer(userId=23, name=Eoin Gallagher, location=Coordinate(latitude=54.080556, longitude=-6.361944))",
+                "Customer(userId=24, name=Rose Enright, location=Coordinate(latitude=54.133333, longitude=-6.433333))",
+                "Customer(userId=26, name=Stephen McArdle, location=Coordinate(latitude=53.038056, longitude=-7.653889))",
+                "Customer(userId=29, name=Oliver Ahearn, location=Coordinate(latitude=53.74452, longitude=-7.11167))",
+                "Customer(userId=30, name=Nick Enright, location=Coordinate(latitude=53.761389, longitude=-7.2875))",
+                "Customer(userId=31, name=Alan Behan, location=Coordinate(latitude=53.1489345, longitude=-6.8422408))",
+                "Customer(userId=39, name=Lisa Ahearn, location=Coordinate(latitude=53.0033946, longitude=-6.3877505))"
+        ));
+    }
 }
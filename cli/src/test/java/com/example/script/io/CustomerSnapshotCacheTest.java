@@ -0,0 +1,210 @@
+package com.example.script.io;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.HeapCustomerStore;
+import com.example.domain.customer.store.MappedCustomerStore;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+public class CustomerSnapshotCacheTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private final AtomicInteger parsed = new AtomicInteger();
+
+    private final Function<File, CustomerStore> parser = file -> {
+        parsed.incrementAndGet();
+        return HeapCustomerStore.builder()
+                .add(1L, "John Smith", FixedPointCoordinate.pack(532_451_022, -62_383_350))
+                .add(2L, "Jane Doe", FixedPointCoordinate.pack(529_863_750, -60_437_010))
+                .build();
+    };
+
+    @Test
+    public void load_shouldParseFileAndSaveSnapshot_whenFileHasNoSnapshot() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        Path directory = temporaryFolder.getRoot().toPath().resolve("cache");
+
+        // when
+        CustomerStore store = new CustomerSnapshotCache(directory, 1 << 20).load(file, parser);
+
+        // then
+        assertThat(parsed.get(), is(1));
+        assertThat(store.size(), is(2));
+        assertThat(snapshotCount(directory), is(1L));
+    }
+
+    @Test
+    public void load_shouldMapSnapshotWithoutParsingFile_whenFileHasSnapshot() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        Path directory = temporaryFolder.newFolder().toPath();
+        new CustomerSnapshotCache(directory, 1 << 20).load(file, parser);
+
+        // when
+        CustomerStore store = new CustomerSnapshotCache(directory, 1 << 20).load(file, parser);
+
+        // then
+        assertThat(parsed.get(), is(1));
+        assertThat(store, is(instanceOf(MappedCustomerStore.class)));
+        assertThat(store.getUserId(1), is(2L));
+        assertThat(store.getName(1), is("Jane Doe"));
+        assertThat(store.getLocation(1), is(FixedPointCoordinate.pack(529_863_750, -60_437_010)));
+    }
+
+    @Test
+    public void load_shouldParseFileAgain_whenFileWasModified() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        Path directory = temporaryFolder.newFolder().toPath();
+        CustomerSnapshotCache cache = new CustomerSnapshotCache(directory, 1 << 20);
+        cache.load(file, parser);
+        Files.write(file.toPath(), "{}".getBytes(UTF_8));
+
+        // when
+        cache.load(file, parser);
+
+        // then
+        assertThat(parsed.get(), is(2));
+        assertThat(snapshotCount(directory), is(2L));
+    }
+
+    @Test
+    public void load_shouldParseFileAgainAndReplaceSnapshot_whenSnapshotIsCorrupted() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        Path directory = temporaryFolder.newFolder().toPath();
+        CustomerSnapshotCache cache = new CustomerSnapshotCache(directory, 1 << 20);
+        cache.load(file, parser);
+        Path snapshot = snapshot(directory, file);
+        Files.write(snapshot, "truncated".getBytes(UTF_8));
+
+        // when
+        CustomerStore store = cache.load(file, parser);
+
+        // then
+        assertThat(parsed.get(), is(2));
+        assertThat(store.size(), is(2));
+        assertThat(store.getName(1), is("Jane Doe"));
+        assertThat(MappedCustomerStore.open(snapshot).size(), is(2));
+    }
+
+    @Test
+    public void fingerprint_shouldDiffer_whenContentDiffersButSizeAndModificationTimeDoNot() throws IOException {
+        // given
+        File file = temporaryFolder.newFile();
+        FileTime modificationTime = FileTime.fromMillis(1_000_000_000_000L);
+        Files.write(file.toPath(), "ab".getBytes(UTF_8));
+        Files.setLastModifiedTime(file.toPath(), modificationTime);
+        String fingerprint = CustomerSnapshotCache.fingerprint(file);
+        Files.write(file.toPath(), "ba".getBytes(UTF_8));
+        Files.setLastModifiedTime(file.toPath(), modificationTime);
+
+        // when
+        String otherFingerprint = CustomerSnapshotCache.fingerprint(file);
+
+        // then
+        assertThat(otherFingerprint, is(not(fingerprint)));
+    }
+
+    @Test
+    public void load_shouldEvictLeastRecentlyUsedSnapshots_whenCacheIsFull() throws IOException {
+        // given
+        Path directory = temporaryFolder.newFolder().toPath();
+        File first = temporaryFolder.newFile();
+        File second = temporaryFolder.newFile();
+        File third = temporaryFolder.newFile();
+        new CustomerSnapshotCache(directory, 1 << 20).load(first, parser);
+        new CustomerSnapshotCache(directory, 1 << 20).load(second, parser);
+        long snapshotSize = Files.size(snapshot(directory, second));
+        Files.setLastModifiedTime(snapshot(directory, first), FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+        // when
+        new CustomerSnapshotCache(directory, 2 * snapshotSize).load(third, parser);
+
+        // then
+        assertThat(Files.exists(snapshot(directory, first)), is(true));
+        assertThat(Files.exists(snapshot(directory, second)), is(false));
+        assertThat(Files.exists(snapshot(directory, third)), is(true));
+    }
+
+    @Test
+    public void load_shouldKeepSavedSnapshot_whenItAloneExceedsCacheSize() throws IOException {
+        // given
+        Path directory = temporaryFolder.newFolder().toPath();
+        File first = temporaryFolder.newFile();
+        File second = temporaryFolder.newFile();
+        new CustomerSnapshotCache(directory, 1 << 20).load(first, parser);
+
+        // when
+        new CustomerSnapshotCache(directory, 1).load(second, parser);
+
+        // then
+        assertThat(Files.exists(snapshot(directory, first)), is(false));
+        assertThat(Files.exists(snapshot(directory, second)), is(true));
+    }
+
+    @Test
+    public void load_shouldSkipSnapshotsWhichVanish_whenEvicting() throws IOException {
+        // given
+        Path directory = temporaryFolder.newFolder().toPath();
+        File first = temporaryFolder.newFile();
+        File second = temporaryFolder.newFile();
+        new CustomerSnapshotCache(directory, 1 << 20).load(first, parser);
+        // listed as a snapshot, but gone by the time its attributes are read
+        Files.createSymbolicLink(directory.resolve("vanished" + CustomerSnapshotCache.SNAPSHOT_SUFFIX),
+                directory.resolve("missing"));
+
+        // when
+        CustomerStore store = new CustomerSnapshotCache(directory, 1).load(second, parser);
+
+        // then
+        assertThat(store.size(), is(2));
+        assertThat(Files.exists(snapshot(directory, first)), is(false));
+        assertThat(Files.exists(snapshot(directory, second)), is(true));
+    }
+
+    @Test
+    public void constructor_shouldThrowIllegalArgumentException_whenMaxSizeIsNotPositive() {
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("cache size must be greater than 0");
+
+        // when
+        new CustomerSnapshotCache(temporaryFolder.getRoot().toPath(), 0);
+    }
+
+    private static Path snapshot(Path directory, File file) throws IOException {
+        return directory.resolve(CustomerSnapshotCache.fingerprint(file) + CustomerSnapshotCache.SNAPSHOT_SUFFIX);
+    }
+
+    private static long snapshotCount(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(f -> f.getFileName().toString().endsWith(CustomerSnapshotCache.SNAPSHOT_SUFFIX))
+                    .count();
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.domain.customer.dto;
 
+import com.example.domain.geocoord.model.FixedPointCoordinate;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import lombok.Data;
@@ -45,6 +46,8 @@ public class CustomerRecord {
     BigDecimal longitude;
 
     /**
+     * Coordinates with more than {@value FixedPointCoordinate#SCALE} decimal digits are rounded to that many (about
+     * 1 cm on the Earth's surface), which is lossless when the extra digits are trailing zeros.
      *
      * @param userId
      * @param name
@@ -59,7 +62,45 @@ public class CustomerRecord {
             @JsonProperty("longitude") BigDecimal longitude) {
         this.userId = userId;
         this.name = name;
-        this.latitude = latitude;
-        this.longitude = longitude;
+        this.latitude = FixedPointCoordinate.round(latitude);
+        this.longitude = FixedPointCoordinate.round(longitude);
+    }
+
+    /**
+     *
+     * @param latitude rounded to {@value FixedPointCoordinate#SCALE} decimal digits if it has more
+     */
+    public void setLatitude(BigDecimal latitude) {
+        this.latitude = FixedPointCoordinate.round(latitude);
+    }
+
+    /**
+     *
+     * @param longitude rounded to {@value FixedPointCoordinate#SCALE} decimal digits if it has more
+     */
+    public void setLongitude(BigDecimal longitude) {
+        this.longitude = FixedPointCoordinate.round(longitude);
+    }
+
+    /**
+     *
+     * @param userId
+     * @param name
+     * @param location location encoded with {@link FixedPointCoordinate}
+     * @return
+     */
+    public static CustomerRecord of(Long userId, String name, long location) {
+        return new CustomerRecord(userId, name,
+                FixedPointCoordinate.toDegrees(FixedPointCoordinate.latitudeUnits(location)),
+                FixedPointCoordinate.toDegrees(FixedPointCoordinate.longitudeUnits(location)));
+    }
+
+    /**
+     *
+     * @return location encoded with {@link FixedPointCoordinate}
+     * @throws IllegalArgumentException if the latitude or longitude is null or out of range
+     */
+    public long encodeLocation() {
+        return FixedPointCoordinate.encode(latitude, longitude);
     }
 }
@@ -0,0 +1,25 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import java.util.BitSet;
+
+/**
+ * Spatial index over the customers of a {@link CustomerStore}, answering range queries by testing the customers
+ * near the target of the query only, rather than every customer of the store.
+ */
+public interface CustomerIndex {
+    /**
+     *
+     * @return indexed store
+     */
+    CustomerStore getStore();
+
+    /**
+     *
+     * @param query
+     * @return rows of the store whose customers the query contains, the same as {@link CustomerStore#withinRange}
+     */
+    BitSet withinRange(PreparedRangeQuery query);
+}
@@ -0,0 +1,56 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.geocoord.service.CoordinateService;
+
+/**
+ * Kinds of {@link CustomerIndex}.
+ */
+public enum CustomerIndexType {
+    GEOHASH {
+        @Override
+        public CustomerIndex build(CustomerStore store, CoordinateService coordinateService) {
+            return GeohashCustomerIndex.of(store);
+        }
+    },
+    KD_TREE {
+        @Override
+        public CustomerIndex build(CustomerStore store, CoordinateService coordinateService) {
+            return KdTreeCustomerIndex.of(store);
+        }
+    },
+    R_TREE {
+        @Override
+        public CustomerIndex build(CustomerStore store, CoordinateService coordinateService) {
+            return StrRTreeCustomerIndex.of(store);
+        }
+    },
+    VP_TREE {
+        @Override
+        public CustomerIndex build(CustomerStore store, CoordinateService coordinateService) {
+            return VantagePointCustomerIndex.of(store, coordinateService);
+        }
+    },
+    QUADTREE {
+        @Override
+        public CustomerIndex build(CustomerStore store, CoordinateService coordinateService) {
+            return QuadtreeCustomerIndex.of(store);
+        }
+    };
+
+    /**
+     *
+     * @return name under which the index can be selected (e.g. from the command line)
+     */
+    public String getName() {
+        return name().toLowerCase().replace('_', '-');
+    }
+
+    /**
+     *
+     * @param store
+     * @param coordinateService service computing the distances of the metric-space indexes
+     * @return index over the customers of the given store
+     */
+    public abstract CustomerIndex build(CustomerStore store, CoordinateService coordinateService);
+}
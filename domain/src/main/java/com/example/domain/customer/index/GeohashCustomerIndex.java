@@ -0,0 +1,198 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.geocoord.model.BoundingBox;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+
+/**
+ * {@link CustomerIndex} sorting the customers by the geohash of their location, as a 64-bit integer.
+ * <p>
+ * The geohash interleaves the bits of the longitude and the latitude, each scaled to 32 bits, so that every prefix of
+ * {@code 2 * level} bits identifies a cell of a grid of {@code 2^level} by {@code 2^level} cells, and the customers of
+ * a cell are contiguous once sorted. Range queries pick the finest level at which at most {@value #MAX_CELLS} cells
+ * cover the bounding box of the query, look each cell up by binary search, and only test the customers of those
+ * cells. Their coordinates are copied into the index, in geohash order, so that the customers of a cell are read
+ * sequentially.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Geohash">Geohash</a>
+ */
+@Immutable
+public final class GeohashCustomerIndex implements CustomerIndex {
+
+    static final int MAX_CELLS = 64;
+
+    private static final int KEY_BITS = 32;
+    private static final long MIN_LATITUDE_UNITS = -900_000_000L;
+    private static final long MIN_LONGITUDE_UNITS = -1_800_000_000L;
+    // one more than the ranges of units, so that the keys of the maximum latitude and longitude are below 2^32
+    private static final long LATITUDE_UNITS = 1_800_000_001L;
+    private static final long LONGITUDE_UNITS = 3_600_000_001L;
+
+    private final CustomerStore store;
+    private final long[] geohashes;
+    private final int[] rows;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private GeohashCustomerIndex(CustomerStore store, long[] geohashes, int[] rows, double[] latitudes,
+                                 double[] longitudes) {
+        this.store = store;
+        this.geohashes = geohashes;
+        this.rows = rows;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     *
+     * @param store
+     * @return index over the customers of the given store
+     */
+    public static GeohashCustomerIndex of(CustomerStore store) {
+        int n = store.size();
+        long[] geohashes = new long[n];
+        int[] rows = new int[n];
+        for (int row = 0; row < n; row++) {
+            long location = store.getLocation(row);
+            // flipping the sign bit sorts the unsigned geohashes in signed order
+            geohashes[row] = geohash(longitudeKey(FixedPointCoordinate.longitudeUnits(location)),
+                    latitudeKey(FixedPointCoordinate.latitudeUnits(location))) ^ Long.MIN_VALUE;
+            rows[row] = row;
+        }
+        RadixSort.sort(geohashes, rows);
+
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = store.getLatitudeInRadians(rows[i]);
+            longitudes[i] = store.getLongitudeInRadians(rows[i]);
+        }
+        return new GeohashCustomerIndex(store, geohashes, rows, latitudes, longitudes);
+    }
+
+    @Override
+    public CustomerStore getStore() {
+        return store;
+    }
+
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query) {
+        BitSet result = new BitSet(store.size());
+        BoundingBox boundingBox = query.getBoundingBox();
+        long minLatitudeKey = latitudeKey(floorUnits(boundingBox.getMinLatitude()));
+        long maxLatitudeKey = latitudeKey(ceilUnits(boundingBox.getMaxLatitude()));
+        long minLongitudeKey = longitudeKey(floorUnits(boundingBox.getMinLongitude()));
+        long maxLongitudeKey = longitudeKey(ceilUnits(boundingBox.getMaxLongitude()));
+        if (boundingBox.crossesAntimeridian()) {
+            long maxKey = (1L << KEY_BITS) - 1;
+            int level = level(minLatitudeKey, maxLatitudeKey, minLongitudeKey, maxKey, 0, maxLongitudeKey);
+            filterCells(query, level, minLatitudeKey, maxLatitudeKey, minLongitudeKey, maxKey, result);
+            filterCells(query, level, minLatitudeKey, maxLatitudeKey, 0, maxLongitudeKey, result);
+        } else {
+            int level = level(minLatitudeKey, maxLatitudeKey, minLongitudeKey, maxLongitudeKey, 0, -1);
+            filterCells(query, level, minLatitudeKey, maxLatitudeKey, minLongitudeKey, maxLongitudeKey, result);
+        }
+        return result;
+    }
+
+    /**
+     * @return finest level at which at most {@value #MAX_CELLS} cells cover the given key ranges (the second
+     * longitude range being empty when its minimum is greater than its maximum)
+     */
+    private static int level(long minLatitudeKey, long maxLatitudeKey, long minLongitudeKey, long maxLongitudeKey,
+                             long minLongitudeKey2, long maxLongitudeKey2) {
+        for (int level = KEY_BITS; level > 0; level--) {
+            int shift = KEY_BITS - level;
+            long latitudeCells = (maxLatitudeKey >>> shift) - (minLatitudeKey >>> shift) + 1;
+            long longitudeCells = (maxLongitudeKey >>> shift) - (minLongitudeKey >>> shift) + 1;
+            if (minLongitudeKey2 <= maxLongitudeKey2) {
+                longitudeCells += (maxLongitudeKey2 >>> shift) - (minLongitudeKey2 >>> shift) + 1;
+            }
+            // the product of both counts may overflow at the finest levels
+            if (latitudeCells <= MAX_CELLS && longitudeCells <= MAX_CELLS && latitudeCells * longitudeCells <= MAX_CELLS) {
+                return level;
+            }
+        }
+        return 0;
+    }
+
+    private void filterCells(PreparedRangeQuery query, int level, long minLatitudeKey, long maxLatitudeKey,
+                             long minLongitudeKey, long maxLongitudeKey, BitSet result) {
+        int shift = KEY_BITS - level;
+        long cellMask = level == 0 ? -1L : (1L << 2 * shift) - 1;
+        for (long y = minLatitudeKey >>> shift; y <= maxLatitudeKey >>> shift; y++) {
+            for (long x = minLongitudeKey >>> shift; x <= maxLongitudeKey >>> shift; x++) {
+                long first = geohash(x, y) << 2 * shift;
+                long last = first | cellMask;
+                for (int i = lowerBound(first ^ Long.MIN_VALUE);
+                     i < geohashes.length && geohashes[i] <= (last ^ Long.MIN_VALUE); i++) {
+                    if (query.contains(latitudes[i], longitudes[i])) {
+                        result.set(rows[i]);
+                    }
+                }
+            }
+        }
+    }
+
+    private int lowerBound(long geohash) {
+        int low = 0;
+        int high = geohashes.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (geohashes[middle] < geohash) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    /**
+     *
+     * @param longitudeKey
+     * @param latitudeKey
+     * @return bits of both keys interleaved, starting with the most significant bit of the longitude key
+     */
+    static long geohash(long longitudeKey, long latitudeKey) {
+        return spread(longitudeKey) << 1 | spread(latitudeKey);
+    }
+
+    /**
+     * @return bits of the given 32-bit value moved to the even bits of a 64-bit value
+     */
+    private static long spread(long value) {
+        value &= 0xFFFFFFFFL;
+        value = (value | value << 16) & 0x0000FFFF0000FFFFL;
+        value = (value | value << 8) & 0x00FF00FF00FF00FFL;
+        value = (value | value << 4) & 0x0F0F0F0F0F0F0F0FL;
+        value = (value | value << 2) & 0x3333333333333333L;
+        value = (value | value << 1) & 0x5555555555555555L;
+        return value;
+    }
+
+    static long latitudeKey(long latitudeUnits) {
+        long units = Math.max(0, Math.min(LATITUDE_UNITS - 1, latitudeUnits - MIN_LATITUDE_UNITS));
+        return (units << KEY_BITS) / LATITUDE_UNITS;
+    }
+
+    static long longitudeKey(long longitudeUnits) {
+        long units = Math.max(0, Math.min(LONGITUDE_UNITS - 1, longitudeUnits - MIN_LONGITUDE_UNITS));
+        return (units << KEY_BITS - 1) / (LONGITUDE_UNITS / 2 + 1);
+    }
+
+    /**
+     * Rounded outwards by one unit, so that no location within the bounding box is left out by rounding.
+     */
+    private static long floorUnits(double radians) {
+        return (long) Math.floor(Math.toDegrees(radians) * 1e7) - 1;
+    }
+
+    private static long ceilUnits(double radians) {
+        return (long) Math.ceil(Math.toDegrees(radians) * 1e7) + 1;
+    }
+}
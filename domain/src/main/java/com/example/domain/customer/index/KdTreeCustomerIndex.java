@@ -0,0 +1,189 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.geocoord.model.UnitVector;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+
+/**
+ * {@link CustomerIndex} organizing the {@link UnitVector unit vectors} of the customers' locations in a static,
+ * balanced 3D KD-tree.
+ * <p>
+ * The tree is implicit: its nodes are the positions of flat arrays, the node of a range of positions being its middle
+ * position and its children the two halves around it, so that no node objects nor child pointers are kept and every
+ * array can be built, or written out, in one pass. Each node splits its subtree along the axis of its widest extent.
+ * <p>
+ * Since the chord length between unit vectors is monotonic in the great-circle distance, range queries convert their
+ * {@link PreparedRangeQuery#getMaxCentralAngle() maximum central angle} into a chord length and prune every subtree
+ * lying farther than it from the splitting plane: the pruning is exact on the sphere, with no special case at the
+ * antimeridian or the poles. The candidates left are tested by the query itself, on their latitude/longitude.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/K-d_tree">k-d tree</a>
+ */
+@Immutable
+public final class KdTreeCustomerIndex implements CustomerIndex {
+
+    // slack on the chord length, well above the rounding error of the unit vectors
+    private static final double CHORD_LENGTH_SLACK = 1e-9;
+
+    private final CustomerStore store;
+    private final int[] rows;
+    private final double[][] coordinates;
+    private final byte[] splitAxes;
+    private final double[] latitudes;
+    private final double[] longitudes;
+
+    private KdTreeCustomerIndex(CustomerStore store, int[] rows, double[][] coordinates, byte[] splitAxes,
+                                double[] latitudes, double[] longitudes) {
+        this.store = store;
+        this.rows = rows;
+        this.coordinates = coordinates;
+        this.splitAxes = splitAxes;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+    }
+
+    /**
+     *
+     * @param store
+     * @return index over the customers of the given store
+     */
+    public static KdTreeCustomerIndex of(CustomerStore store) {
+        int n = store.size();
+        double[][] vectors = new double[3][n];
+        int[] rows = new int[n];
+        for (int row = 0; row < n; row++) {
+            UnitVector unitVector = UnitVector.of(store.getLatitudeInRadians(row), store.getLongitudeInRadians(row));
+            vectors[0][row] = unitVector.getX();
+            vectors[1][row] = unitVector.getY();
+            vectors[2][row] = unitVector.getZ();
+            rows[row] = row;
+        }
+        byte[] splitAxes = new byte[n];
+        build(vectors, rows, splitAxes, 0, n);
+
+        double[][] coordinates = new double[3][n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                coordinates[axis][i] = vectors[axis][rows[i]];
+            }
+            latitudes[i] = store.getLatitudeInRadians(rows[i]);
+            longitudes[i] = store.getLongitudeInRadians(rows[i]);
+        }
+        return new KdTreeCustomerIndex(store, rows, coordinates, splitAxes, latitudes, longitudes);
+    }
+
+    /**
+     * Arranges the rows of the given range of positions as a subtree: the middle position holds the median along
+     * the widest axis, the positions before it no greater coordinates and the positions after it no lesser ones.
+     */
+    private static void build(double[][] vectors, int[] rows, byte[] splitAxes, int from, int to) {
+        while (to - from > 1) {
+            int axis = widestAxis(vectors, rows, from, to);
+            int middle = (from + to) >>> 1;
+            select(vectors[axis], rows, from, to, middle);
+            splitAxes[middle] = (byte) axis;
+            build(vectors, rows, splitAxes, from, middle);
+            from = middle + 1;
+        }
+    }
+
+    private static int widestAxis(double[][] vectors, int[] rows, int from, int to) {
+        int widestAxis = 0;
+        double widestExtent = -1;
+        for (int axis = 0; axis < 3; axis++) {
+            double[] values = vectors[axis];
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = from; i < to; i++) {
+                double value = values[rows[i]];
+                min = Math.min(min, value);
+                max = Math.max(max, value);
+            }
+            if (max - min > widestExtent) {
+                widestAxis = axis;
+                widestExtent = max - min;
+            }
+        }
+        return widestAxis;
+    }
+
+    /**
+     * Quickselect (Hoare partitioning) moving the row of rank {@code k - from} by the given values to position
+     * {@code k}.
+     */
+    private static void select(double[] values, int[] rows, int from, int to, int k) {
+        int low = from;
+        int high = to - 1;
+        while (low < high) {
+            double pivot = values[rows[(low + high) >>> 1]];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (values[rows[i]] < pivot) {
+                    i++;
+                }
+                while (values[rows[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int row = rows[i];
+                    rows[i++] = rows[j];
+                    rows[j--] = row;
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public CustomerStore getStore() {
+        return store;
+    }
+
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query) {
+        BitSet result = new BitSet(store.size());
+        UnitVector target = UnitVector.of(query.getTarget().getLatitudeInRadians(),
+                query.getTarget().getLongitudeInRadians());
+        double chordLength = UnitVector.chordLength(query.getMaxCentralAngle()) + CHORD_LENGTH_SLACK;
+        search(query, new double[] {target.getX(), target.getY(), target.getZ()}, chordLength,
+                0, rows.length, result);
+        return result;
+    }
+
+    private void search(PreparedRangeQuery query, double[] target, double chordLength, int from, int to,
+                        BitSet result) {
+        while (from < to) {
+            int middle = (from + to) >>> 1;
+            double dx = target[0] - coordinates[0][middle];
+            double dy = target[1] - coordinates[1][middle];
+            double dz = target[2] - coordinates[2][middle];
+            if (dx * dx + dy * dy + dz * dz <= chordLength * chordLength
+                    && query.contains(latitudes[middle], longitudes[middle])) {
+                result.set(rows[middle]);
+            }
+
+            int axis = splitAxes[middle];
+            double offset = target[axis] - coordinates[axis][middle];
+            if (offset <= chordLength) {
+                if (offset >= -chordLength) {
+                    search(query, target, chordLength, middle + 1, to, result);
+                }
+                to = middle;
+            } else {
+                from = middle + 1;
+            }
+        }
+    }
+}
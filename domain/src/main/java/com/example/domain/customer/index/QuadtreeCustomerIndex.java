@@ -0,0 +1,240 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.geocoord.model.BoundingBox;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * {@link CustomerIndex} dividing the latitude/longitude plane into an adaptive quadtree: a cell is split into four
+ * quadrants as long as it holds more than a given number of customers, so that cells are small in dense cities and
+ * large over empty oceans, and every leaf holds at most that number of customers (save for cells at the maximum depth,
+ * about {@value #MAX_DEPTH} splits, i.e. a few meters wide).
+ * <p>
+ * The customers are partitioned in place while the tree is built, so that the customers of every cell, leaf or not,
+ * are contiguous in primitive arrays; the cells themselves are kept in primitive arrays, the four children of a cell
+ * being contiguous. Range queries search the cells intersecting the bounding box of the query, which handles the
+ * antimeridian and the poles, and test the customers of the leaves with the query itself: the number of customers
+ * tested per cell is bounded whatever the local density.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Quadtree">Quadtree</a>
+ */
+@Immutable
+public final class QuadtreeCustomerIndex implements CustomerIndex {
+
+    static final int DEFAULT_CELL_CAPACITY = 32;
+
+    private static final int MAX_DEPTH = 24;
+    private static final int NO_CHILDREN = -1;
+
+    private final CustomerStore store;
+    private final int[] rows;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final int depth;
+    private final double[] minLatitudes;
+    private final double[] maxLatitudes;
+    private final double[] minLongitudes;
+    private final double[] maxLongitudes;
+    private final int[] firstChildren;
+    private final int[] starts;
+    private final int[] ends;
+
+    private QuadtreeCustomerIndex(CustomerStore store, Builder builder) {
+        this.store = store;
+        this.rows = builder.rows;
+        this.latitudes = builder.latitudes;
+        this.longitudes = builder.longitudes;
+        this.depth = builder.depth;
+        this.minLatitudes = Arrays.copyOf(builder.minLatitudes, builder.cellCount);
+        this.maxLatitudes = Arrays.copyOf(builder.maxLatitudes, builder.cellCount);
+        this.minLongitudes = Arrays.copyOf(builder.minLongitudes, builder.cellCount);
+        this.maxLongitudes = Arrays.copyOf(builder.maxLongitudes, builder.cellCount);
+        this.firstChildren = Arrays.copyOf(builder.firstChildren, builder.cellCount);
+        this.starts = Arrays.copyOf(builder.starts, builder.cellCount);
+        this.ends = Arrays.copyOf(builder.ends, builder.cellCount);
+    }
+
+    /**
+     *
+     * @param store
+     * @return index over the customers of the given store, with the default cell capacity
+     */
+    public static QuadtreeCustomerIndex of(CustomerStore store) {
+        return of(store, DEFAULT_CELL_CAPACITY);
+    }
+
+    /**
+     *
+     * @param store
+     * @param cellCapacity number of customers beyond which a cell is split
+     * @return index over the customers of the given store
+     */
+    public static QuadtreeCustomerIndex of(CustomerStore store, int cellCapacity) {
+        if (cellCapacity < 1) {
+            throw new IllegalArgumentException("cell capacity must be greater than 0");
+        }
+        Builder builder = new Builder(store, cellCapacity);
+        int root = builder.addCell(-Math.PI / 2, Math.PI / 2, -Math.PI, Math.PI, 0, store.size());
+        builder.split(root, 0);
+        return new QuadtreeCustomerIndex(store, builder);
+    }
+
+    @Override
+    public CustomerStore getStore() {
+        return store;
+    }
+
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query) {
+        BitSet result = new BitSet(store.size());
+        BoundingBox boundingBox = query.getBoundingBox();
+        // each visited cell pushes at most four children in place of itself
+        int[] stack = new int[3 * depth + 1];
+        int size = 0;
+        stack[size++] = 0;
+        while (size > 0) {
+            int cell = stack[--size];
+            if (firstChildren[cell] == NO_CHILDREN) {
+                for (int i = starts[cell]; i < ends[cell]; i++) {
+                    if (boundingBox.contains(latitudes[i], longitudes[i])
+                            && query.contains(latitudes[i], longitudes[i])) {
+                        result.set(rows[i]);
+                    }
+                }
+            } else {
+                for (int child = firstChildren[cell]; child < firstChildren[cell] + 4; child++) {
+                    if (starts[child] < ends[child] && boundingBox.intersects(minLatitudes[child],
+                            maxLatitudes[child], minLongitudes[child], maxLongitudes[child])) {
+                        stack[size++] = child;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Partitions the customers and collects the cells, in growable arrays, while the tree is built.
+     */
+    private static final class Builder {
+
+        private final int cellCapacity;
+        private final int[] rows;
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private int depth;
+        private int cellCount;
+        private double[] minLatitudes = new double[16];
+        private double[] maxLatitudes = new double[16];
+        private double[] minLongitudes = new double[16];
+        private double[] maxLongitudes = new double[16];
+        private int[] firstChildren = new int[16];
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+
+        private Builder(CustomerStore store, int cellCapacity) {
+            this.cellCapacity = cellCapacity;
+            int n = store.size();
+            this.rows = new int[n];
+            this.latitudes = new double[n];
+            this.longitudes = new double[n];
+            for (int row = 0; row < n; row++) {
+                rows[row] = row;
+                latitudes[row] = store.getLatitudeInRadians(row);
+                longitudes[row] = store.getLongitudeInRadians(row);
+            }
+        }
+
+        /**
+         * Splits the given cell, then its quadrants, for as long as they hold more customers than the capacity.
+         */
+        private void split(int cell, int cellDepth) {
+            depth = Math.max(depth, cellDepth);
+            int start = starts[cell];
+            int end = ends[cell];
+            if (end - start <= cellCapacity || cellDepth == MAX_DEPTH) {
+                return;
+            }
+            double minLatitude = minLatitudes[cell];
+            double maxLatitude = maxLatitudes[cell];
+            double minLongitude = minLongitudes[cell];
+            double maxLongitude = maxLongitudes[cell];
+            double midLatitude = (minLatitude + maxLatitude) / 2;
+            double midLongitude = (minLongitude + maxLongitude) / 2;
+
+            // south-west, south-east, north-west and north-east quadrants, in this order
+            int north = partition(latitudes, midLatitude, start, end);
+            int southEast = partition(longitudes, midLongitude, start, north);
+            int northEast = partition(longitudes, midLongitude, north, end);
+            int firstChild = addCell(minLatitude, midLatitude, minLongitude, midLongitude, start, southEast);
+            addCell(minLatitude, midLatitude, midLongitude, maxLongitude, southEast, north);
+            addCell(midLatitude, maxLatitude, minLongitude, midLongitude, north, northEast);
+            addCell(midLatitude, maxLatitude, midLongitude, maxLongitude, northEast, end);
+            firstChildren[cell] = firstChild;
+            for (int child = firstChild; child < firstChild + 4; child++) {
+                split(child, cellDepth + 1);
+            }
+        }
+
+        /**
+         * Moves the customers of the given range whose key is less than the given value before the others.
+         *
+         * @return position of the first customer whose key is not less than the given value
+         */
+        private int partition(double[] keys, double value, int from, int to) {
+            int i = from;
+            int j = to - 1;
+            while (true) {
+                while (i <= j && keys[i] < value) {
+                    i++;
+                }
+                while (i <= j && keys[j] >= value) {
+                    j--;
+                }
+                if (i >= j) {
+                    return i;
+                }
+                swap(i++, j--);
+            }
+        }
+
+        private void swap(int i, int j) {
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+            double latitude = latitudes[i];
+            latitudes[i] = latitudes[j];
+            latitudes[j] = latitude;
+            double longitude = longitudes[i];
+            longitudes[i] = longitudes[j];
+            longitudes[j] = longitude;
+        }
+
+        private int addCell(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude,
+                            int start, int end) {
+            if (cellCount == starts.length) {
+                int capacity = 2 * cellCount;
+                minLatitudes = Arrays.copyOf(minLatitudes, capacity);
+                maxLatitudes = Arrays.copyOf(maxLatitudes, capacity);
+                minLongitudes = Arrays.copyOf(minLongitudes, capacity);
+                maxLongitudes = Arrays.copyOf(maxLongitudes, capacity);
+                firstChildren = Arrays.copyOf(firstChildren, capacity);
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+            }
+            int cell = cellCount++;
+            minLatitudes[cell] = minLatitude;
+            maxLatitudes[cell] = maxLatitude;
+            minLongitudes[cell] = minLongitude;
+            maxLongitudes[cell] = maxLongitude;
+            firstChildren[cell] = NO_CHILDREN;
+            starts[cell] = start;
+            ends[cell] = end;
+            return cell;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.domain.customer.index;
+
+/**
+ * Stable least-significant-digit radix sort of {@code long} keys carrying {@code int} values, in linear time.
+ */
+final class RadixSort {
+
+    private static final int DIGIT_BITS = 16;
+    private static final int DIGIT_MASK = (1 << DIGIT_BITS) - 1;
+
+    private RadixSort() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Sorts the keys in signed order, moving each value along with its key.
+     *
+     * @param keys
+     * @param values same length as the keys
+     */
+    static void sort(long[] keys, int[] values) {
+        int n = keys.length;
+        long[] keyBuffer = new long[n];
+        int[] valueBuffer = new int[n];
+        long[] sourceKeys = keys;
+        int[] sourceValues = values;
+        long[] targetKeys = keyBuffer;
+        int[] targetValues = valueBuffer;
+        for (int shift = 0; shift < Long.SIZE; shift += DIGIT_BITS) {
+            int[] starts = new int[DIGIT_MASK + 2];
+            for (long key : sourceKeys) {
+                starts[digit(key, shift) + 1]++;
+            }
+            for (int digit = 0; digit <= DIGIT_MASK; digit++) {
+                starts[digit + 1] += starts[digit];
+            }
+            for (int i = 0; i < n; i++) {
+                int position = starts[digit(sourceKeys[i], shift)]++;
+                targetKeys[position] = sourceKeys[i];
+                targetValues[position] = sourceValues[i];
+            }
+            long[] keySwap = sourceKeys;
+            sourceKeys = targetKeys;
+            targetKeys = keySwap;
+            int[] valueSwap = sourceValues;
+            sourceValues = targetValues;
+            targetValues = valueSwap;
+        }
+        // an even number of passes leaves the sorted keys in the given arrays
+    }
+
+    private static int digit(long key, int shift) {
+        int digit = (int) (key >>> shift) & DIGIT_MASK;
+        // the most significant digit is compared as signed
+        return shift == Long.SIZE - DIGIT_BITS ? digit ^ 1 << DIGIT_BITS - 1 : digit;
+    }
+}
@@ -0,0 +1,287 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.geocoord.model.BoundingBox;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+
+/**
+ * {@link CustomerIndex} packing the customers' locations (as latitude/longitude points) into a static R-tree, bulk
+ * loaded with Sort-Tile-Recursive.
+ * <p>
+ * Every level is tiled the same way: its entries are sorted by longitude into vertical slices of about
+ * {@code sqrt(n / fanOut)} nodes each, then by latitude within each slice, and every run of {@code fanOut}
+ * consecutive entries becomes a node of the level above. The nodes are kept in primitive arrays (bounding
+ * rectangles and child ranges), the children of a node being contiguous, so that with the default fan-out of
+ * {@value #DEFAULT_FAN_OUT} the rectangles of the children of a node span one cache line per coordinate.
+ * <p>
+ * Range queries search the tree with the bounding box of the query, which handles the antimeridian and the poles,
+ * then test the points left with the query itself; rectangle searches test the bounding box only. Searches walk the
+ * tree with a single array as stack, allocating nothing per visited node.
+ *
+ * @see <a href="https://apps.dtic.mil/sti/citations/ADA324493">STR: A Simple and Efficient Algorithm for R-Tree
+ * Packing</a>
+ */
+@Immutable
+public final class StrRTreeCustomerIndex implements CustomerIndex {
+
+    static final int DEFAULT_FAN_OUT = 8;
+
+    private final CustomerStore store;
+    private final int fanOut;
+    private final int height;
+    private final int[] rows;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    // nodes [0, leafNodeCount) are the leaves, whose children are points; the root is the last node
+    private final int leafNodeCount;
+    private final int nodeCount;
+    private final double[] minLatitudes;
+    private final double[] maxLatitudes;
+    private final double[] minLongitudes;
+    private final double[] maxLongitudes;
+    private final int[] childStarts;
+    private final int[] childEnds;
+
+    private StrRTreeCustomerIndex(CustomerStore store, int fanOut, int[] rows, double[] latitudes,
+                                  double[] longitudes, int leafNodeCount) {
+        this.store = store;
+        this.fanOut = fanOut;
+        this.rows = rows;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.leafNodeCount = leafNodeCount;
+
+        int levels = 0;
+        int nodes = 0;
+        for (int levelNodeCount = leafNodeCount; levelNodeCount > 0;
+             levelNodeCount = levelNodeCount == 1 ? 0 : ceilDiv(levelNodeCount, fanOut)) {
+            levels++;
+            nodes += levelNodeCount;
+        }
+        this.height = levels;
+        this.nodeCount = nodes;
+        this.minLatitudes = new double[nodes];
+        this.maxLatitudes = new double[nodes];
+        this.minLongitudes = new double[nodes];
+        this.maxLongitudes = new double[nodes];
+        this.childStarts = new int[nodes];
+        this.childEnds = new int[nodes];
+    }
+
+    /**
+     *
+     * @param store
+     * @return index over the customers of the given store, with the default fan-out
+     */
+    public static StrRTreeCustomerIndex of(CustomerStore store) {
+        return of(store, DEFAULT_FAN_OUT);
+    }
+
+    /**
+     *
+     * @param store
+     * @param fanOut maximum number of children of a node
+     * @return index over the customers of the given store
+     */
+    public static StrRTreeCustomerIndex of(CustomerStore store, int fanOut) {
+        if (fanOut < 2) {
+            throw new IllegalArgumentException("fan-out must be greater than 1");
+        }
+        int n = store.size();
+        double[] storeLatitudes = new double[n];
+        double[] storeLongitudes = new double[n];
+        for (int row = 0; row < n; row++) {
+            storeLatitudes[row] = store.getLatitudeInRadians(row);
+            storeLongitudes[row] = store.getLongitudeInRadians(row);
+        }
+        int[] rows = tile(storeLongitudes, storeLatitudes, n, fanOut);
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int i = 0; i < n; i++) {
+            latitudes[i] = storeLatitudes[rows[i]];
+            longitudes[i] = storeLongitudes[rows[i]];
+        }
+
+        StrRTreeCustomerIndex index = new StrRTreeCustomerIndex(store, fanOut, rows, latitudes, longitudes,
+                ceilDiv(n, fanOut));
+        index.pack();
+        return index;
+    }
+
+    /**
+     * Builds the leaves over the tiled points, then each level over the tiled nodes of the level below.
+     */
+    private void pack() {
+        for (int node = 0; node < leafNodeCount; node++) {
+            int start = node * fanOut;
+            int end = Math.min(rows.length, start + fanOut);
+            childStarts[node] = start;
+            childEnds[node] = end;
+            minLatitudes[node] = Double.POSITIVE_INFINITY;
+            maxLatitudes[node] = Double.NEGATIVE_INFINITY;
+            minLongitudes[node] = Double.POSITIVE_INFINITY;
+            maxLongitudes[node] = Double.NEGATIVE_INFINITY;
+            for (int i = start; i < end; i++) {
+                minLatitudes[node] = Math.min(minLatitudes[node], latitudes[i]);
+                maxLatitudes[node] = Math.max(maxLatitudes[node], latitudes[i]);
+                minLongitudes[node] = Math.min(minLongitudes[node], longitudes[i]);
+                maxLongitudes[node] = Math.max(maxLongitudes[node], longitudes[i]);
+            }
+        }
+
+        int levelStart = 0;
+        int levelEnd = leafNodeCount;
+        while (levelEnd - levelStart > 1) {
+            tileLevel(levelStart, levelEnd);
+            int parent = levelEnd;
+            for (int start = levelStart; start < levelEnd; start += fanOut, parent++) {
+                int end = Math.min(levelEnd, start + fanOut);
+                childStarts[parent] = start;
+                childEnds[parent] = end;
+                minLatitudes[parent] = Double.POSITIVE_INFINITY;
+                maxLatitudes[parent] = Double.NEGATIVE_INFINITY;
+                minLongitudes[parent] = Double.POSITIVE_INFINITY;
+                maxLongitudes[parent] = Double.NEGATIVE_INFINITY;
+                for (int child = start; child < end; child++) {
+                    minLatitudes[parent] = Math.min(minLatitudes[parent], minLatitudes[child]);
+                    maxLatitudes[parent] = Math.max(maxLatitudes[parent], maxLatitudes[child]);
+                    minLongitudes[parent] = Math.min(minLongitudes[parent], minLongitudes[child]);
+                    maxLongitudes[parent] = Math.max(maxLongitudes[parent], maxLongitudes[child]);
+                }
+            }
+            levelStart = levelEnd;
+            levelEnd = parent;
+        }
+    }
+
+    /**
+     * Reorders the nodes of a level by the tiling of their centers; their children stay where they are.
+     */
+    private void tileLevel(int levelStart, int levelEnd) {
+        int count = levelEnd - levelStart;
+        double[] centerLongitudes = new double[count];
+        double[] centerLatitudes = new double[count];
+        for (int i = 0; i < count; i++) {
+            centerLongitudes[i] = (minLongitudes[levelStart + i] + maxLongitudes[levelStart + i]) / 2;
+            centerLatitudes[i] = (minLatitudes[levelStart + i] + maxLatitudes[levelStart + i]) / 2;
+        }
+        int[] order = tile(centerLongitudes, centerLatitudes, count, fanOut);
+        permute(minLatitudes, levelStart, order);
+        permute(maxLatitudes, levelStart, order);
+        permute(minLongitudes, levelStart, order);
+        permute(maxLongitudes, levelStart, order);
+        permute(childStarts, levelStart, order);
+        permute(childEnds, levelStart, order);
+    }
+
+    private static void permute(double[] values, int offset, int[] order) {
+        double[] copy = new double[order.length];
+        for (int i = 0; i < order.length; i++) {
+            copy[i] = values[offset + order[i]];
+        }
+        System.arraycopy(copy, 0, values, offset, order.length);
+    }
+
+    private static void permute(int[] values, int offset, int[] order) {
+        int[] copy = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            copy[i] = values[offset + order[i]];
+        }
+        System.arraycopy(copy, 0, values, offset, order.length);
+    }
+
+    /**
+     * Sorts the entries by x into slices of whole groups of {@code fanOut} entries, then by y within each slice,
+     * with two radix sorts: the second one on the slice of each entry followed by its y.
+     *
+     * @return indices of the entries in tiled order
+     */
+    private static int[] tile(double[] xs, double[] ys, int count, int fanOut) {
+        long[] keys = new long[count];
+        int[] order = new int[count];
+        for (int i = 0; i < count; i++) {
+            keys[i] = sortableBits(xs[i]);
+            order[i] = i;
+        }
+        RadixSort.sort(keys, order);
+
+        int groups = ceilDiv(count, fanOut);
+        int slices = (int) Math.ceil(Math.sqrt(groups));
+        long sliceSize = (long) ceilDiv(groups, Math.max(1, slices)) * fanOut;
+        for (int i = 0; i < count; i++) {
+            // the upper half of the bits of y, as unsigned, is enough to order the entries within a slice
+            keys[i] = i / sliceSize << Integer.SIZE | (sortableBits(ys[order[i]]) >>> Integer.SIZE ^ 0x80000000L);
+        }
+        RadixSort.sort(keys, order);
+        return order;
+    }
+
+    /**
+     * @return bits of the given value, in the same signed order as the values
+     */
+    private static long sortableBits(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ (bits >> 63 & Long.MAX_VALUE);
+    }
+
+    private static int ceilDiv(int dividend, int divisor) {
+        return (int) (((long) dividend + divisor - 1) / divisor);
+    }
+
+    @Override
+    public CustomerStore getStore() {
+        return store;
+    }
+
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query) {
+        BitSet result = new BitSet(store.size());
+        search(query.getBoundingBox(), query, result);
+        return result;
+    }
+
+    /**
+     *
+     * @param boundingBox
+     * @return rows of the store whose customers are located within the given window
+     */
+    public BitSet withinBoundingBox(BoundingBox boundingBox) {
+        BitSet result = new BitSet(store.size());
+        search(boundingBox, null, result);
+        return result;
+    }
+
+    /**
+     * Depth-first search of the nodes intersecting the given window, testing their points with the given query
+     * unless null.
+     */
+    private void search(BoundingBox boundingBox, PreparedRangeQuery query, BitSet result) {
+        if (nodeCount == 0) {
+            return;
+        }
+        int[] stack = new int[fanOut * height];
+        int size = 0;
+        stack[size++] = nodeCount - 1;
+        while (size > 0) {
+            int node = stack[--size];
+            if (node < leafNodeCount) {
+                for (int i = childStarts[node]; i < childEnds[node]; i++) {
+                    if (boundingBox.contains(latitudes[i], longitudes[i])
+                            && (query == null || query.contains(latitudes[i], longitudes[i]))) {
+                        result.set(rows[i]);
+                    }
+                }
+            } else {
+                for (int child = childStarts[node]; child < childEnds[node]; child++) {
+                    if (boundingBox.intersects(minLatitudes[child], maxLatitudes[child],
+                            minLongitudes[child], maxLongitudes[child])) {
+                        stack[size++] = child;
+                    }
+                }
+            }
+        }
+    }
+}
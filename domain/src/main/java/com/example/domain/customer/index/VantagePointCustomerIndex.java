@@ -0,0 +1,307 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.geocoord.model.UnitVector;
+import com.example.domain.geocoord.service.CoordinateService;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+import java.util.Random;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+
+/**
+ * {@link CustomerIndex} organizing the customers in a vantage-point tree, a metric-space index whose metric is
+ * {@link CoordinateService#greatCircleDistanceOnEarthBetween(double, double, double, double) the great-circle
+ * distance}: being computed on the sphere itself, it needs no projection and has no special case at the antimeridian
+ * or the poles.
+ * <p>
+ * Like the {@link KdTreeCustomerIndex KD-tree}, the tree is implicit: the node of a range of positions is its first
+ * position, holding a vantage point picked at random, and the rest of the range is split around the median distance
+ * to it, the nearer half first. Searches prune a half by the triangle inequality, when its distances to the vantage
+ * point all differ from the distance of the target by more than the search radius; since every distance is measured
+ * from actual customers, the tree adapts to clustered distributions. Besides range queries, whose candidates are
+ * tested by the query itself, the tree answers nearest-neighbour queries.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Vantage-point_tree">Vantage-point tree</a>
+ */
+@Immutable
+public final class VantagePointCustomerIndex implements CustomerIndex {
+
+    // slack on the distances (in meters), well above the rounding error of the metric, whatever its math mode
+    private static final double METRIC_SLACK = 16.0;
+    private static final long SEED = 0x5DEECE66DL;
+
+    private final CustomerStore store;
+    private final CoordinateService coordinateService;
+    private final int[] rows;
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] medianDistances;
+
+    private VantagePointCustomerIndex(CustomerStore store, CoordinateService coordinateService, int[] rows,
+                                      double[] latitudes, double[] longitudes) {
+        this.store = store;
+        this.coordinateService = coordinateService;
+        this.rows = rows;
+        this.latitudes = latitudes;
+        this.longitudes = longitudes;
+        this.medianDistances = new double[rows.length];
+    }
+
+    /**
+     *
+     * @param store
+     * @param coordinateService service whose great-circle distance is the metric of the tree
+     * @return index over the customers of the given store
+     */
+    public static VantagePointCustomerIndex of(CustomerStore store, CoordinateService coordinateService) {
+        int n = store.size();
+        int[] rows = new int[n];
+        double[] latitudes = new double[n];
+        double[] longitudes = new double[n];
+        for (int row = 0; row < n; row++) {
+            rows[row] = row;
+            latitudes[row] = store.getLatitudeInRadians(row);
+            longitudes[row] = store.getLongitudeInRadians(row);
+        }
+        VantagePointCustomerIndex index = new VantagePointCustomerIndex(store, coordinateService, rows, latitudes,
+                longitudes);
+        index.build(new double[n], new Random(SEED), 0, n);
+        return index;
+    }
+
+    /**
+     * Arranges the given range of positions as a subtree: a vantage point first, then the positions no farther from
+     * it than the median distance, then the positions no nearer.
+     */
+    private void build(double[] distances, Random random, int from, int to) {
+        while (to - from > 1) {
+            swap(distances, from, from + random.nextInt(to - from));
+            for (int i = from + 1; i < to; i++) {
+                distances[i] = distance(from, latitudes[i], longitudes[i]);
+            }
+            int middle = middle(from, to);
+            select(distances, from + 1, to, middle);
+            medianDistances[from] = distances[middle];
+            build(distances, random, from + 1, middle);
+            from = middle;
+        }
+    }
+
+    /**
+     * @return first position of the farther half of the subtree of the given range
+     */
+    private static int middle(int from, int to) {
+        return (from + 1 + to) >>> 1;
+    }
+
+    /**
+     * Quickselect (Hoare partitioning) moving the position of rank {@code k - from} by distance to position
+     * {@code k}.
+     */
+    private void select(double[] distances, int from, int to, int k) {
+        int low = from;
+        int high = to - 1;
+        while (low < high) {
+            double pivot = distances[(low + high) >>> 1];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (distances[i] < pivot) {
+                    i++;
+                }
+                while (distances[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(distances, i++, j--);
+                }
+            }
+            if (k <= j) {
+                high = j;
+            } else if (k >= i) {
+                low = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(double[] distances, int i, int j) {
+        int row = rows[i];
+        rows[i] = rows[j];
+        rows[j] = row;
+        double latitude = latitudes[i];
+        latitudes[i] = latitudes[j];
+        latitudes[j] = latitude;
+        double longitude = longitudes[i];
+        longitudes[i] = longitudes[j];
+        longitudes[j] = longitude;
+        double distance = distances[i];
+        distances[i] = distances[j];
+        distances[j] = distance;
+    }
+
+    private double distance(int position, double latitude, double longitude) {
+        double distance = coordinateService.greatCircleDistanceOnEarthBetween(latitudes[position],
+                longitudes[position], latitude, longitude);
+        if (Double.isNaN(distance)) {
+            // the arc cosine of an argument rounded just outside [-1, 1], for (nearly) coincident or antipodal points
+            UnitVector a = UnitVector.of(latitudes[position], longitudes[position]);
+            double chordLength = Math.sqrt(a.squaredChordLength(UnitVector.of(latitude, longitude)));
+            return 2 * Math.asin(Math.min(1.0, chordLength / 2)) * MEAN_EARTH_RADIUS;
+        }
+        return distance;
+    }
+
+    @Override
+    public CustomerStore getStore() {
+        return store;
+    }
+
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query) {
+        BitSet result = new BitSet(store.size());
+        double radius = query.getMaxCentralAngle() * MEAN_EARTH_RADIUS + METRIC_SLACK;
+        search(query, query.getTarget().getLatitudeInRadians(), query.getTarget().getLongitudeInRadians(), radius,
+                0, rows.length, result);
+        return result;
+    }
+
+    private void search(PreparedRangeQuery query, double latitude, double longitude, double radius, int from,
+                        int to, BitSet result) {
+        while (from < to) {
+            double distance = distance(from, latitude, longitude);
+            if (distance <= radius && query.contains(latitudes[from], longitudes[from])) {
+                result.set(rows[from]);
+            }
+            int middle = middle(from, to);
+            double medianDistance = medianDistances[from];
+            if (distance - radius <= medianDistance) {
+                if (distance + radius >= medianDistance) {
+                    search(query, latitude, longitude, radius, middle, to, result);
+                }
+                from = from + 1;
+                to = middle;
+            } else {
+                from = middle;
+            }
+        }
+    }
+
+    /**
+     *
+     * @param latitude latitude of the target location (in radians)
+     * @param longitude longitude of the target location (in radians)
+     * @param count maximum number of customers to return
+     * @return rows of the store of the given number of customers nearest to the target location, nearest first
+     */
+    public int[] nearest(double latitude, double longitude, int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must be greater than or equal to 0");
+        }
+        Neighbours neighbours = new Neighbours(Math.min(count, rows.length));
+        if (neighbours.capacity > 0) {
+            nearest(latitude, longitude, 0, rows.length, neighbours);
+        }
+        return neighbours.toRows();
+    }
+
+    private void nearest(double latitude, double longitude, int from, int to, Neighbours neighbours) {
+        if (from >= to) {
+            return;
+        }
+        double distance = distance(from, latitude, longitude);
+        neighbours.offer(distance, rows[from]);
+
+        int middle = middle(from, to);
+        double medianDistance = medianDistances[from];
+        // the half on the side of the target is searched first, to shrink the search radius sooner
+        if (distance < medianDistance) {
+            if (distance - neighbours.radius() <= medianDistance) {
+                nearest(latitude, longitude, from + 1, middle, neighbours);
+            }
+            if (distance + neighbours.radius() >= medianDistance) {
+                nearest(latitude, longitude, middle, to, neighbours);
+            }
+        } else {
+            if (distance + neighbours.radius() >= medianDistance) {
+                nearest(latitude, longitude, middle, to, neighbours);
+            }
+            if (distance - neighbours.radius() <= medianDistance) {
+                nearest(latitude, longitude, from + 1, middle, neighbours);
+            }
+        }
+    }
+
+    /**
+     * Bounded max-heap of the nearest customers found so far, by distance.
+     */
+    private static final class Neighbours {
+
+        private final int capacity;
+        private final double[] distances;
+        private final int[] rows;
+        private int size;
+
+        private Neighbours(int capacity) {
+            this.capacity = capacity;
+            this.distances = new double[capacity];
+            this.rows = new int[capacity];
+        }
+
+        /**
+         * @return distance beyond which no customer can be nearer than the ones found so far
+         */
+        private double radius() {
+            return size < capacity ? Double.POSITIVE_INFINITY : distances[0] + METRIC_SLACK;
+        }
+
+        private void offer(double distance, int row) {
+            if (size < capacity) {
+                int i = size++;
+                while (i > 0 && distances[(i - 1) / 2] < distance) {
+                    distances[i] = distances[(i - 1) / 2];
+                    rows[i] = rows[(i - 1) / 2];
+                    i = (i - 1) / 2;
+                }
+                distances[i] = distance;
+                rows[i] = row;
+            } else if (distance < distances[0]) {
+                siftDown(distance, row, size);
+            }
+        }
+
+        /**
+         * Replaces the farthest customer by the given one, within the first {@code heapSize} entries.
+         */
+        private void siftDown(double distance, int row, int heapSize) {
+            int i = 0;
+            while (2 * i + 1 < heapSize) {
+                int child = 2 * i + 1;
+                if (child + 1 < heapSize && distances[child + 1] > distances[child]) {
+                    child++;
+                }
+                if (distances[child] <= distance) {
+                    break;
+                }
+                distances[i] = distances[child];
+                rows[i] = rows[child];
+                i = child;
+            }
+            distances[i] = distance;
+            rows[i] = row;
+        }
+
+        private int[] toRows() {
+            int[] result = new int[size];
+            for (int heapSize = size; heapSize > 0; heapSize--) {
+                result[heapSize - 1] = rows[0];
+                siftDown(distances[heapSize - 1], rows[heapSize - 1], heapSize - 1);
+            }
+            return result;
+        }
+    }
+}
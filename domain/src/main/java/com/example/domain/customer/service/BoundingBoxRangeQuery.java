@@ -0,0 +1,79 @@
+package com.example.domain.customer.service;
+
+import com.example.domain.geocoord.model.BoundingBox;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import com.example.domain.geocoord.service.RangeFilterKernel;
+import lombok.ToString;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+
+/**
+ * Range query which rejects candidates outside of the latitude/longitude window around the target with plain
+ * comparisons, and only evaluates the (much more expensive) distance test of the wrapped query for the others.
+ */
+@Immutable
+@ToString(of = {"boundingBox", "query"})
+class BoundingBoxRangeQuery implements PreparedRangeQuery {
+
+    private final PreparedRangeQuery query;
+    private final BoundingBox boundingBox;
+
+    /**
+     *
+     * @param query
+     */
+    BoundingBoxRangeQuery(PreparedRangeQuery query) {
+        this.query = query;
+        this.boundingBox = PreparedRangeQuery.boundingBoxOf(query);
+    }
+
+    @Override
+    public BoundingBox getBoundingBox() {
+        return boundingBox;
+    }
+
+    @Override
+    public Coordinate getTarget() {
+        return query.getTarget();
+    }
+
+    @Override
+    public double getRadius() {
+        return query.getRadius();
+    }
+
+    @Override
+    public DistanceStrategy getDistanceStrategy() {
+        return query.getDistanceStrategy();
+    }
+
+    @Override
+    public boolean contains(double latitude, double longitude) {
+        return boundingBox.contains(latitude, longitude) && query.contains(latitude, longitude);
+    }
+
+    @Override
+    public boolean contains(Coordinate location) {
+        return boundingBox.contains(location.getLatitudeInRadians(), location.getLongitudeInRadians())
+                && query.contains(location);
+    }
+
+    @Override
+    public boolean contains(double x, double y, double z) {
+        return query.contains(x, y, z);
+    }
+
+    @Override
+    public boolean isUnitVectorThreshold() {
+        return query.isUnitVectorThreshold();
+    }
+
+    @Override
+    public void filter(RangeFilterKernel kernel,
+                       double[] xs, double[] ys, double[] zs, int from, int to, BitSet result) {
+        query.filter(kernel, xs, ys, zs, from, to, result);
+    }
+}
@@ -1,11 +1,19 @@
 package com.example.domain.customer.service;
 
+import com.example.domain.customer.dto.CustomerRecord;
+import com.example.domain.customer.index.CustomerIndex;
+import com.example.domain.customer.index.CustomerIndexType;
+import com.example.domain.customer.index.VantagePointCustomerIndex;
 import com.example.domain.customer.model.Customer;
+import com.example.domain.customer.store.CustomerStore;
 import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
 
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.BitSet;
 import java.util.List;
 
 /**
@@ -22,4 +30,112 @@ public interface CustomerService {
     boolean isCustomerWithinRange(@Valid @NotNull final Customer customer,
                                   @Valid @NotNull final Coordinate location,
                                   @PositiveOrZero final double radius);
+
+    /**
+     *
+     * @param location
+     * @param radius
+     * @return
+     */
+    PreparedRangeQuery prepareRangeQuery(@Valid @NotNull final Coordinate location,
+                                         @PositiveOrZero final double radius);
+
+    /**
+     *
+     * @param location
+     * @param radius
+     * @param distanceStrategy
+     * @return
+     */
+    PreparedRangeQuery prepareRangeQuery(@Valid @NotNull final Coordinate location,
+                                         @PositiveOrZero final double radius,
+                                         @NotNull final DistanceStrategy distanceStrategy);
+
+    /**
+     *
+     * @param customer
+     * @param query
+     * @return
+     */
+    boolean isCustomerWithinRange(@Valid @NotNull final Customer customer,
+                                  @NotNull final PreparedRangeQuery query);
+
+    /**
+     *
+     * @param store
+     * @param customerRecord
+     * @return the given store builder
+     */
+    CustomerStore.Builder addCustomer(@NotNull final CustomerStore.Builder store,
+                                      @Valid @NotNull final CustomerRecord customerRecord);
+
+    /**
+     *
+     * @param store
+     * @param query
+     * @return rows of the store whose customers are within range
+     */
+    BitSet findCustomersWithinRange(@NotNull final CustomerStore store,
+                                    @NotNull final PreparedRangeQuery query);
+
+    /**
+     *
+     * @param store
+     * @return view of the given store with the unit vector of every customer precomputed, in parallel, for repeated
+     * range queries
+     */
+    CustomerStore precomputeUnitVectors(@NotNull final CustomerStore store);
+
+    /**
+     *
+     * @param store
+     * @param indexType
+     * @return index over the customers of the given store
+     */
+    CustomerIndex indexCustomers(@NotNull final CustomerStore store, @NotNull final CustomerIndexType indexType);
+
+    /**
+     *
+     * @param index
+     * @param query
+     * @return rows of the indexed store whose customers are within range
+     */
+    BitSet findCustomersWithinRange(@NotNull final CustomerIndex index,
+                                    @NotNull final PreparedRangeQuery query);
+
+    /**
+     *
+     * @param index
+     * @param location
+     * @param radius
+     * @return customers of the indexed store within range of the given location
+     */
+    List<Customer> findWithinRange(@NotNull final CustomerIndex index,
+                                   @Valid @NotNull final Coordinate location,
+                                   @PositiveOrZero final double radius);
+
+    /**
+     *
+     * @param index
+     * @param location
+     * @param radius
+     * @param distanceStrategy
+     * @return customers of the indexed store within range of the given location, by the given distance formula
+     */
+    List<Customer> findWithinRange(@NotNull final CustomerIndex index,
+                                   @Valid @NotNull final Coordinate location,
+                                   @PositiveOrZero final double radius,
+                                   @NotNull final DistanceStrategy distanceStrategy);
+
+    /**
+     *
+     * @param index
+     * @param location
+     * @param count
+     * @return the given number of customers of the indexed store nearest to the given location, by great-circle
+     * distance, nearest first
+     */
+    List<Customer> findNearestCustomers(@NotNull final VantagePointCustomerIndex index,
+                                        @Valid @NotNull final Coordinate location,
+                                        @PositiveOrZero final int count);
 }
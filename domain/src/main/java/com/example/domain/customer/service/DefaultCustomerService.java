@@ -1,8 +1,16 @@
 package com.example.domain.customer.service;
 
+import com.example.domain.customer.dto.CustomerRecord;
+import com.example.domain.customer.index.CustomerIndex;
+import com.example.domain.customer.index.CustomerIndexType;
+import com.example.domain.customer.index.VantagePointCustomerIndex;
 import com.example.domain.customer.model.Customer;
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.UnitVectorCustomerStore;
 import com.example.domain.geocoord.model.Coordinate;
 import com.example.domain.geocoord.service.CoordinateService;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
 import lombok.extern.log4j.Log4j2;
 
 import javax.inject.Inject;
@@ -10,6 +18,8 @@ import javax.inject.Singleton;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -32,6 +42,8 @@ public class DefaultCustomerService implements CustomerService {
     }
 
     /**
+     * Evaluated with a {@link PreparedRangeQuery}, which re-checks customers near the radius boundary with strict
+     * math, so that the answer does not depend on the math mode of the distance strategy.
      *
      * @param customer
      * @param location
@@ -42,7 +54,154 @@ public class DefaultCustomerService implements CustomerService {
     public boolean isCustomerWithinRange(@Valid @NotNull final Customer customer,
                                          @Valid @NotNull final Coordinate location,
                                          @PositiveOrZero final double radius) {
-        double distance = coordService.greatCircleDistanceOnEarthBetween(customer.getLocation(), location);
-        return distance <= radius;
+        return coordService.prepareRangeQuery(location, radius).contains(customer.getLocation());
+    }
+
+    /**
+     * The returned query rejects customers outside of the latitude/longitude window of the range with plain
+     * comparisons, before any trigonometry is evaluated.
+     *
+     * @param location
+     * @param radius
+     * @return
+     */
+    @Override
+    public PreparedRangeQuery prepareRangeQuery(@Valid @NotNull final Coordinate location,
+                                                @PositiveOrZero final double radius) {
+        return new BoundingBoxRangeQuery(coordService.prepareRangeQuery(location, radius));
+    }
+
+    /**
+     * The returned query rejects customers outside of the latitude/longitude window of the range with plain
+     * comparisons, before any trigonometry is evaluated.
+     *
+     * @param location
+     * @param radius
+     * @param distanceStrategy
+     * @return
+     */
+    @Override
+    public PreparedRangeQuery prepareRangeQuery(@Valid @NotNull final Coordinate location,
+                                                @PositiveOrZero final double radius,
+                                                @NotNull final DistanceStrategy distanceStrategy) {
+        return new BoundingBoxRangeQuery(coordService.prepareRangeQuery(location, radius, distanceStrategy));
+    }
+
+    /**
+     *
+     * @param customer
+     * @param query
+     * @return
+     */
+    @Override
+    public boolean isCustomerWithinRange(@Valid @NotNull final Customer customer,
+                                         @NotNull final PreparedRangeQuery query) {
+        return query.contains(customer.getLocation());
+    }
+
+    /**
+     *
+     * @param store
+     * @param customerRecord
+     * @return
+     */
+    @Override
+    public CustomerStore.Builder addCustomer(@NotNull final CustomerStore.Builder store,
+                                             @Valid @NotNull final CustomerRecord customerRecord) {
+        return store.add(customerRecord);
+    }
+
+    /**
+     *
+     * @param store
+     * @param query
+     * @return
+     */
+    @Override
+    public BitSet findCustomersWithinRange(@NotNull final CustomerStore store,
+                                           @NotNull final PreparedRangeQuery query) {
+        return store.withinRange(query, coordService);
+    }
+
+    /**
+     *
+     * @param store
+     * @return
+     */
+    @Override
+    public CustomerStore precomputeUnitVectors(@NotNull final CustomerStore store) {
+        return UnitVectorCustomerStore.of(store);
+    }
+
+    /**
+     *
+     * @param store
+     * @param indexType
+     * @return
+     */
+    @Override
+    public CustomerIndex indexCustomers(@NotNull final CustomerStore store,
+                                        @NotNull final CustomerIndexType indexType) {
+        return indexType.build(store, coordService);
+    }
+
+    /**
+     *
+     * @param index
+     * @param query
+     * @return
+     */
+    @Override
+    public BitSet findCustomersWithinRange(@NotNull final CustomerIndex index,
+                                           @NotNull final PreparedRangeQuery query) {
+        return index.withinRange(query);
+    }
+
+    /**
+     *
+     * @param index
+     * @param location
+     * @param radius
+     * @return
+     */
+    @Override
+    public List<Customer> findWithinRange(@NotNull final CustomerIndex index,
+                                          @Valid @NotNull final Coordinate location,
+                                          @PositiveOrZero final double radius) {
+        BitSet rows = findCustomersWithinRange(index, prepareRangeQuery(location, radius));
+        return index.getStore().customers(rows).collect(Collectors.toList());
+    }
+
+    /**
+     *
+     * @param index
+     * @param location
+     * @param radius
+     * @param distanceStrategy
+     * @return
+     */
+    @Override
+    public List<Customer> findWithinRange(@NotNull final CustomerIndex index,
+                                          @Valid @NotNull final Coordinate location,
+                                          @PositiveOrZero final double radius,
+                                          @NotNull final DistanceStrategy distanceStrategy) {
+        BitSet rows = findCustomersWithinRange(index, prepareRangeQuery(location, radius, distanceStrategy));
+        return index.getStore().customers(rows).collect(Collectors.toList());
+    }
+
+    /**
+     *
+     * @param index
+     * @param location
+     * @param count
+     * @return
+     */
+    @Override
+    public List<Customer> findNearestCustomers(@NotNull final VantagePointCustomerIndex index,
+                                               @Valid @NotNull final Coordinate location,
+                                               @PositiveOrZero final int count) {
+        return Arrays.stream(index.nearest(location.getLatitudeInRadians(), location.getLongitudeInRadians(), count))
+                .mapToObj(index.getStore()::getCustomer)
+                .collect(Collectors.toList());
     }
 }
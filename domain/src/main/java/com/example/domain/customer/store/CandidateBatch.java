@@ -0,0 +1,103 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.BoundingBox;
+import com.example.domain.geocoord.model.UnitVector;
+import com.example.domain.geocoord.service.CoordinateService;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import java.util.BitSet;
+
+/**
+ * Buffers the candidates of a range query scan as primitive columns, a fixed number of rows at a time, and hands
+ * every full buffer over to the batch filter of the coordinate service.
+ * <p>
+ * Candidates outside the bounding box of the query are dropped up-front. Queries whose test is a
+ * {@link PreparedRangeQuery#isUnitVectorThreshold() threshold on unit vectors} get the unit vectors of the others,
+ * for the {@link CoordinateService#withinRange(PreparedRangeQuery, double[], double[], double[], int, int, BitSet)
+ * kernel filter}, which may be vectorized; every other query gets their latitude/longitude as is, for the
+ * {@link CoordinateService#withinRange(PreparedRangeQuery, double[], double[], int, int, BitSet) latitude/longitude
+ * filter}, so that no unit vector is computed only to be converted back.
+ */
+final class CandidateBatch {
+
+    static final int CAPACITY = 1024;
+
+    private final PreparedRangeQuery query;
+    private final BoundingBox boundingBox;
+    private final boolean unitVectors;
+    private final CoordinateService coordinateService;
+    private final BitSet result;
+
+    private final double[] latitudes;
+    private final double[] longitudes;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+    private final int[] rows = new int[CAPACITY];
+    private final BitSet hits = new BitSet(CAPACITY);
+    private int count;
+
+    /**
+     *
+     * @param query
+     * @param coordinateService
+     * @param result receives the rows of the customers whose location the query contains
+     */
+    CandidateBatch(PreparedRangeQuery query, CoordinateService coordinateService, BitSet result) {
+        this.query = query;
+        this.boundingBox = query.getBoundingBox();
+        this.unitVectors = query.isUnitVectorThreshold();
+        this.coordinateService = coordinateService;
+        this.result = result;
+
+        this.latitudes = unitVectors ? null : new double[CAPACITY];
+        this.longitudes = unitVectors ? null : new double[CAPACITY];
+        this.xs = unitVectors ? new double[CAPACITY] : null;
+        this.ys = unitVectors ? new double[CAPACITY] : null;
+        this.zs = unitVectors ? new double[CAPACITY] : null;
+    }
+
+    /**
+     *
+     * @param row
+     * @param latitude latitude of the location of the customer (in radians)
+     * @param longitude longitude of the location of the customer (in radians)
+     */
+    void add(int row, double latitude, double longitude) {
+        if (!boundingBox.contains(latitude, longitude)) {
+            return;
+        }
+        if (unitVectors) {
+            UnitVector unitVector = UnitVector.of(latitude, longitude);
+            xs[count] = unitVector.getX();
+            ys[count] = unitVector.getY();
+            zs[count] = unitVector.getZ();
+        } else {
+            latitudes[count] = latitude;
+            longitudes[count] = longitude;
+        }
+        rows[count++] = row;
+        if (count == CAPACITY) {
+            flush();
+        }
+    }
+
+    /**
+     * Filters the buffered candidates; to be called once the scan is over.
+     */
+    void flush() {
+        if (count == 0) {
+            return;
+        }
+        if (unitVectors) {
+            coordinateService.withinRange(query, xs, ys, zs, 0, count, hits);
+        } else {
+            coordinateService.withinRange(query, latitudes, longitudes, 0, count, hits);
+        }
+        for (int i = hits.nextSetBit(0); i >= 0; i = hits.nextSetBit(i + 1)) {
+            result.set(rows[i]);
+        }
+        hits.clear();
+        count = 0;
+    }
+}
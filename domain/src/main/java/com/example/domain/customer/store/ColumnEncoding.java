@@ -0,0 +1,20 @@
+package com.example.domain.customer.store;
+
+/**
+ * Encoding of the user ID and coordinate columns of a {@link ColumnarCustomerFile}.
+ */
+public enum ColumnEncoding {
+    /**
+     * Fixed-width values, randomly accessible in place.
+     */
+    PLAIN,
+
+    /**
+     * Per block, the difference of each value with the previous one, zigzag-encoded as a variable-length integer.
+     * Consecutive coordinates of a spatially sorted file differ little, hence take one to three bytes instead of
+     * four; user IDs in increasing order take one byte or two.
+     *
+     * @see DeltaVarintCodec
+     */
+    DELTA_VARINT
+}
@@ -0,0 +1,453 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Binary columnar customer file.
+ * <p>
+ * All values are little-endian. The file starts with a header of {@value #HEADER_SIZE} bytes:
+ * <pre>
+ *  0  magic "CUST" (4 bytes)
+ *  4  version (int)
+ *  8  row count n (long)
+ * 16  minimum latitude, maximum latitude, minimum longitude, maximum longitude (int each, in 10<sup>-7</sup> degrees)
+ * 32  size of the name column, in bytes (long)
+ * 40  {@link ColumnEncoding} of the user ID and coordinate columns (int, its ordinal), then 4 reserved bytes
+ * 48  size of the user ID and coordinate columns, in bytes (long)
+ * </pre>
+ * followed by the user ID and coordinate columns, the name offsets into the name column (n + 1 longs) and the UTF-8
+ * encoded names. The bounding box of an empty file is all zeros.
+ * <p>
+ * With the {@link ColumnEncoding#PLAIN plain} encoding, the user ID and coordinate columns are user IDs (n longs),
+ * latitudes (n ints) and longitudes (n ints). With the {@link ColumnEncoding#DELTA_VARINT delta/varint} encoding,
+ * they are the offset of each block (block count + 1 longs, relative to the end of the offsets), followed by the
+ * blocks encoded with {@link DeltaVarintCodec}; the blocks are the same as those of the zone maps.
+ * <p>
+ * The file ends with a footer of zone maps: the block size b (int) and the block count ceil(n / b) (int), then for
+ * each block of b consecutive rows the minimum and maximum latitude, the minimum and maximum longitude (int each) and
+ * the minimum and maximum user ID (long each). Range filters skip the blocks whose zone map is outside of the range,
+ * without reading their pages; the default block size makes a block of a coordinate column exactly one 4 KB page.
+ */
+public final class ColumnarCustomerFile {
+
+    /**
+     *
+     */
+    public static final int VERSION = 3;
+
+    /**
+     *
+     */
+    public static final int HEADER_SIZE = 56;
+
+    /**
+     *
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    static final int ZONE_MAP_SIZE = 4 * Integer.BYTES + 2 * Long.BYTES;
+
+    private static final int MAGIC = 'C' | 'U' << 8 | 'S' << 16 | 'T' << 24;
+    private static final int PLAIN_ROW_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    private ColumnarCustomerFile() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     *
+     * @param path
+     * @return whether the file starts with the magic number of a columnar customer file
+     * @throws IOException
+     */
+    public static boolean isColumnarCustomerFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // read until the magic number is complete or the end of the file is reached
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    /**
+     *
+     * @param store
+     * @param path
+     * @throws IOException
+     */
+    public static void write(CustomerStore store, Path path) throws IOException {
+        write(store, path, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     *
+     * @param store
+     * @param path
+     * @param blockSize number of rows per zone map
+     * @throws IOException
+     */
+    public static void write(CustomerStore store, Path path, int blockSize) throws IOException {
+        write(store, path, blockSize, ColumnEncoding.PLAIN);
+    }
+
+    /**
+     *
+     * @param store
+     * @param path
+     * @param blockSize number of rows per zone map, and per encoded block
+     * @param encoding encoding of the user ID and coordinate columns
+     * @throws IOException
+     */
+    public static void write(CustomerStore store, Path path, int blockSize, ColumnEncoding encoding)
+            throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("block size must be positive");
+        }
+        int n = store.size();
+        int minLatitude = n == 0 ? 0 : Integer.MAX_VALUE;
+        int maxLatitude = n == 0 ? 0 : Integer.MIN_VALUE;
+        int minLongitude = n == 0 ? 0 : Integer.MAX_VALUE;
+        int maxLongitude = n == 0 ? 0 : Integer.MIN_VALUE;
+        long namesSize = 0;
+        for (int row = 0; row < n; row++) {
+            long location = store.getLocation(row);
+            minLatitude = Math.min(minLatitude, FixedPointCoordinate.latitudeUnits(location));
+            maxLatitude = Math.max(maxLatitude, FixedPointCoordinate.latitudeUnits(location));
+            minLongitude = Math.min(minLongitude, FixedPointCoordinate.longitudeUnits(location));
+            maxLongitude = Math.max(maxLongitude, FixedPointCoordinate.longitudeUnits(location));
+            namesSize += store.getNameLength(row);
+        }
+
+        int blockCount = (int) ((n + (long) blockSize - 1) / blockSize);
+        long[] blockOffsets = null;
+        long columnsSize = (long) n * PLAIN_ROW_SIZE;
+        if (encoding == ColumnEncoding.DELTA_VARINT) {
+            // blocks are encoded twice, to size them up-front and then to write them, rather than held in memory
+            blockOffsets = new long[blockCount + 1];
+            for (int block = 0; block < blockCount; block++) {
+                blockOffsets[block + 1] = blockOffsets[block]
+                        + DeltaVarintCodec.encodeBlock(store, block * blockSize, blockEnd(block, blockSize, n)).length;
+            }
+            columnsSize = (blockCount + 1L) * Long.BYTES + blockOffsets[blockCount];
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ColumnWriter out = new ColumnWriter(channel);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(n);
+            out.putInt(minLatitude);
+            out.putInt(maxLatitude);
+            out.putInt(minLongitude);
+            out.putInt(maxLongitude);
+            out.putLong(namesSize);
+            out.putInt(encoding.ordinal());
+            out.putInt(0);
+            out.putLong(columnsSize);
+
+            if (encoding == ColumnEncoding.DELTA_VARINT) {
+                for (long blockOffset : blockOffsets) {
+                    out.putLong(blockOffset);
+                }
+                for (int block = 0; block < blockCount; block++) {
+                    out.put(DeltaVarintCodec.encodeBlock(store, block * blockSize, blockEnd(block, blockSize, n)));
+                }
+            } else {
+                for (int row = 0; row < n; row++) {
+                    out.putLong(store.getUserId(row));
+                }
+                for (int row = 0; row < n; row++) {
+                    out.putInt(FixedPointCoordinate.latitudeUnits(store.getLocation(row)));
+                }
+                for (int row = 0; row < n; row++) {
+                    out.putInt(FixedPointCoordinate.longitudeUnits(store.getLocation(row)));
+                }
+            }
+            long nameOffset = 0;
+            out.putLong(nameOffset);
+            for (int row = 0; row < n; row++) {
+                nameOffset += store.getNameLength(row);
+                out.putLong(nameOffset);
+            }
+            for (int row = 0; row < n; row++) {
+                out.put(store.getNameBytes(row));
+            }
+
+            out.putInt(blockSize);
+            out.putInt(blockCount);
+            for (int block = 0; block < blockCount; block++) {
+                writeZoneMap(store, block * blockSize, blockEnd(block, blockSize, n), out);
+            }
+            out.flush();
+        }
+    }
+
+    static int blockEnd(int block, int blockSize, int rowCount) {
+        return (int) Math.min(rowCount, (block + 1L) * blockSize);
+    }
+
+    private static void writeZoneMap(CustomerStore store, int from, int to, ColumnWriter out) throws IOException {
+        int minLatitude = Integer.MAX_VALUE;
+        int maxLatitude = Integer.MIN_VALUE;
+        int minLongitude = Integer.MAX_VALUE;
+        int maxLongitude = Integer.MIN_VALUE;
+        long minUserId = Long.MAX_VALUE;
+        long maxUserId = Long.MIN_VALUE;
+        for (int row = from; row < to; row++) {
+            long location = store.getLocation(row);
+            minLatitude = Math.min(minLatitude, FixedPointCoordinate.latitudeUnits(location));
+            maxLatitude = Math.max(maxLatitude, FixedPointCoordinate.latitudeUnits(location));
+            minLongitude = Math.min(minLongitude, FixedPointCoordinate.longitudeUnits(location));
+            maxLongitude = Math.max(maxLongitude, FixedPointCoordinate.longitudeUnits(location));
+            minUserId = Math.min(minUserId, store.getUserId(row));
+            maxUserId = Math.max(maxUserId, store.getUserId(row));
+        }
+        out.putInt(minLatitude);
+        out.putInt(maxLatitude);
+        out.putInt(minLongitude);
+        out.putInt(maxLongitude);
+        out.putLong(minUserId);
+        out.putLong(maxUserId);
+    }
+
+    /**
+     *
+     * @param path
+     * @param builder
+     * @return the given store builder, with the customers of the file added to it
+     * @throws IOException if the file is not a columnar customer file, or is truncated or corrupted
+     */
+    public static CustomerStore.Builder read(Path path, CustomerStore.Builder builder) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Header header = Header.read(channel, path);
+            int n = header.rowCount;
+            long namesSize = header.namesSize;
+            if ((n + 1L) * Long.BYTES > Integer.MAX_VALUE || namesSize > Integer.MAX_VALUE
+                    || header.columnsSize > Integer.MAX_VALUE) {
+                throw new IOException(path + " is too large to be read into the heap");
+            }
+
+            long[] userIds = new long[n];
+            int[] latitudes = new int[n];
+            int[] longitudes = new int[n];
+            ByteBuffer columns = readFully(channel, (int) header.columnsSize, path);
+            if (header.encoding == ColumnEncoding.DELTA_VARINT) {
+                int blocksOffset = (header.blockCount + 1) * Long.BYTES;
+                long blocksSize = header.columnsSize - blocksOffset;
+                for (int block = 0; block < header.blockCount; block++) {
+                    int from = block * header.blockSize;
+                    int count = blockEnd(block, header.blockSize, n) - from;
+                    long offset = columns.getLong(block * Long.BYTES);
+                    long end = columns.getLong((block + 1) * Long.BYTES);
+                    if (offset < 0 || end < offset || end > blocksSize) {
+                        throw new IOException(path + " is truncated or corrupted");
+                    }
+                    byte[] encoded = Arrays.copyOfRange(columns.array(),
+                            blocksOffset + (int) offset, blocksOffset + (int) end);
+                    int[] blockLatitudes = new int[count];
+                    int[] blockLongitudes = new int[count];
+                    long[] blockUserIds = new long[count];
+                    try {
+                        int position = DeltaVarintCodec.decodeCoordinates(encoded, count,
+                                blockLatitudes, blockLongitudes);
+                        DeltaVarintCodec.decodeUserIds(encoded, position, count, blockUserIds);
+                    } catch (ArrayIndexOutOfBoundsException e) {
+                        // the block holds fewer varints than its row count
+                        throw new IOException(path + " is truncated or corrupted", e);
+                    }
+                    System.arraycopy(blockLatitudes, 0, latitudes, from, count);
+                    System.arraycopy(blockLongitudes, 0, longitudes, from, count);
+                    System.arraycopy(blockUserIds, 0, userIds, from, count);
+                }
+            } else {
+                for (int row = 0; row < n; row++) {
+                    userIds[row] = columns.getLong(row * Long.BYTES);
+                    latitudes[row] = columns.getInt(n * Long.BYTES + row * Integer.BYTES);
+                    longitudes[row] = columns.getInt(n * (Long.BYTES + Integer.BYTES) + row * Integer.BYTES);
+                }
+            }
+            ByteBuffer nameOffsets = readFully(channel, (n + 1) * Long.BYTES, path);
+            ByteBuffer names = readFully(channel, (int) namesSize, path);
+
+            for (int row = 0; row < n; row++) {
+                int nameOffset = (int) nameOffsets.getLong(row * Long.BYTES);
+                int nameEnd = (int) nameOffsets.getLong((row + 1) * Long.BYTES);
+                if (nameOffset < 0 || nameEnd < nameOffset || nameEnd > namesSize) {
+                    throw new IOException(path + " is truncated or corrupted");
+                }
+                builder.add(userIds[row], names.array(), nameOffset, nameEnd - nameOffset,
+                        FixedPointCoordinate.pack(latitudes[row], longitudes[row]));
+            }
+            return builder;
+        }
+    }
+
+    static ByteBuffer readFully(FileChannel channel, int size, Path path) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(size).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                throw new IOException(path + " is truncated or corrupted");
+            }
+        }
+        return buffer;
+    }
+
+    /**
+     * Header of a columnar customer file, and the offsets of its columns.
+     */
+    static final class Header {
+
+        final int rowCount;
+        final int minLatitude;
+        final int maxLatitude;
+        final int minLongitude;
+        final int maxLongitude;
+        final long namesSize;
+        final ColumnEncoding encoding;
+        final long columnsSize;
+        final int blockSize;
+        final int blockCount;
+
+        private Header(int rowCount, int minLatitude, int maxLatitude, int minLongitude, int maxLongitude,
+                       long namesSize, ColumnEncoding encoding, long columnsSize, int blockSize, int blockCount) {
+            this.rowCount = rowCount;
+            this.minLatitude = minLatitude;
+            this.maxLatitude = maxLatitude;
+            this.minLongitude = minLongitude;
+            this.maxLongitude = maxLongitude;
+            this.namesSize = namesSize;
+            this.encoding = encoding;
+            this.columnsSize = columnsSize;
+            this.blockSize = blockSize;
+            this.blockCount = blockCount;
+        }
+
+        /**
+         * Reads the header and the start of the footer, and checks them against the size of the file; the channel
+         * is left positioned right after the header.
+         */
+        static Header read(FileChannel channel, Path path) throws IOException {
+            ByteBuffer header = readFully(channel, HEADER_SIZE, path);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException(path + " is not a columnar customer file");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException("unsupported columnar customer file version " + header.getInt(4));
+            }
+            long rowCount = header.getLong(8);
+            long namesSize = header.getLong(32);
+            int encoding = header.getInt(40);
+            long columnsSize = header.getLong(48);
+            if (encoding < 0 || encoding >= ColumnEncoding.values().length) {
+                throw new IOException("unsupported columnar customer file encoding " + encoding);
+            }
+            long footerOffset = HEADER_SIZE + columnsSize + (rowCount + 1) * Long.BYTES + namesSize;
+            if (rowCount < 0 || rowCount > Integer.MAX_VALUE || namesSize < 0 || columnsSize < 0
+                    || channel.size() < footerOffset + 2 * Integer.BYTES) {
+                throw new IOException(path + " is truncated or corrupted");
+            }
+
+            ByteBuffer footer = ByteBuffer.allocate(2 * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            while (footer.hasRemaining()) {
+                channel.read(footer, footerOffset + footer.position());
+            }
+            int blockSize = footer.getInt(0);
+            int blockCount = footer.getInt(Integer.BYTES);
+            if (blockSize <= 0 || blockCount != (rowCount + blockSize - 1) / blockSize
+                    || channel.size() != footerOffset + 2 * Integer.BYTES + (long) blockCount * ZONE_MAP_SIZE
+                    || encoding == ColumnEncoding.PLAIN.ordinal() && columnsSize != rowCount * PLAIN_ROW_SIZE
+                    || encoding == ColumnEncoding.DELTA_VARINT.ordinal()
+                    && columnsSize < (blockCount + 1L) * Long.BYTES) {
+                throw new IOException(path + " is truncated or corrupted");
+            }
+            return new Header((int) rowCount,
+                    header.getInt(16), header.getInt(20), header.getInt(24), header.getInt(28), namesSize,
+                    ColumnEncoding.values()[encoding], columnsSize, blockSize, blockCount);
+        }
+
+        long columnsOffset() {
+            return HEADER_SIZE;
+        }
+
+        long userIdsOffset() {
+            return columnsOffset();
+        }
+
+        long latitudesOffset() {
+            return userIdsOffset() + (long) rowCount * Long.BYTES;
+        }
+
+        long longitudesOffset() {
+            return latitudesOffset() + (long) rowCount * Integer.BYTES;
+        }
+
+        long nameOffsetsOffset() {
+            return columnsOffset() + columnsSize;
+        }
+
+        long namesOffset() {
+            return nameOffsetsOffset() + (rowCount + 1L) * Long.BYTES;
+        }
+
+        long zoneMapsOffset() {
+            return namesOffset() + namesSize + 2 * Integer.BYTES;
+        }
+    }
+
+    /**
+     * Buffered little-endian writer of fixed-width values.
+     */
+    static final class ColumnWriter {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+        ColumnWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            ensureRemaining(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) throws IOException {
+            ensureRemaining(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void put(byte[] bytes) throws IOException {
+            for (int offset = 0; offset < bytes.length; ) {
+                ensureRemaining(1);
+                int length = Math.min(buffer.remaining(), bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        private void ensureRemaining(int size) throws IOException {
+            if (buffer.remaining() < size) {
+                flush();
+            }
+        }
+    }
+}
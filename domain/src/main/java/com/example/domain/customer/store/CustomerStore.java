@@ -0,0 +1,178 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.customer.dto.CustomerRecord;
+import com.example.domain.customer.model.Customer;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.CoordinateService;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import java.util.BitSet;
+import java.util.stream.Stream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Customers stored column-wise, one primitive column per property, and addressed by row index.
+ * <p>
+ * Range filters run over the coordinate columns and return the matching rows as a {@link BitSet}, so that
+ * {@link Customer} objects only need to be materialized for the rows which are actually returned.
+ */
+public interface CustomerStore {
+    /**
+     *
+     * @return number of customers
+     */
+    int size();
+
+    /**
+     *
+     * @param row
+     * @return
+     */
+    long getUserId(int row);
+
+    /**
+     *
+     * @param row
+     * @return
+     */
+    String getName(int row);
+
+    /**
+     *
+     * @param row
+     * @return number of bytes of the UTF-8 encoded name
+     */
+    default int getNameLength(int row) {
+        return getNameBytes(row).length;
+    }
+
+    /**
+     * Stores keep names UTF-8 encoded, so that this copies them without decoding them.
+     *
+     * @param row
+     * @return UTF-8 encoded name
+     */
+    default byte[] getNameBytes(int row) {
+        return getName(row).getBytes(UTF_8);
+    }
+
+    /**
+     *
+     * @param row
+     * @return location encoded with {@link FixedPointCoordinate}
+     */
+    long getLocation(int row);
+
+    /**
+     *
+     * @param row
+     * @return
+     */
+    default double getLatitudeInRadians(int row) {
+        return FixedPointCoordinate.latitudeInRadians(getLocation(row));
+    }
+
+    /**
+     *
+     * @param row
+     * @return
+     */
+    default double getLongitudeInRadians(int row) {
+        return FixedPointCoordinate.longitudeInRadians(getLocation(row));
+    }
+
+    /**
+     *
+     * @param row
+     * @return
+     */
+    default Customer getCustomer(int row) {
+        return new Customer(getUserId(row), getName(row), FixedPointCoordinate.decode(getLocation(row)));
+    }
+
+    /**
+     *
+     * @param query
+     * @return rows of the customers whose location the query contains
+     */
+    default BitSet withinRange(PreparedRangeQuery query) {
+        BitSet rows = new BitSet(size());
+        for (int row = 0; row < size(); row++) {
+            if (query.contains(getLatitudeInRadians(row), getLongitudeInRadians(row))) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Scans the customers within the bounding box of the query a block at a time with the batch filter of the
+     * coordinate service: as unit vectors for the queries whose threshold tests may be vectorized, as
+     * latitude/longitude for the others.
+     *
+     * @param query
+     * @param coordinateService
+     * @return rows of the customers whose location the query contains
+     */
+    default BitSet withinRange(PreparedRangeQuery query, CoordinateService coordinateService) {
+        BitSet rows = new BitSet(size());
+        CandidateBatch batch = new CandidateBatch(query, coordinateService, rows);
+        for (int row = 0; row < size(); row++) {
+            batch.add(row, getLatitudeInRadians(row), getLongitudeInRadians(row));
+        }
+        batch.flush();
+        return rows;
+    }
+
+    /**
+     *
+     * @param rows
+     * @return customers of the given rows, in row order
+     */
+    default Stream<Customer> customers(BitSet rows) {
+        return rows.stream().mapToObj(this::getCustomer);
+    }
+
+    /**
+     *
+     */
+    interface Builder {
+        /**
+         *
+         * @param userId
+         * @param name
+         * @param location location encoded with {@link FixedPointCoordinate}
+         * @return
+         */
+        Builder add(long userId, String name, long location);
+
+        /**
+         *
+         * @param userId
+         * @param name array holding the UTF-8 encoded name, which is copied as is
+         * @param offset
+         * @param length
+         * @param location location encoded with {@link FixedPointCoordinate}
+         * @return
+         */
+        default Builder add(long userId, byte[] name, int offset, int length, long location) {
+            return add(userId, new String(name, offset, length, UTF_8), location);
+        }
+
+        /**
+         *
+         * @param customerRecord a valid customer record
+         * @return
+         */
+        default Builder add(CustomerRecord customerRecord) {
+            return add(customerRecord.getUserId(), customerRecord.getName(), customerRecord.encodeLocation());
+        }
+
+        /**
+         *
+         * @return
+         */
+        CustomerStore build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+
+import java.util.Arrays;
+
+/**
+ * Codec of blocks of the {@link ColumnEncoding#DELTA_VARINT} encoding.
+ * <p>
+ * A block holds the latitudes, then the longitudes, then the user IDs of its rows. Each value is stored as the
+ * difference with the previous value of its column (the first one with zero), zigzag-encoded so that small negative
+ * differences are small too, as a little-endian base-128 varint. Coordinates come first so that range filters can
+ * stop decoding before the user IDs.
+ *
+ * @see <a href="https://developers.google.com/protocol-buffers/docs/encoding#varints">Base 128 varints</a>
+ */
+final class DeltaVarintCodec {
+
+    private DeltaVarintCodec() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     *
+     * @param store
+     * @param from first row of the block (inclusive)
+     * @param to last row of the block (exclusive)
+     * @return encoded block
+     */
+    static byte[] encodeBlock(CustomerStore store, int from, int to) {
+        Encoder encoder = new Encoder(3 * (to - from) + 16);
+        long previous = 0;
+        for (int row = from; row < to; row++) {
+            long latitude = FixedPointCoordinate.latitudeUnits(store.getLocation(row));
+            encoder.putVarint(zigzag(latitude - previous));
+            previous = latitude;
+        }
+        previous = 0;
+        for (int row = from; row < to; row++) {
+            long longitude = FixedPointCoordinate.longitudeUnits(store.getLocation(row));
+            encoder.putVarint(zigzag(longitude - previous));
+            previous = longitude;
+        }
+        previous = 0;
+        for (int row = from; row < to; row++) {
+            long userId = store.getUserId(row);
+            encoder.putVarint(zigzag(userId - previous));
+            previous = userId;
+        }
+        return encoder.toByteArray();
+    }
+
+    /**
+     *
+     * @param block encoded block
+     * @param count number of rows of the block
+     * @param latitudes (in 10<sup>-7</sup> degrees)
+     * @param longitudes (in 10<sup>-7</sup> degrees)
+     * @return position of the user IDs in the block
+     */
+    static int decodeCoordinates(byte[] block, int count, int[] latitudes, int[] longitudes) {
+        Decoder decoder = new Decoder(block);
+        int previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += (int) unzigzag(decoder.getVarint());
+            latitudes[i] = previous;
+        }
+        previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += (int) unzigzag(decoder.getVarint());
+            longitudes[i] = previous;
+        }
+        return decoder.position;
+    }
+
+    /**
+     *
+     * @param block encoded block
+     * @param position position of the user IDs in the block
+     * @param count number of rows of the block
+     * @param userIds
+     */
+    static void decodeUserIds(byte[] block, int position, int count, long[] userIds) {
+        Decoder decoder = new Decoder(block);
+        decoder.position = position;
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += unzigzag(decoder.getVarint());
+            userIds[i] = previous;
+        }
+    }
+
+    static long zigzag(long value) {
+        return value << 1 ^ value >> 63;
+    }
+
+    static long unzigzag(long value) {
+        return value >>> 1 ^ -(value & 1);
+    }
+
+    private static final class Encoder {
+
+        private byte[] bytes;
+        private int position;
+
+        Encoder(int capacity) {
+            this.bytes = new byte[capacity];
+        }
+
+        void putVarint(long value) {
+            if (position + 10 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, position + 10));
+            }
+            while ((value & ~0x7FL) != 0) {
+                bytes[position++] = (byte) (value & 0x7F | 0x80);
+                value >>>= 7;
+            }
+            bytes[position++] = (byte) value;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, position);
+        }
+    }
+
+    private static final class Decoder {
+
+        private final byte[] bytes;
+        private int position;
+
+        Decoder(byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        long getVarint() {
+            long value = 0;
+            for (int shift = 0; ; shift += 7) {
+                byte b = bytes[position++];
+                value |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return value;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.util.Arrays;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link CustomerStore} backed by primitive arrays on the heap.
+ * <p>
+ * Each customer takes 16 bytes of columns (user ID, and latitude and longitude in 1e-7 degree units) plus its UTF-8 encoded name, which is
+ * appended to a single shared byte array and addressed by offset; no object is kept per customer. Names are encoded
+ * straight into that array when added, and decoded only when {@link #getName(int) requested}.
+ */
+@Immutable
+public final class HeapCustomerStore implements CustomerStore {
+
+    private final int size;
+    private final long[] userIds;
+    private final int[] latitudeUnits;
+    private final int[] longitudeUnits;
+    private final int[] nameOffsets;
+    private final byte[] names;
+
+    private HeapCustomerStore(int size, long[] userIds, int[] latitudeUnits, int[] longitudeUnits, int[] nameOffsets,
+                              byte[] names) {
+        this.size = size;
+        this.userIds = userIds;
+        this.latitudeUnits = latitudeUnits;
+        this.longitudeUnits = longitudeUnits;
+        this.nameOffsets = nameOffsets;
+        this.names = names;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public static Builder builder() {
+        return new Builder(16);
+    }
+
+    /**
+     *
+     * @param expectedSize
+     * @return
+     */
+    public static Builder builder(int expectedSize) {
+        return new Builder(Math.max(expectedSize, 1));
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getUserId(int row) {
+        return userIds[checkRow(row)];
+    }
+
+    @Override
+    public String getName(int row) {
+        checkRow(row);
+        return new String(names, nameOffsets[row], nameOffsets[row + 1] - nameOffsets[row], UTF_8);
+    }
+
+    @Override
+    public int getNameLength(int row) {
+        checkRow(row);
+        return nameOffsets[row + 1] - nameOffsets[row];
+    }
+
+    @Override
+    public byte[] getNameBytes(int row) {
+        checkRow(row);
+        return Arrays.copyOfRange(names, nameOffsets[row], nameOffsets[row + 1]);
+    }
+
+    @Override
+    public long getLocation(int row) {
+        checkRow(row);
+        return FixedPointCoordinate.pack(latitudeUnits[row], longitudeUnits[row]);
+    }
+
+    @Override
+    public double getLatitudeInRadians(int row) {
+        return FixedPointCoordinate.unitsToRadians(latitudeUnits[checkRow(row)]);
+    }
+
+    @Override
+    public double getLongitudeInRadians(int row) {
+        return FixedPointCoordinate.unitsToRadians(longitudeUnits[checkRow(row)]);
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " out of [0, " + size + ")");
+        }
+        return row;
+    }
+
+    /**
+     *
+     */
+    @NotThreadSafe
+    public static final class Builder implements CustomerStore.Builder {
+
+        private int size;
+        private long[] userIds;
+        private int[] latitudeUnits;
+        private int[] longitudeUnits;
+        private int[] nameOffsets;
+        private byte[] names;
+
+        private Builder(int capacity) {
+            this.userIds = new long[capacity];
+            this.latitudeUnits = new int[capacity];
+            this.longitudeUnits = new int[capacity];
+            this.nameOffsets = new int[capacity + 1];
+            this.names = new byte[capacity * 16];
+        }
+
+        @Override
+        public Builder add(long userId, String name, long location) {
+            // names are encoded straight into the arena, sized for the longest possible encoding
+            int nameOffset = ensureCapacity((long) name.length() * Utf8.MAX_BYTES_PER_CHAR);
+            return add(userId, Utf8.encode(name, names, nameOffset), location);
+        }
+
+        @Override
+        public Builder add(long userId, byte[] name, int offset, int length, long location) {
+            int nameOffset = ensureCapacity(length);
+            System.arraycopy(name, offset, names, nameOffset, length);
+            return add(userId, nameOffset + length, location);
+        }
+
+        private int ensureCapacity(long nameLength) {
+            if (size == userIds.length) {
+                int capacity = size * 2;
+                userIds = Arrays.copyOf(userIds, capacity);
+                latitudeUnits = Arrays.copyOf(latitudeUnits, capacity);
+                longitudeUnits = Arrays.copyOf(longitudeUnits, capacity);
+                nameOffsets = Arrays.copyOf(nameOffsets, capacity + 1);
+            }
+            int nameOffset = nameOffsets[size];
+            if (nameOffset + nameLength > Integer.MAX_VALUE) {
+                throw new IllegalStateException("names must not take more than " + Integer.MAX_VALUE + " bytes");
+            }
+            if (nameOffset + nameLength > names.length) {
+                names = Arrays.copyOf(names, (int) Math.min(Integer.MAX_VALUE,
+                        Math.max(names.length * 2L, nameOffset + nameLength)));
+            }
+            return nameOffset;
+        }
+
+        private Builder add(long userId, int nameEnd, long location) {
+            userIds[size] = userId;
+            latitudeUnits[size] = FixedPointCoordinate.latitudeUnits(location);
+            longitudeUnits[size] = FixedPointCoordinate.longitudeUnits(location);
+            nameOffsets[size + 1] = nameEnd;
+            size++;
+            return this;
+        }
+
+        @Override
+        public HeapCustomerStore build() {
+            return new HeapCustomerStore(size,
+                    Arrays.copyOf(userIds, size),
+                    Arrays.copyOf(latitudeUnits, size),
+                    Arrays.copyOf(longitudeUnits, size),
+                    Arrays.copyOf(nameOffsets, size + 1),
+                    Arrays.copyOf(names, nameOffsets[size]));
+        }
+    }
+}
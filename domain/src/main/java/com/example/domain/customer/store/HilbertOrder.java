@@ -0,0 +1,177 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.HilbertCurve;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Sorts customers by {@link HilbertCurve} index of their location, so that spatially adjacent customers end up in
+ * adjacent rows, and hence adjacent pages once written to a {@link ColumnarCustomerFile}.
+ * <p>
+ * Each row is sorted as a single long, its curve index in the high half and its row in the low half, which keeps
+ * the sort stable. Stores with more rows than fit in a run are sorted with an external merge sort: sorted runs are
+ * spilled to temporary files and merged into a temporary file of rows, which is memory-mapped.
+ */
+public final class HilbertOrder {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final long SIGN_BIT = 1L << 63;
+
+    private HilbertOrder() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     *
+     * @return number of rows a run may hold using at most a quarter of the maximum heap
+     */
+    public static int defaultRunSize() {
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE - 8, Runtime.getRuntime().maxMemory() / 4 / Long.BYTES));
+    }
+
+    /**
+     *
+     * @param store
+     * @param runSize maximum number of rows sorted in memory at once
+     * @param tempDirectory directory of the temporary files of an external sort
+     * @return view of the given store sorted by Hilbert curve index
+     * @throws IOException
+     */
+    public static CustomerStore sort(CustomerStore store, int runSize, Path tempDirectory) throws IOException {
+        if (runSize <= 0) {
+            throw new IllegalArgumentException("run size must be positive");
+        }
+        int n = store.size();
+        if (n <= runSize) {
+            long[] keys = sortedKeys(store, 0, n);
+            int[] rows = new int[n];
+            for (int i = 0; i < n; i++) {
+                rows[i] = (int) keys[i];
+            }
+            return new PermutedCustomerStore(store, row -> rows[row]);
+        }
+
+        List<Path> runs = new ArrayList<>();
+        try {
+            for (int from = 0; from < n; from += runSize) {
+                Path run = Files.createTempFile(tempDirectory, "hilbert-run", null);
+                runs.add(run);
+                writeRun(sortedKeys(store, from, (int) Math.min(n, (long) from + runSize)), run);
+            }
+            Path rows = Files.createTempFile(tempDirectory, "hilbert-rows", null);
+            try {
+                mergeRuns(runs, rows);
+                try (FileChannel channel = FileChannel.open(rows, StandardOpenOption.READ)) {
+                    MappedRegion mappedRows = MappedRegion.map(channel, 0, (long) n * Integer.BYTES,
+                            MappedCustomerStore.DEFAULT_CHUNK_SIZE);
+                    return new PermutedCustomerStore(store, row -> mappedRows.getInt((long) row * Integer.BYTES));
+                }
+            } finally {
+                deleteMappedFile(rows);
+            }
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+        }
+    }
+
+    private static long[] sortedKeys(CustomerStore store, int from, int to) {
+        long[] keys = new long[to - from];
+        for (int row = from; row < to; row++) {
+            // flipping the sign bit makes signed order of the keys match the unsigned order of the indexes
+            keys[row - from] = (HilbertCurve.index(store.getLocation(row)) << 32 ^ SIGN_BIT) | row;
+        }
+        Arrays.sort(keys);
+        return keys;
+    }
+
+    private static void writeRun(long[] keys, Path run) throws IOException {
+        try (FileChannel channel = FileChannel.open(run, StandardOpenOption.WRITE)) {
+            ColumnarCustomerFile.ColumnWriter out = new ColumnarCustomerFile.ColumnWriter(channel);
+            for (long key : keys) {
+                out.putLong(key);
+            }
+            out.flush();
+        }
+    }
+
+    private static void mergeRuns(List<Path> runs, Path rows) throws IOException {
+        List<RunReader> readers = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(rows, StandardOpenOption.WRITE)) {
+            PriorityQueue<RunReader> queue =
+                    new PriorityQueue<>(runs.size(), Comparator.comparingLong(RunReader::current));
+            for (Path run : runs) {
+                RunReader reader = new RunReader(FileChannel.open(run, StandardOpenOption.READ));
+                readers.add(reader);
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+            ColumnarCustomerFile.ColumnWriter out = new ColumnarCustomerFile.ColumnWriter(channel);
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                out.putInt((int) reader.current());
+                if (reader.advance()) {
+                    queue.add(reader);
+                }
+            }
+            out.flush();
+        } finally {
+            for (RunReader reader : readers) {
+                reader.channel.close();
+            }
+        }
+    }
+
+    private static void deleteMappedFile(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            // some platforms do not allow deleting a file while it is mapped
+            file.toFile().deleteOnExit();
+        }
+    }
+
+    private static final class RunReader {
+
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        private long current;
+
+        private RunReader(FileChannel channel) {
+            this.channel = channel;
+            this.buffer.limit(0);
+        }
+
+        long current() {
+            return current;
+        }
+
+        boolean advance() throws IOException {
+            if (buffer.remaining() < Long.BYTES) {
+                buffer.compact();
+                while (buffer.position() < Long.BYTES && channel.read(buffer) >= 0) {
+                    // read until a whole key is buffered or the end of the run is reached
+                }
+                buffer.flip();
+                if (buffer.remaining() < Long.BYTES) {
+                    return false;
+                }
+            }
+            current = buffer.getLong();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.BoundingBox;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.CoordinateService;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link CustomerStore} over a memory-mapped {@link ColumnarCustomerFile}.
+ * <p>
+ * Opening the store only reads the header; the columns are read by the operating system as they are accessed, so
+ * range filters touch the coordinate columns only and names are decoded for the requested rows only. Columns larger
+ * than a single mapping are mapped in several chunks.
+ * <p>
+ * Range filters first compare the zone map of each block with the bounding box of the query, and skip the blocks
+ * which cannot contain any match; the pages of their coordinates are never touched. The fewer blocks a query
+ * overlaps, i.e. the more spatially sorted the file, the smaller the fraction of the file read.
+ * <p>
+ * User IDs and coordinates of {@link ColumnEncoding#DELTA_VARINT delta/varint} encoded files are decoded a block at a
+ * time: range filters decode the coordinates of the candidate blocks, and random access keeps the last decoded block
+ * of each thread.
+ */
+@Immutable
+public final class MappedCustomerStore implements CustomerStore {
+
+    static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+    private final ColumnarCustomerFile.Header header;
+    private final Columns columns;
+    private final MappedRegion nameOffsets;
+    private final MappedRegion names;
+    private final MappedRegion zoneMaps;
+
+    private MappedCustomerStore(ColumnarCustomerFile.Header header, Columns columns, MappedRegion nameOffsets,
+                                MappedRegion names, MappedRegion zoneMaps) {
+        this.header = header;
+        this.columns = columns;
+        this.nameOffsets = nameOffsets;
+        this.names = names;
+        this.zoneMaps = zoneMaps;
+    }
+
+    /**
+     *
+     * @param path columnar customer file
+     * @return
+     * @throws IOException if the file is not a columnar customer file or is truncated
+     */
+    public static MappedCustomerStore open(Path path) throws IOException {
+        return open(path, DEFAULT_CHUNK_SIZE);
+    }
+
+    static MappedCustomerStore open(Path path, int chunkSize) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ColumnarCustomerFile.Header header = ColumnarCustomerFile.Header.read(channel, path);
+            int n = header.rowCount;
+            // mappings stay valid once the channel is closed
+            Columns columns = header.encoding == ColumnEncoding.DELTA_VARINT
+                    ? new DeltaVarintColumns(header,
+                    MappedRegion.map(channel, header.columnsOffset(), header.columnsSize, chunkSize))
+                    : new PlainColumns(header.blockSize,
+                    MappedRegion.map(channel, header.userIdsOffset(), (long) n * Long.BYTES, chunkSize),
+                    MappedRegion.map(channel, header.latitudesOffset(), (long) n * Integer.BYTES, chunkSize),
+                    MappedRegion.map(channel, header.longitudesOffset(), (long) n * Integer.BYTES, chunkSize));
+            return new MappedCustomerStore(header, columns,
+                    MappedRegion.map(channel, header.nameOffsetsOffset(), (n + 1L) * Long.BYTES, chunkSize),
+                    MappedRegion.map(channel, header.namesOffset(), header.namesSize, chunkSize),
+                    MappedRegion.map(channel, header.zoneMapsOffset(),
+                            (long) header.blockCount * ColumnarCustomerFile.ZONE_MAP_SIZE, chunkSize));
+        }
+    }
+
+    @Override
+    public int size() {
+        return header.rowCount;
+    }
+
+    @Override
+    public long getUserId(int row) {
+        return columns.getUserId(checkRow(row));
+    }
+
+    @Override
+    public String getName(int row) {
+        return new String(getNameBytes(row), UTF_8);
+    }
+
+    @Override
+    public int getNameLength(int row) {
+        checkRow(row);
+        return (int) (nameEnd(row) - nameOffset(row));
+    }
+
+    @Override
+    public byte[] getNameBytes(int row) {
+        checkRow(row);
+        long nameOffset = nameOffset(row);
+        byte[] name = new byte[(int) (nameEnd(row) - nameOffset)];
+        names.get(nameOffset, name);
+        return name;
+    }
+
+    private long nameOffset(int row) {
+        long nameOffset = nameOffsets.getLong((long) row * Long.BYTES);
+        long nameEnd = nameOffsets.getLong((row + 1L) * Long.BYTES);
+        if (nameOffset < 0 || nameEnd < nameOffset || nameEnd > header.namesSize) {
+            throw new IllegalStateException("corrupted name offsets at row " + row);
+        }
+        return nameOffset;
+    }
+
+    private long nameEnd(int row) {
+        return nameOffsets.getLong((row + 1L) * Long.BYTES);
+    }
+
+    @Override
+    public long getLocation(int row) {
+        checkRow(row);
+        return FixedPointCoordinate.pack(columns.getLatitude(row), columns.getLongitude(row));
+    }
+
+    @Override
+    public double getLatitudeInRadians(int row) {
+        return FixedPointCoordinate.unitsToRadians(columns.getLatitude(checkRow(row)));
+    }
+
+    @Override
+    public double getLongitudeInRadians(int row) {
+        return FixedPointCoordinate.unitsToRadians(columns.getLongitude(checkRow(row)));
+    }
+
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query) {
+        int n = header.rowCount;
+        BitSet rows = new BitSet(n);
+        BitSet blocks = candidateBlocks(query.getBoundingBox());
+        int[] latitudes = new int[header.blockSize];
+        int[] longitudes = new int[header.blockSize];
+        for (int block = blocks.nextSetBit(0); block >= 0; block = blocks.nextSetBit(block + 1)) {
+            int from = block * header.blockSize;
+            int count = ColumnarCustomerFile.blockEnd(block, header.blockSize, n) - from;
+            columns.getCoordinates(block, count, latitudes, longitudes);
+            for (int i = 0; i < count; i++) {
+                if (query.contains(FixedPointCoordinate.unitsToRadians(latitudes[i]),
+                        FixedPointCoordinate.unitsToRadians(longitudes[i]))) {
+                    rows.set(from + i);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Same as {@link #withinRange(PreparedRangeQuery)}, the rows of the candidate blocks going through the batch
+     * filter of the coordinate service.
+     *
+     * @param query
+     * @param coordinateService
+     * @return
+     */
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query, CoordinateService coordinateService) {
+        int n = header.rowCount;
+        BitSet rows = new BitSet(n);
+        CandidateBatch batch = new CandidateBatch(query, coordinateService, rows);
+        BitSet blocks = candidateBlocks(query.getBoundingBox());
+        int[] latitudes = new int[header.blockSize];
+        int[] longitudes = new int[header.blockSize];
+        for (int block = blocks.nextSetBit(0); block >= 0; block = blocks.nextSetBit(block + 1)) {
+            int from = block * header.blockSize;
+            int count = ColumnarCustomerFile.blockEnd(block, header.blockSize, n) - from;
+            columns.getCoordinates(block, count, latitudes, longitudes);
+            for (int i = 0; i < count; i++) {
+                batch.add(from + i, FixedPointCoordinate.unitsToRadians(latitudes[i]),
+                        FixedPointCoordinate.unitsToRadians(longitudes[i]));
+            }
+        }
+        batch.flush();
+        return rows;
+    }
+
+    /**
+     * Coordinates decode to radians monotonically, so comparing the decoded bounds of a block is exact: a block is
+     * only excluded when none of its rows is within the box.
+     *
+     * @param boundingBox
+     * @return blocks whose zone map intersects the given bounding box
+     */
+    BitSet candidateBlocks(BoundingBox boundingBox) {
+        BitSet blocks = new BitSet(header.blockCount);
+        for (int block = 0; block < header.blockCount; block++) {
+            long offset = (long) block * ColumnarCustomerFile.ZONE_MAP_SIZE;
+            if (boundingBox.intersects(
+                    FixedPointCoordinate.unitsToRadians(zoneMaps.getInt(offset)),
+                    FixedPointCoordinate.unitsToRadians(zoneMaps.getInt(offset + Integer.BYTES)),
+                    FixedPointCoordinate.unitsToRadians(zoneMaps.getInt(offset + 2 * Integer.BYTES)),
+                    FixedPointCoordinate.unitsToRadians(zoneMaps.getInt(offset + 3 * Integer.BYTES)))) {
+                blocks.set(block);
+            }
+        }
+        return blocks;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= header.rowCount) {
+            throw new IndexOutOfBoundsException("row " + row + " out of [0, " + header.rowCount + ")");
+        }
+        return row;
+    }
+
+    /**
+     * User ID and coordinate columns, in one of the {@link ColumnEncoding encodings}.
+     */
+    private interface Columns {
+
+        long getUserId(int row);
+
+        int getLatitude(int row);
+
+        int getLongitude(int row);
+
+        /**
+         *
+         * @param block
+         * @param count number of rows of the block
+         * @param latitudes latitudes of the rows of the block (in 10<sup>-7</sup> degrees)
+         * @param longitudes longitudes of the rows of the block (in 10<sup>-7</sup> degrees)
+         */
+        void getCoordinates(int block, int count, int[] latitudes, int[] longitudes);
+    }
+
+    private static final class PlainColumns implements Columns {
+
+        private final int blockSize;
+        private final MappedRegion userIds;
+        private final MappedRegion latitudes;
+        private final MappedRegion longitudes;
+
+        PlainColumns(int blockSize, MappedRegion userIds, MappedRegion latitudes, MappedRegion longitudes) {
+            this.blockSize = blockSize;
+            this.userIds = userIds;
+            this.latitudes = latitudes;
+            this.longitudes = longitudes;
+        }
+
+        @Override
+        public long getUserId(int row) {
+            return userIds.getLong((long) row * Long.BYTES);
+        }
+
+        @Override
+        public int getLatitude(int row) {
+            return latitudes.getInt((long) row * Integer.BYTES);
+        }
+
+        @Override
+        public int getLongitude(int row) {
+            return longitudes.getInt((long) row * Integer.BYTES);
+        }
+
+        @Override
+        public void getCoordinates(int block, int count, int[] latitudes, int[] longitudes) {
+            int from = block * blockSize;
+            for (int i = 0; i < count; i++) {
+                latitudes[i] = getLatitude(from + i);
+                longitudes[i] = getLongitude(from + i);
+            }
+        }
+    }
+
+    private static final class DeltaVarintColumns implements Columns {
+
+        private final ColumnarCustomerFile.Header header;
+        private final MappedRegion region;
+        private final long blocksOffset;
+        private final ThreadLocal<DecodedBlock> lastDecodedBlock = ThreadLocal.withInitial(DecodedBlock::new);
+
+        DeltaVarintColumns(ColumnarCustomerFile.Header header, MappedRegion region) {
+            this.header = header;
+            this.region = region;
+            this.blocksOffset = (header.blockCount + 1L) * Long.BYTES;
+        }
+
+        @Override
+        public long getUserId(int row) {
+            return decodedBlockOf(row).userIds[row % header.blockSize];
+        }
+
+        @Override
+        public int getLatitude(int row) {
+            return decodedBlockOf(row).latitudes[row % header.blockSize];
+        }
+
+        @Override
+        public int getLongitude(int row) {
+            return decodedBlockOf(row).longitudes[row % header.blockSize];
+        }
+
+        @Override
+        public void getCoordinates(int block, int count, int[] latitudes, int[] longitudes) {
+            DeltaVarintCodec.decodeCoordinates(read(block), count, latitudes, longitudes);
+        }
+
+        private DecodedBlock decodedBlockOf(int row) {
+            int block = row / header.blockSize;
+            DecodedBlock decoded = lastDecodedBlock.get();
+            if (decoded.block != block) {
+                int count = ColumnarCustomerFile.blockEnd(block, header.blockSize, header.rowCount)
+                        - block * header.blockSize;
+                if (decoded.userIds == null) {
+                    decoded.userIds = new long[header.blockSize];
+                    decoded.latitudes = new int[header.blockSize];
+                    decoded.longitudes = new int[header.blockSize];
+                }
+                byte[] encoded = read(block);
+                int position = DeltaVarintCodec.decodeCoordinates(encoded, count,
+                        decoded.latitudes, decoded.longitudes);
+                DeltaVarintCodec.decodeUserIds(encoded, position, count, decoded.userIds);
+                decoded.block = block;
+            }
+            return decoded;
+        }
+
+        private byte[] read(int block) {
+            long offset = region.getLong((long) block * Long.BYTES);
+            long end = region.getLong((block + 1L) * Long.BYTES);
+            if (offset < 0 || end < offset || blocksOffset + end > header.columnsSize) {
+                throw new IllegalStateException("corrupted block offsets at block " + block);
+            }
+            byte[] encoded = new byte[(int) (end - offset)];
+            region.get(blocksOffset + offset, encoded);
+            return encoded;
+        }
+    }
+
+    private static final class DecodedBlock {
+
+        private int block = -1;
+        private long[] userIds;
+        private int[] latitudes;
+        private int[] longitudes;
+    }
+}
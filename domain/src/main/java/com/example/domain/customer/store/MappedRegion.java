@@ -0,0 +1,53 @@
+package com.example.domain.customer.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Read-only region of a file, mapped in chunks of a power-of-two size so that no aligned value straddles two of
+ * them.
+ */
+final class MappedRegion {
+
+    private final ByteBuffer[] chunks;
+    private final int chunkShift;
+    private final long chunkMask;
+
+    private MappedRegion(ByteBuffer[] chunks, int chunkSize) {
+        this.chunks = chunks;
+        this.chunkShift = Integer.numberOfTrailingZeros(chunkSize);
+        this.chunkMask = chunkSize - 1;
+    }
+
+    static MappedRegion map(FileChannel channel, long position, long size, int chunkSize) throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[(int) ((size + chunkSize - 1) / chunkSize)];
+        for (int i = 0; i < chunks.length; i++) {
+            long offset = (long) i * chunkSize;
+            chunks[i] = channel
+                    .map(FileChannel.MapMode.READ_ONLY, position + offset, Math.min(chunkSize, size - offset))
+                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new MappedRegion(chunks, chunkSize);
+    }
+
+    long getLong(long offset) {
+        return chunks[(int) (offset >>> chunkShift)].getLong((int) (offset & chunkMask));
+    }
+
+    int getInt(long offset) {
+        return chunks[(int) (offset >>> chunkShift)].getInt((int) (offset & chunkMask));
+    }
+
+    void get(long offset, byte[] bytes) {
+        for (int copied = 0; copied < bytes.length; ) {
+            long position = offset + copied;
+            ByteBuffer chunk = chunks[(int) (position >>> chunkShift)].duplicate();
+            chunk.position((int) (position & chunkMask));
+            int length = Math.min(chunk.remaining(), bytes.length - copied);
+            chunk.get(bytes, copied, length);
+            copied += length;
+        }
+    }
+}
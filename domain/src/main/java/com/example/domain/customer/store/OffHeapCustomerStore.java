@@ -0,0 +1,259 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.NotThreadSafe;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * {@link CustomerStore} backed by direct {@link ByteBuffer}s, outside of the Java heap.
+ * <p>
+ * Rows are split into segments of a fixed number of rows. Each segment is a single direct buffer holding one
+ * fixed-width column after the other: user IDs (8 bytes), latitudes and longitudes in 10<sup>-7</sup> degrees
+ * (4 bytes each), and the address (8 bytes) and length (4 bytes) of the UTF-8 encoded name. Names are appended to a
+ * separate list of direct buffers, never straddling two of them. Since neither list is limited to a single buffer,
+ * the store can grow beyond 2 GB; the heap only holds the buffer references.
+ */
+@Immutable
+public final class OffHeapCustomerStore implements CustomerStore {
+
+    /**
+     * Default number of rows per segment (28 MB).
+     */
+    public static final int DEFAULT_SEGMENT_ROWS = 1 << 20;
+
+    /**
+     * Default size of a name buffer (16 MB).
+     */
+    public static final int DEFAULT_NAME_BUFFER_SIZE = 1 << 24;
+
+    private static final int ROW_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    private final int size;
+    private final int segmentShift;
+    private final int segmentMask;
+    private final int segmentRows;
+    private final ByteBuffer[] segments;
+    private final ByteBuffer[] nameBuffers;
+
+    private OffHeapCustomerStore(int size, int segmentShift, ByteBuffer[] segments, ByteBuffer[] nameBuffers) {
+        this.size = size;
+        this.segmentShift = segmentShift;
+        this.segmentRows = 1 << segmentShift;
+        this.segmentMask = segmentRows - 1;
+        this.segments = segments;
+        this.nameBuffers = nameBuffers;
+    }
+
+    /**
+     *
+     * @return
+     */
+    public static Builder builder() {
+        return new Builder(DEFAULT_SEGMENT_ROWS, DEFAULT_NAME_BUFFER_SIZE);
+    }
+
+    /**
+     *
+     * @param segmentRows number of rows per segment, a power of two
+     * @param nameBufferSize size of a name buffer, in bytes; no name may be longer
+     * @return
+     */
+    public static Builder builder(int segmentRows, int nameBufferSize) {
+        if (segmentRows <= 0 || Integer.bitCount(segmentRows) != 1 || segmentRows > Integer.MAX_VALUE / ROW_SIZE) {
+            throw new IllegalArgumentException("segment rows must be a power of two between 1 and "
+                    + Integer.highestOneBit(Integer.MAX_VALUE / ROW_SIZE));
+        }
+        if (nameBufferSize <= 0) {
+            throw new IllegalArgumentException("name buffer size must be positive");
+        }
+        return new Builder(segmentRows, nameBufferSize);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public long getUserId(int row) {
+        checkRow(row);
+        return segments[row >>> segmentShift].getLong(userIdOffset(row & segmentMask));
+    }
+
+    @Override
+    public String getName(int row) {
+        return new String(getNameBytes(row), UTF_8);
+    }
+
+    @Override
+    public int getNameLength(int row) {
+        checkRow(row);
+        return segments[row >>> segmentShift].getInt(nameLengthOffset(segmentRows, row & segmentMask));
+    }
+
+    @Override
+    public byte[] getNameBytes(int row) {
+        checkRow(row);
+        ByteBuffer segment = segments[row >>> segmentShift];
+        long address = segment.getLong(nameAddressOffset(segmentRows, row & segmentMask));
+        int length = segment.getInt(nameLengthOffset(segmentRows, row & segmentMask));
+
+        ByteBuffer nameBuffer = nameBuffers[(int) (address >>> 32)].duplicate();
+        nameBuffer.position((int) address);
+        byte[] name = new byte[length];
+        nameBuffer.get(name);
+        return name;
+    }
+
+    @Override
+    public long getLocation(int row) {
+        checkRow(row);
+        ByteBuffer segment = segments[row >>> segmentShift];
+        return FixedPointCoordinate.pack(
+                segment.getInt(latitudeOffset(segmentRows, row & segmentMask)),
+                segment.getInt(longitudeOffset(segmentRows, row & segmentMask)));
+    }
+
+    @Override
+    public double getLatitudeInRadians(int row) {
+        checkRow(row);
+        return FixedPointCoordinate.unitsToRadians(
+                segments[row >>> segmentShift].getInt(latitudeOffset(segmentRows, row & segmentMask)));
+    }
+
+    @Override
+    public double getLongitudeInRadians(int row) {
+        checkRow(row);
+        return FixedPointCoordinate.unitsToRadians(
+                segments[row >>> segmentShift].getInt(longitudeOffset(segmentRows, row & segmentMask)));
+    }
+
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query) {
+        BitSet rows = new BitSet(size);
+        for (int s = 0, row = 0; s < segments.length; s++) {
+            ByteBuffer segment = segments[s];
+            int rowsInSegment = Math.min(segmentRows, size - row);
+            for (int i = 0; i < rowsInSegment; i++, row++) {
+                double latitude =
+                        FixedPointCoordinate.unitsToRadians(segment.getInt(latitudeOffset(segmentRows, i)));
+                double longitude =
+                        FixedPointCoordinate.unitsToRadians(segment.getInt(longitudeOffset(segmentRows, i)));
+                if (query.contains(latitude, longitude)) {
+                    rows.set(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " out of [0, " + size + ")");
+        }
+        return row;
+    }
+
+    // the user ID column comes first in a segment, so its offset does not depend on the number of rows
+    private static int userIdOffset(int i) {
+        return i * Long.BYTES;
+    }
+
+    private static int latitudeOffset(int segmentRows, int i) {
+        return segmentRows * Long.BYTES + i * Integer.BYTES;
+    }
+
+    private static int longitudeOffset(int segmentRows, int i) {
+        return segmentRows * (Long.BYTES + Integer.BYTES) + i * Integer.BYTES;
+    }
+
+    private static int nameAddressOffset(int segmentRows, int i) {
+        return segmentRows * (Long.BYTES + 2 * Integer.BYTES) + i * Long.BYTES;
+    }
+
+    private static int nameLengthOffset(int segmentRows, int i) {
+        return segmentRows * (2 * Long.BYTES + 2 * Integer.BYTES) + i * Integer.BYTES;
+    }
+
+    /**
+     * Appends rows directly to the direct buffers; the buffers are handed over to the store on {@link #build()}.
+     */
+    @NotThreadSafe
+    public static final class Builder implements CustomerStore.Builder {
+
+        private final int segmentRows;
+        private final int nameBufferSize;
+        private final List<ByteBuffer> segments = new ArrayList<>();
+        private final List<ByteBuffer> nameBuffers = new ArrayList<>();
+        private int size;
+        private boolean built;
+
+        private Builder(int segmentRows, int nameBufferSize) {
+            this.segmentRows = segmentRows;
+            this.nameBufferSize = nameBufferSize;
+        }
+
+        @Override
+        public Builder add(long userId, String name, long location) {
+            byte[] encodedName = name.getBytes(UTF_8);
+            return add(userId, encodedName, 0, encodedName.length, location);
+        }
+
+        @Override
+        public Builder add(long userId, byte[] name, int offset, int length, long location) {
+            if (built) {
+                throw new IllegalStateException("store has already been built");
+            }
+            if (size == Integer.MAX_VALUE) {
+                throw new IllegalStateException("store is full");
+            }
+            if (length > nameBufferSize) {
+                throw new IllegalArgumentException("name must not be longer than " + nameBufferSize + " bytes");
+            }
+
+            int i = size & (segmentRows - 1);
+            if (i == 0) {
+                segments.add(allocate(segmentRows * ROW_SIZE));
+            }
+            ByteBuffer segment = segments.get(segments.size() - 1);
+            segment.putLong(userIdOffset(i), userId);
+            segment.putInt(latitudeOffset(segmentRows, i), FixedPointCoordinate.latitudeUnits(location));
+            segment.putInt(longitudeOffset(segmentRows, i), FixedPointCoordinate.longitudeUnits(location));
+            segment.putLong(nameAddressOffset(segmentRows, i), appendName(name, offset, length));
+            segment.putInt(nameLengthOffset(segmentRows, i), length);
+            size++;
+            return this;
+        }
+
+        private long appendName(byte[] name, int offset, int length) {
+            ByteBuffer nameBuffer = nameBuffers.isEmpty() ? null : nameBuffers.get(nameBuffers.size() - 1);
+            if (nameBuffer == null || nameBuffer.remaining() < length) {
+                nameBuffer = allocate(nameBufferSize);
+                nameBuffers.add(nameBuffer);
+            }
+            long address = (long) (nameBuffers.size() - 1) << 32 | nameBuffer.position();
+            nameBuffer.put(name, offset, length);
+            return address;
+        }
+
+        private static ByteBuffer allocate(int capacity) {
+            return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+        }
+
+        @Override
+        public OffHeapCustomerStore build() {
+            built = true;
+            return new OffHeapCustomerStore(size, Integer.numberOfTrailingZeros(segmentRows),
+                    segments.toArray(new ByteBuffer[0]), nameBuffers.toArray(new ByteBuffer[0]));
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.domain.customer.store;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * View of a {@link CustomerStore} with its rows in a different order.
+ */
+@Immutable
+final class PermutedCustomerStore implements CustomerStore {
+
+    private final CustomerStore store;
+    private final IntUnaryOperator sourceRow;
+
+    /**
+     *
+     * @param store
+     * @param sourceRow row of the given store at each row of the view
+     */
+    PermutedCustomerStore(CustomerStore store, IntUnaryOperator sourceRow) {
+        this.store = store;
+        this.sourceRow = sourceRow;
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public long getUserId(int row) {
+        return store.getUserId(sourceRow(row));
+    }
+
+    @Override
+    public String getName(int row) {
+        return store.getName(sourceRow(row));
+    }
+
+    @Override
+    public int getNameLength(int row) {
+        return store.getNameLength(sourceRow(row));
+    }
+
+    @Override
+    public byte[] getNameBytes(int row) {
+        return store.getNameBytes(sourceRow(row));
+    }
+
+    @Override
+    public long getLocation(int row) {
+        return store.getLocation(sourceRow(row));
+    }
+
+    @Override
+    public double getLatitudeInRadians(int row) {
+        return store.getLatitudeInRadians(sourceRow(row));
+    }
+
+    @Override
+    public double getLongitudeInRadians(int row) {
+        return store.getLongitudeInRadians(sourceRow(row));
+    }
+
+    private int sourceRow(int row) {
+        if (row < 0 || row >= store.size()) {
+            throw new IndexOutOfBoundsException("row " + row + " out of [0, " + store.size() + ")");
+        }
+        return sourceRow.applyAsInt(row);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.UnitVector;
+import com.example.domain.geocoord.service.CoordinateService;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+import java.util.stream.IntStream;
+
+/**
+ * View of a {@link CustomerStore} with the {@link UnitVector unit vector} of every customer precomputed.
+ * <p>
+ * The unit vectors are computed once, in parallel, when the view is created; range queries then test them directly,
+ * so that the queries whose test is a threshold on unit vectors run no trigonometry per customer, only for their
+ * target. Worth it when the same customers are queried repeatedly: each query scans every customer, without the
+ * zone maps of {@link MappedCustomerStore}.
+ */
+@Immutable
+public final class UnitVectorCustomerStore implements CustomerStore {
+
+    private final CustomerStore store;
+    private final double[] xs;
+    private final double[] ys;
+    private final double[] zs;
+
+    private UnitVectorCustomerStore(CustomerStore store, double[] xs, double[] ys, double[] zs) {
+        this.store = store;
+        this.xs = xs;
+        this.ys = ys;
+        this.zs = zs;
+    }
+
+    /**
+     *
+     * @param store
+     * @return view of the given store with the unit vector of every customer precomputed
+     */
+    public static UnitVectorCustomerStore of(CustomerStore store) {
+        int n = store.size();
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double[] zs = new double[n];
+        IntStream.range(0, n).parallel().forEach(row -> {
+            UnitVector unitVector = UnitVector.of(store.getLatitudeInRadians(row), store.getLongitudeInRadians(row));
+            xs[row] = unitVector.getX();
+            ys[row] = unitVector.getY();
+            zs[row] = unitVector.getZ();
+        });
+        return new UnitVectorCustomerStore(store, xs, ys, zs);
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    @Override
+    public long getUserId(int row) {
+        return store.getUserId(row);
+    }
+
+    @Override
+    public String getName(int row) {
+        return store.getName(row);
+    }
+
+    @Override
+    public int getNameLength(int row) {
+        return store.getNameLength(row);
+    }
+
+    @Override
+    public byte[] getNameBytes(int row) {
+        return store.getNameBytes(row);
+    }
+
+    @Override
+    public long getLocation(int row) {
+        return store.getLocation(row);
+    }
+
+    @Override
+    public double getLatitudeInRadians(int row) {
+        return store.getLatitudeInRadians(row);
+    }
+
+    @Override
+    public double getLongitudeInRadians(int row) {
+        return store.getLongitudeInRadians(row);
+    }
+
+    /**
+     *
+     * @param row
+     * @return precomputed unit vector of the location of the customer
+     */
+    public UnitVector getUnitVector(int row) {
+        checkRow(row);
+        return new UnitVector(xs[row], ys[row], zs[row]);
+    }
+
+    /**
+     * Queries which are no {@link PreparedRangeQuery#isUnitVectorThreshold() threshold on unit vectors} scan the
+     * underlying store instead, which tests them on latitude/longitude.
+     *
+     * @param query
+     * @return
+     */
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query) {
+        if (!query.isUnitVectorThreshold()) {
+            return store.withinRange(query);
+        }
+        BitSet rows = new BitSet(xs.length);
+        query.filter(xs, ys, zs, 0, xs.length, rows);
+        return rows;
+    }
+
+    /**
+     * Threshold tests run on the range filter kernel of the given service, which may be vectorized; other queries
+     * scan the underlying store.
+     *
+     * @param query
+     * @param coordinateService
+     * @return
+     */
+    @Override
+    public BitSet withinRange(PreparedRangeQuery query, CoordinateService coordinateService) {
+        if (!query.isUnitVectorThreshold()) {
+            return store.withinRange(query, coordinateService);
+        }
+        BitSet rows = new BitSet(xs.length);
+        coordinateService.withinRange(query, xs, ys, zs, rows);
+        return rows;
+    }
+
+    private void checkRow(int row) {
+        if (row < 0 || row >= xs.length) {
+            throw new IndexOutOfBoundsException("row " + row + " out of [0, " + xs.length + ")");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.domain.customer.store;
+
+/**
+ * UTF-8 encoding of strings straight into byte arrays, without the intermediate array of
+ * {@link String#getBytes(java.nio.charset.Charset)}; unpaired surrogates are replaced with {@code '?'}, as they are
+ * by the latter.
+ */
+final class Utf8 {
+
+    /**
+     * Upper bound of the number of bytes a {@code char} takes: 3, as surrogate pairs take 4 bytes for 2 chars.
+     */
+    static final int MAX_BYTES_PER_CHAR = 3;
+
+    private Utf8() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     *
+     * @param value
+     * @param bytes array with room for at least {@link #MAX_BYTES_PER_CHAR} bytes per char of the given value
+     * @param offset
+     * @return offset right after the encoded value
+     */
+    static int encode(String value, byte[] bytes, int offset) {
+        int length = value.length();
+        int i = 0;
+        // fast path for the common all-ASCII prefix
+        for (char c; i < length && (c = value.charAt(i)) < 0x80; i++) {
+            bytes[offset++] = (byte) c;
+        }
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < 0x80) {
+                bytes[offset++] = (byte) c;
+            } else if (c < 0x800) {
+                bytes[offset++] = (byte) (0xC0 | c >> 6);
+                bytes[offset++] = (byte) (0x80 | c & 0x3F);
+            } else if (!Character.isSurrogate(c)) {
+                bytes[offset++] = (byte) (0xE0 | c >> 12);
+                bytes[offset++] = (byte) (0x80 | c >> 6 & 0x3F);
+                bytes[offset++] = (byte) (0x80 | c & 0x3F);
+            } else if (Character.isHighSurrogate(c) && i + 1 < length
+                    && Character.isLowSurrogate(value.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                bytes[offset++] = (byte) (0xF0 | codePoint >> 18);
+                bytes[offset++] = (byte) (0x80 | codePoint >> 12 & 0x3F);
+                bytes[offset++] = (byte) (0x80 | codePoint >> 6 & 0x3F);
+                bytes[offset++] = (byte) (0x80 | codePoint & 0x3F);
+            } else {
+                bytes[offset++] = '?';
+            }
+        }
+        return offset;
+    }
+}
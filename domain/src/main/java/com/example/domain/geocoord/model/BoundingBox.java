@@ -0,0 +1,117 @@
+package com.example.domain.geocoord.model;
+
+import lombok.Value;
+
+import javax.annotation.concurrent.Immutable;
+
+import static java.lang.StrictMath.PI;
+import static java.lang.StrictMath.asin;
+import static java.lang.StrictMath.cos;
+import static java.lang.StrictMath.max;
+import static java.lang.StrictMath.min;
+import static java.lang.StrictMath.sin;
+
+/**
+ * Latitude/longitude window (in radians) enclosing every point within a given central angle of a center point.
+ * <p>
+ * When the window crosses the antimeridian, {@code minLongitude} is greater than {@code maxLongitude}; when it
+ * covers a pole, it spans all longitudes.
+ *
+ * @see <a href="http://janmatuschek.de/LatitudeLongitudeBoundingCoordinates">Finding points within a distance of a
+ * latitude/longitude using bounding coordinates</a>
+ */
+@Value
+@Immutable
+public class BoundingBox {
+
+    private static final double MIN_LATITUDE = -PI / 2;
+    private static final double MAX_LATITUDE = PI / 2;
+    private static final double MIN_LONGITUDE = -PI;
+    private static final double MAX_LONGITUDE = PI;
+
+    double minLatitude;
+    double maxLatitude;
+    double minLongitude;
+    double maxLongitude;
+
+    /**
+     *
+     * @param center
+     * @param centralAngle angular radius (in radians)
+     * @return
+     */
+    public static BoundingBox around(Coordinate center, double centralAngle) {
+        return around(center.getLatitudeInRadians(), center.getLongitudeInRadians(), centralAngle);
+    }
+
+    /**
+     *
+     * @param latitude latitude of the center (in radians)
+     * @param longitude longitude of the center (in radians)
+     * @param centralAngle angular radius (in radians)
+     * @return
+     */
+    public static BoundingBox around(double latitude, double longitude, double centralAngle) {
+        double minLatitude = latitude - centralAngle;
+        double maxLatitude = latitude + centralAngle;
+
+        if (minLatitude <= MIN_LATITUDE || maxLatitude >= MAX_LATITUDE) {
+            // a pole is within range, hence so is every meridian
+            return new BoundingBox(
+                    max(minLatitude, MIN_LATITUDE), min(maxLatitude, MAX_LATITUDE),
+                    MIN_LONGITUDE, MAX_LONGITUDE);
+        }
+
+        double deltaLongitude = asin(min(1.0, sin(centralAngle) / cos(latitude)));
+
+        double minLongitude = longitude - deltaLongitude;
+        if (minLongitude < MIN_LONGITUDE) {
+            minLongitude += 2 * PI;
+        }
+        double maxLongitude = longitude + deltaLongitude;
+        if (maxLongitude > MAX_LONGITUDE) {
+            maxLongitude -= 2 * PI;
+        }
+        return new BoundingBox(minLatitude, maxLatitude, minLongitude, maxLongitude);
+    }
+
+    /**
+     *
+     * @return
+     */
+    public boolean crossesAntimeridian() {
+        return minLongitude > maxLongitude;
+    }
+
+    /**
+     *
+     * @param latitude (in radians)
+     * @param longitude (in radians)
+     * @return
+     */
+    public boolean contains(double latitude, double longitude) {
+        if (latitude < minLatitude || latitude > maxLatitude) {
+            return false;
+        }
+        return crossesAntimeridian()
+                ? longitude >= minLongitude || longitude <= maxLongitude
+                : longitude >= minLongitude && longitude <= maxLongitude;
+    }
+
+    /**
+     *
+     * @param minLatitude (in radians)
+     * @param maxLatitude (in radians)
+     * @param minLongitude (in radians)
+     * @param maxLongitude (in radians), not less than {@code minLongitude}
+     * @return whether any location of the given window is within this one
+     */
+    public boolean intersects(double minLatitude, double maxLatitude, double minLongitude, double maxLongitude) {
+        if (maxLatitude < this.minLatitude || minLatitude > this.maxLatitude) {
+            return false;
+        }
+        return crossesAntimeridian()
+                ? maxLongitude >= this.minLongitude || minLongitude <= this.maxLongitude
+                : maxLongitude >= this.minLongitude && minLongitude <= this.maxLongitude;
+    }
+}
@@ -14,4 +14,28 @@ public final class Constants {
      * @see <a href="https://en.wikipedia.org/wiki/Great-circle_distance#Radius_for_spherical_Earth">Radius for spherical Earth</a>
      */
     public static final double MEAN_EARTH_RADIUS = 6_371_000.0; // approx. mean Earth radius in meters
+
+    /**
+     * @see <a href="https://en.wikipedia.org/wiki/World_Geodetic_System#WGS84">WGS84</a>
+     */
+    public static final double WGS84_SEMI_MAJOR_AXIS = 6_378_137.0; // equatorial radius in meters
+
+    /**
+     * @see <a href="https://en.wikipedia.org/wiki/World_Geodetic_System#WGS84">WGS84</a>
+     */
+    public static final double WGS84_FLATTENING = 1 / 298.257223563;
+
+    /**
+     * @see <a href="https://en.wikipedia.org/wiki/World_Geodetic_System#WGS84">WGS84</a>
+     */
+    public static final double WGS84_SEMI_MINOR_AXIS = WGS84_SEMI_MAJOR_AXIS * (1 - WGS84_FLATTENING); // polar radius in meters
+
+    /**
+     * Upper bound of the relative error of a great-circle distance computed on a sphere of radius
+     * {@link #MEAN_EARTH_RADIUS} against the geodesic distance on the WGS84 ellipsoid. The local radius of curvature
+     * of the ellipsoid ranges from b&sup2;/a (about 6,335.44 km, meridional, at the equator) to a&sup2;/b (about
+     * 6,399.59 km, at the poles); the smaller one is the worst case, widened by a safety margin of 10<sup>-4</sup>.
+     */
+    public static final double SPHERICAL_EARTH_MAX_RELATIVE_ERROR =
+            MEAN_EARTH_RADIUS * WGS84_SEMI_MAJOR_AXIS / (WGS84_SEMI_MINOR_AXIS * WGS84_SEMI_MINOR_AXIS) - 1 + 1e-4;
 }
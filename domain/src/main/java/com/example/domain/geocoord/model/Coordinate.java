@@ -1,5 +1,7 @@
 package com.example.domain.geocoord.model;
 
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 import lombok.Value;
 
 import javax.annotation.concurrent.Immutable;
@@ -8,6 +10,8 @@ import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotNull;
 import java.math.BigDecimal;
 
+import static java.lang.StrictMath.PI;
+
 /**
  *
  */
@@ -31,9 +35,40 @@ public class Coordinate {
     @DecimalMin(value = "-180.0", message = "longitude must be between -180.0 and 180.0")
     BigDecimal longitude;
 
+    /**
+     * Latitude converted to radians once at construction time, so that distance computations
+     * never need to unbox the {@link BigDecimal} value ({@code NaN} when the latitude is null).
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    double latitudeInRadians;
+
+    /**
+     * Longitude converted to radians once at construction time, so that distance computations
+     * never need to unbox the {@link BigDecimal} value ({@code NaN} when the longitude is null).
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    double longitudeInRadians;
+
+    /**
+     * Position as a unit vector, computed once at construction time, so that range tests against it need no
+     * trigonometry at all (components are {@code NaN} when the latitude or longitude is null).
+     */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    UnitVector unitVector;
+
     private Coordinate(BigDecimal latitude, BigDecimal longitude) {
         this.latitude = latitude;
         this.longitude = longitude;
+        this.latitudeInRadians = toRadians(latitude);
+        this.longitudeInRadians = toRadians(longitude);
+        this.unitVector = UnitVector.of(latitudeInRadians, longitudeInRadians);
+    }
+
+    private static double toRadians(BigDecimal degrees) {
+        return degrees == null ? Double.NaN : degrees.doubleValue() * PI / 180.0;
     }
 
     /**
@@ -0,0 +1,162 @@
+package com.example.domain.geocoord.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+import static java.lang.StrictMath.PI;
+
+/**
+ * Fixed-point encoding of a {@link Coordinate} into a single {@code long}.
+ * <p>
+ * Latitude and longitude are stored as {@code int} counts of 10<sup>-7</sup> degrees (about 1 cm on the Earth's
+ * surface), which covers [-180, 180] degrees with room to spare. The latitude goes into the upper 32 bits and the
+ * longitude, with its sign bit flipped, into the lower ones, so that comparing packed values as signed longs orders
+ * coordinates by latitude then longitude, and the packed value can be used directly as a sort or hash key.
+ * <p>
+ * Encoding is lossless for coordinates with at most {@value #SCALE} decimal digits and rejects anything else, so
+ * callers {@link #round(BigDecimal) round} more precise input first (as {@code CustomerRecord} does, which makes
+ * customer locations lossy beyond that precision); decoding returns the shortest decimal representation of the
+ * value, i.e. a {@link BigDecimal} which is numerically equal to the encoded one (see {@link BigDecimal#compareTo})
+ * but may differ by trailing zeros.
+ */
+public final class FixedPointCoordinate {
+
+    public static final int SCALE = 7;
+
+    private static final double UNITS_PER_DEGREE = 1e7;
+    private static final long LONGITUDE_SIGN_BIT = 0x8000_0000L;
+
+    private FixedPointCoordinate() {
+        // restrict instantiation
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     *
+     * @param coordinate
+     * @return
+     * @throws IllegalArgumentException if the latitude or longitude is null, out of range or has more than
+     * {@value #SCALE} decimal digits
+     */
+    public static long encode(Coordinate coordinate) {
+        return encode(coordinate.getLatitude(), coordinate.getLongitude());
+    }
+
+    /**
+     *
+     * @param latitude (in degrees)
+     * @param longitude (in degrees)
+     * @return
+     * @throws IllegalArgumentException if the latitude or longitude is null, out of range or has more than
+     * {@value #SCALE} decimal digits
+     */
+    public static long encode(BigDecimal latitude, BigDecimal longitude) {
+        int latitudeUnits = toUnits(latitude, "latitude");
+        int longitudeUnits = toUnits(longitude, "longitude");
+        if (Math.abs(latitudeUnits) > 90 * (int) UNITS_PER_DEGREE) {
+            throw new IllegalArgumentException("latitude must be between -90.0 and 90.0");
+        }
+        if (Math.abs(longitudeUnits) > 180 * (int) UNITS_PER_DEGREE) {
+            throw new IllegalArgumentException("longitude must be between -180.0 and 180.0");
+        }
+        return pack(latitudeUnits, longitudeUnits);
+    }
+
+    /**
+     *
+     * @param latitudeUnits latitude (in 10<sup>-7</sup> degrees)
+     * @param longitudeUnits longitude (in 10<sup>-7</sup> degrees)
+     * @return
+     */
+    public static long pack(int latitudeUnits, int longitudeUnits) {
+        return (long) latitudeUnits << 32 | (longitudeUnits ^ LONGITUDE_SIGN_BIT) & 0xFFFF_FFFFL;
+    }
+
+    /**
+     *
+     * @param packed
+     * @return latitude (in 10<sup>-7</sup> degrees)
+     */
+    public static int latitudeUnits(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    /**
+     *
+     * @param packed
+     * @return longitude (in 10<sup>-7</sup> degrees)
+     */
+    public static int longitudeUnits(long packed) {
+        return (int) (packed ^ LONGITUDE_SIGN_BIT);
+    }
+
+    /**
+     *
+     * @param packed
+     * @return
+     */
+    public static Coordinate decode(long packed) {
+        return Coordinate.of(toDegrees(latitudeUnits(packed)), toDegrees(longitudeUnits(packed)));
+    }
+
+    /**
+     * Same value as {@link Coordinate#getLatitudeInRadians()} of the decoded coordinate, without decoding it.
+     *
+     * @param packed
+     * @return
+     */
+    public static double latitudeInRadians(long packed) {
+        return unitsToRadians(latitudeUnits(packed));
+    }
+
+    /**
+     * Same value as {@link Coordinate#getLongitudeInRadians()} of the decoded coordinate, without decoding it.
+     *
+     * @param packed
+     * @return
+     */
+    public static double longitudeInRadians(long packed) {
+        return unitsToRadians(longitudeUnits(packed));
+    }
+
+    /**
+     *
+     * @param units (in 10<sup>-7</sup> degrees)
+     * @return (in degrees)
+     */
+    public static BigDecimal toDegrees(int units) {
+        BigDecimal degrees = BigDecimal.valueOf(units, SCALE).stripTrailingZeros();
+        return degrees.scale() < 0 ? degrees.setScale(0) : degrees;
+    }
+
+    /**
+     * Lossless for values with trailing zeros beyond {@value #SCALE} decimal digits, such as {@code 53.33942800}.
+     *
+     * @param degrees
+     * @return given value rounded (half up) to {@value #SCALE} decimal digits if it has more, as is otherwise
+     */
+    public static BigDecimal round(BigDecimal degrees) {
+        return degrees == null || degrees.scale() <= SCALE ? degrees : degrees.setScale(SCALE, RoundingMode.HALF_UP);
+    }
+
+    private static int toUnits(BigDecimal degrees, String name) {
+        if (degrees == null) {
+            throw new IllegalArgumentException(name + " must not be null");
+        }
+        try {
+            return degrees.movePointRight(SCALE).intValueExact();
+        } catch (ArithmeticException e) {
+            throw new IllegalArgumentException(name + " must have at most " + SCALE + " decimal digits", e);
+        }
+    }
+
+    /**
+     *
+     * @param units (in 10<sup>-7</sup> degrees)
+     * @return (in radians)
+     */
+    public static double unitsToRadians(int units) {
+        // division by an exact power of ten rounds the same way as BigDecimal#doubleValue
+        return units / UNITS_PER_DEGREE * PI / 180.0;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.domain.geocoord.model;
+
+/**
+ * Hilbert space-filling curve over the latitude/longitude plane.
+ * <p>
+ * Locations with close indexes are close to each other, so sorting locations by index keeps spatially adjacent
+ * locations adjacent in memory and on disk.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Hilbert_curve">Hilbert curve</a>
+ */
+public final class HilbertCurve {
+
+    /**
+     * Order of the curve used by {@link #index(long)}: a grid of 2<sup>16</sup> by 2<sup>16</sup> cells, i.e. cells of
+     * about 300 m (latitude) by 600 m (longitude) at the equator.
+     */
+    public static final int ORDER = 16;
+
+    private HilbertCurve() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     *
+     * @param location location encoded with {@link FixedPointCoordinate}
+     * @return index of the grid cell of the location along the curve, between 0 and 2<sup>32</sup> - 1
+     */
+    public static long index(long location) {
+        long x = (FixedPointCoordinate.longitudeUnits(location) + 1_800_000_000L) * (1L << ORDER) / 3_600_000_001L;
+        long y = (FixedPointCoordinate.latitudeUnits(location) + 900_000_000L) * (1L << ORDER) / 1_800_000_001L;
+        return index(ORDER, x, y);
+    }
+
+    /**
+     *
+     * @param order between 1 and 31
+     * @param x between 0 and 2<sup>order</sup> - 1
+     * @param y between 0 and 2<sup>order</sup> - 1
+     * @return index of the cell (x, y) along the curve of the given order
+     */
+    public static long index(int order, long x, long y) {
+        long n = 1L << order;
+        long index = 0;
+        for (long s = n >>> 1; s > 0; s >>>= 1) {
+            long rx = (x & s) != 0 ? 1 : 0;
+            long ry = (y & s) != 0 ? 1 : 0;
+            index += s * s * ((3 * rx) ^ ry);
+            // rotate the quadrant so that the curve within it has the canonical orientation
+            if (ry == 0) {
+                if (rx == 1) {
+                    x = n - 1 - x;
+                    y = n - 1 - y;
+                }
+                long t = x;
+                x = y;
+                y = t;
+            }
+        }
+        return index;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.domain.geocoord.model;
+
+import lombok.Value;
+
+import javax.annotation.concurrent.Immutable;
+
+import static java.lang.StrictMath.cos;
+import static java.lang.StrictMath.sin;
+
+/**
+ * Position on the unit sphere as a 3D vector in the Earth-centered, Earth-fixed frame (x towards latitude 0 and
+ * longitude 0, z towards the North Pole).
+ * <p>
+ * The dot product of two unit vectors is the cosine of the central angle between them, and their Euclidean (chord)
+ * distance is {@code 2 sin(angle / 2)}; both are monotonic in the great-circle distance, so range tests need no
+ * trigonometry once the vectors are known, and Euclidean spatial structures built over unit vectors are exact on the
+ * sphere.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/N-vector">n-vector</a>
+ */
+@Value
+@Immutable
+public class UnitVector {
+
+    double x;
+    double y;
+    double z;
+
+    /**
+     *
+     * @param latitude (in radians)
+     * @param longitude (in radians)
+     * @return
+     */
+    public static UnitVector of(double latitude, double longitude) {
+        double cosLat = cos(latitude);
+        return new UnitVector(cosLat * cos(longitude), cosLat * sin(longitude), sin(latitude));
+    }
+
+    /**
+     *
+     * @param other
+     * @return cosine of the central angle between both vectors
+     */
+    public double dot(UnitVector other) {
+        return x * other.x + y * other.y + z * other.z;
+    }
+
+    /**
+     *
+     * @param other
+     * @return squared Euclidean distance between both vectors, i.e. {@code 4 sin²(angle / 2)}
+     */
+    public double squaredChordLength(UnitVector other) {
+        return squaredChordLength(other.x, other.y, other.z);
+    }
+
+    /**
+     *
+     * @param x
+     * @param y
+     * @param z
+     * @return squared Euclidean distance between this vector and the given one
+     */
+    public double squaredChordLength(double x, double y, double z) {
+        double dx = this.x - x;
+        double dy = this.y - y;
+        double dz = this.z - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    /**
+     *
+     * @param centralAngle (in radians)
+     * @return chord length on the unit sphere corresponding to the given central angle
+     */
+    public static double chordLength(double centralAngle) {
+        return 2 * sin(Math.min(centralAngle, Math.PI) / 2);
+    }
+}
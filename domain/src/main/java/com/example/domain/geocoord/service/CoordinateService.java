@@ -5,6 +5,7 @@ import com.example.domain.geocoord.model.Coordinate;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.BitSet;
 
 /**
  *
@@ -25,6 +26,17 @@ public interface CoordinateService {
      */
     double centralAngle(@Valid @NotNull Coordinate a, @Valid @NotNull Coordinate b);
 
+    /**
+     * Primitive variant of {@link #centralAngle(Coordinate, Coordinate)}.
+     *
+     * @param latA latitude of the first point (in radians)
+     * @param longA longitude of the first point (in radians)
+     * @param latB latitude of the second point (in radians)
+     * @param longB longitude of the second point (in radians)
+     * @return
+     */
+    double centralAngle(double latA, double longA, double latB, double longB);
+
     /**
      *
      * @param radius
@@ -34,6 +46,18 @@ public interface CoordinateService {
      */
     double arcLength(@PositiveOrZero double radius, @Valid @NotNull Coordinate a, @Valid @NotNull Coordinate b);
 
+    /**
+     * Primitive variant of {@link #arcLength(double, Coordinate, Coordinate)}.
+     *
+     * @param radius
+     * @param latA latitude of the first point (in radians)
+     * @param longA longitude of the first point (in radians)
+     * @param latB latitude of the second point (in radians)
+     * @param longB longitude of the second point (in radians)
+     * @return
+     */
+    double arcLength(@PositiveOrZero double radius, double latA, double longA, double latB, double longB);
+
     /**
      *
      * @param a
@@ -41,4 +65,117 @@ public interface CoordinateService {
      * @return
      */
     double greatCircleDistanceOnEarthBetween(@Valid @NotNull Coordinate a, @Valid @NotNull Coordinate b);
+
+    /**
+     * Primitive variant of {@link #greatCircleDistanceOnEarthBetween(Coordinate, Coordinate)}.
+     *
+     * @param latA latitude of the first point (in radians)
+     * @param longA longitude of the first point (in radians)
+     * @param latB latitude of the second point (in radians)
+     * @param longB longitude of the second point (in radians)
+     * @return
+     */
+    double greatCircleDistanceOnEarthBetween(double latA, double longA, double latB, double longB);
+
+    /**
+     * Distance according to the configured {@link DistanceStrategy}.
+     *
+     * @param a
+     * @param b
+     * @return distance (in meters)
+     */
+    double distanceBetween(@Valid @NotNull Coordinate a, @Valid @NotNull Coordinate b);
+
+    /**
+     * Prepares a range query around the given target location which can then be evaluated against any number of
+     * candidate locations without recomputing what only depends on the target and the radius.
+     *
+     * @param target
+     * @param radius radius of the query (in meters)
+     * @return
+     */
+    PreparedRangeQuery prepareRangeQuery(@Valid @NotNull Coordinate target, @PositiveOrZero double radius);
+
+    /**
+     * Same as {@link #prepareRangeQuery(Coordinate, double)}, but using the given {@link DistanceStrategy} instead of
+     * the configured one.
+     *
+     * @param target
+     * @param radius radius of the query (in meters)
+     * @param distanceStrategy
+     * @return
+     */
+    PreparedRangeQuery prepareRangeQuery(@Valid @NotNull Coordinate target, @PositiveOrZero double radius,
+                                         @NotNull DistanceStrategy distanceStrategy);
+
+    /**
+     * Batch variant of {@link #distanceBetween(Coordinate, Coordinate)}, computing the distance from the target to
+     * every location given as primitive columns in a single call.
+     *
+     * @param target
+     * @param latitudes latitudes of the locations (in radians)
+     * @param longitudes longitudes of the locations (in radians), same length as {@code latitudes}
+     * @param distances receives the distances (in meters), at least as long as {@code latitudes}
+     */
+    void distancesFrom(@Valid @NotNull Coordinate target,
+                       @NotNull double[] latitudes, @NotNull double[] longitudes, @NotNull double[] distances);
+
+    /**
+     * Batch variant of {@link #prepareRangeQuery(Coordinate, double)}, setting bit {@code i} of the result for every
+     * location {@code i} given as primitive columns which lies within range of the target.
+     *
+     * @param target
+     * @param radius radius of the query (in meters)
+     * @param latitudes latitudes of the locations (in radians)
+     * @param longitudes longitudes of the locations (in radians), same length as {@code latitudes}
+     * @param result
+     */
+    void withinRange(@Valid @NotNull Coordinate target, @PositiveOrZero double radius,
+                     @NotNull double[] latitudes, @NotNull double[] longitudes, @NotNull BitSet result);
+
+    /**
+     * Batch variant of {@link PreparedRangeQuery#contains(double, double)}, setting bit {@code i} of the result for
+     * every location {@code i} of the given range of the columns which the query contains. Stores scan the queries
+     * which are no {@link PreparedRangeQuery#isUnitVectorThreshold() threshold on unit vectors} with this.
+     *
+     * @param query
+     * @param latitudes latitudes of the locations (in radians)
+     * @param longitudes longitudes of the locations (in radians), same length as {@code latitudes}
+     * @param from first location to test
+     * @param to location after the last one to test
+     * @param result
+     */
+    void withinRange(@NotNull PreparedRangeQuery query,
+                     @NotNull double[] latitudes, @NotNull double[] longitudes, int from, int to,
+                     @NotNull BitSet result);
+
+    /**
+     * Batch variant of {@link PreparedRangeQuery#contains(double, double, double)}, setting bit {@code i} of the
+     * result for every location {@code i} given as unit vector columns which the query contains. Threshold tests
+     * run on the {@link RangeFilterKernel} of the service, which may be vectorized.
+     *
+     * @param query
+     * @param xs x components of the unit vectors of the locations
+     * @param ys y components, same length as {@code xs}
+     * @param zs z components, same length as {@code xs}
+     * @param result
+     */
+    void withinRange(@NotNull PreparedRangeQuery query,
+                     @NotNull double[] xs, @NotNull double[] ys, @NotNull double[] zs, @NotNull BitSet result);
+
+    /**
+     * Same as {@link #withinRange(PreparedRangeQuery, double[], double[], double[], BitSet)}, for the locations
+     * {@code i} of the given range of the columns only, so that stores can reuse the columns of a block.
+     *
+     * @param query
+     * @param xs x components of the unit vectors of the locations
+     * @param ys y components, same length as {@code xs}
+     * @param zs z components, same length as {@code xs}
+     * @param from first location to test
+     * @param to location after the last one to test
+     * @param result
+     */
+    void withinRange(@NotNull PreparedRangeQuery query,
+                     @NotNull double[] xs, @NotNull double[] ys, @NotNull double[] zs, int from, int to,
+                     @NotNull BitSet result);
 }
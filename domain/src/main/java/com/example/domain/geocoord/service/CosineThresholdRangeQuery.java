@@ -0,0 +1,117 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.UnitVector;
+import lombok.ToString;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static java.lang.StrictMath.PI;
+import static java.lang.StrictMath.cos;
+import static java.lang.StrictMath.sin;
+
+/**
+ * Spherical law of cosines range query.
+ * <p>
+ * Since {@code acos} is monotonically decreasing on {@code [-1, 1]}, testing {@code acos(x) * R <= radius} is the
+ * same as testing {@code x >= cos(radius / R)}. The threshold is computed once, together with the sine and cosine
+ * of the target latitude, so that no {@code acos} call is needed per candidate. For candidates whose
+ * {@link UnitVector unit vector} is known, {@code x} is simply the dot product with the target's one, and the test
+ * needs no trigonometry at all.
+ * <p>
+ * Otherwise {@code x} is computed with the {@link MathMode} of the distance strategy, and re-computed with
+ * {@link MathMode#STRICT} when it is too close to the threshold for the mode's error bound to decide.
+ */
+@Immutable
+@ToString(of = {"target", "radius"})
+class CosineThresholdRangeQuery implements PreparedRangeQuery {
+
+    private final DistanceStrategy distanceStrategy;
+    private final Coordinate target;
+    private final double radius;
+
+    private final MathMode math;
+    private final double boundaryBand;
+
+    private final double targetLong;
+    private final double sinTargetLat;
+    private final double cosTargetLat;
+    private final double cosThreshold;
+    private final UnitVector targetVector;
+
+    /**
+     *
+     * @param distanceStrategy
+     * @param target
+     * @param radius radius of the query (in meters)
+     */
+    CosineThresholdRangeQuery(DistanceStrategy distanceStrategy, Coordinate target, double radius) {
+        this.distanceStrategy = distanceStrategy;
+        this.target = target;
+        this.radius = radius;
+        this.math = distanceStrategy.getMathMode();
+        this.boundaryBand = math.boundaryBand();
+
+        double targetLat = target.getLatitudeInRadians();
+        this.targetLong = target.getLongitudeInRadians();
+        this.sinTargetLat = sin(targetLat);
+        this.cosTargetLat = cos(targetLat);
+        this.targetVector = target.getUnitVector();
+
+        double maxCentralAngle = radius / MEAN_EARTH_RADIUS;
+        this.cosThreshold = maxCentralAngle >= PI ? Double.NEGATIVE_INFINITY : cos(maxCentralAngle);
+    }
+
+    @Override
+    public Coordinate getTarget() {
+        return target;
+    }
+
+    @Override
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public DistanceStrategy getDistanceStrategy() {
+        return distanceStrategy;
+    }
+
+    @Override
+    public boolean contains(double latitude, double longitude) {
+        double cosCentralAngle = cosCentralAngle(math, latitude, longitude);
+        if (Math.abs(cosCentralAngle - cosThreshold) <= boundaryBand) {
+            cosCentralAngle = cosCentralAngle(MathMode.STRICT, latitude, longitude);
+        }
+        return cosCentralAngle >= cosThreshold;
+    }
+
+    private double cosCentralAngle(MathMode mode, double latitude, double longitude) {
+        return mode.sin(latitude) * sinTargetLat
+                + mode.cos(latitude) * cosTargetLat * mode.cos(longitude - targetLong);
+    }
+
+    @Override
+    public boolean contains(Coordinate location) {
+        return contains(location.getUnitVector());
+    }
+
+    @Override
+    public boolean contains(double x, double y, double z) {
+        return x * targetVector.getX() + y * targetVector.getY() + z * targetVector.getZ() >= cosThreshold;
+    }
+
+    @Override
+    public boolean isUnitVectorThreshold() {
+        return true;
+    }
+
+    @Override
+    public void filter(RangeFilterKernel kernel,
+                       double[] xs, double[] ys, double[] zs, int from, int to, BitSet result) {
+        kernel.filterByDotProduct(targetVector.getX(), targetVector.getY(), targetVector.getZ(), cosThreshold,
+                xs, ys, zs, from, to, result);
+    }
+}
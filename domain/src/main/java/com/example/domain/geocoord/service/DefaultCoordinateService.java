@@ -4,17 +4,16 @@ import com.example.domain.geocoord.model.Coordinate;
 import lombok.extern.log4j.Log4j2;
 
 import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Inject;
 import javax.inject.Singleton;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.BitSet;
 
 import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
 import static java.lang.StrictMath.PI;
 import static java.lang.StrictMath.abs;
-import static java.lang.StrictMath.acos;
-import static java.lang.StrictMath.cos;
-import static java.lang.StrictMath.sin;
 
 /**
  *
@@ -24,6 +23,38 @@ import static java.lang.StrictMath.sin;
 @Singleton
 public class DefaultCoordinateService implements CoordinateService {
 
+    private final DistanceStrategy distanceStrategy;
+    private final MathMode math;
+    private final RangeFilterKernel rangeFilterKernel;
+
+    /**
+     *
+     */
+    public DefaultCoordinateService() {
+        this(new LawOfCosinesDistanceStrategy());
+    }
+
+    /**
+     *
+     * @param distanceStrategy
+     */
+    public DefaultCoordinateService(DistanceStrategy distanceStrategy) {
+        this(distanceStrategy, RangeFilterKernels.fromSystemProperty());
+    }
+
+    /**
+     *
+     * @param distanceStrategy
+     * @param rangeFilterKernel
+     */
+    @Inject
+    public DefaultCoordinateService(DistanceStrategy distanceStrategy, RangeFilterKernel rangeFilterKernel) {
+        this.distanceStrategy = distanceStrategy;
+        this.math = distanceStrategy.getMathMode();
+        this.rangeFilterKernel = rangeFilterKernel;
+        log.debug("Using {} range filter kernel", rangeFilterKernel);
+    }
+
     /**
      *
      * @param degrees
@@ -42,15 +73,24 @@ public class DefaultCoordinateService implements CoordinateService {
      */
     @Override
     public double centralAngle(@Valid @NotNull Coordinate a, @Valid @NotNull Coordinate b) {
-        double latA = degreesToRadians(a.getLatitude().doubleValue());
-        double longA = degreesToRadians(a.getLongitude().doubleValue());
-
-        double latB = degreesToRadians(b.getLatitude().doubleValue());
-        double longB = degreesToRadians(b.getLongitude().doubleValue());
+        return centralAngle(
+                a.getLatitudeInRadians(), a.getLongitudeInRadians(),
+                b.getLatitudeInRadians(), b.getLongitudeInRadians());
+    }
 
+    /**
+     *
+     * @param latA
+     * @param longA
+     * @param latB
+     * @param longB
+     * @return
+     */
+    @Override
+    public double centralAngle(double latA, double longA, double latB, double longB) {
         double deltaLong = abs(longA - longB);
 
-        return acos(sin(latA) * sin(latB) + cos(latA) * cos(latB) * cos(deltaLong));
+        return math.acos(math.sin(latA) * math.sin(latB) + math.cos(latA) * math.cos(latB) * math.cos(deltaLong));
     }
 
     /**
@@ -66,6 +106,21 @@ public class DefaultCoordinateService implements CoordinateService {
         return radius * centralAngle(a, b);
     }
 
+    /**
+     *
+     * @param radius
+     * @param latA
+     * @param longA
+     * @param latB
+     * @param longB
+     * @return
+     * @see <a href="https://en.wikipedia.org/wiki/Great-circle_distance">Great-circle distance</a>
+     */
+    @Override
+    public double arcLength(@PositiveOrZero double radius, double latA, double longA, double latB, double longB) {
+        return radius * centralAngle(latA, longA, latB, longB);
+    }
+
     /**
      *
      * @param a
@@ -77,4 +132,156 @@ public class DefaultCoordinateService implements CoordinateService {
     public double greatCircleDistanceOnEarthBetween(@Valid @NotNull Coordinate a, @Valid @NotNull Coordinate b) {
         return arcLength(MEAN_EARTH_RADIUS, a, b);
     }
+
+    /**
+     *
+     * @param latA
+     * @param longA
+     * @param latB
+     * @param longB
+     * @return
+     * @see <a href="https://en.wikipedia.org/wiki/Great-circle_distance">Great-circle distance</a>
+     */
+    @Override
+    public double greatCircleDistanceOnEarthBetween(double latA, double longA, double latB, double longB) {
+        return arcLength(MEAN_EARTH_RADIUS, latA, longA, latB, longB);
+    }
+
+    /**
+     *
+     * @param a
+     * @param b
+     * @return
+     */
+    @Override
+    public double distanceBetween(@Valid @NotNull Coordinate a, @Valid @NotNull Coordinate b) {
+        return distanceStrategy.distance(
+                a.getLatitudeInRadians(), a.getLongitudeInRadians(),
+                b.getLatitudeInRadians(), b.getLongitudeInRadians());
+    }
+
+    /**
+     *
+     * @param target
+     * @param radius
+     * @return
+     */
+    @Override
+    public PreparedRangeQuery prepareRangeQuery(@Valid @NotNull Coordinate target, @PositiveOrZero double radius) {
+        return prepareRangeQuery(target, radius, distanceStrategy);
+    }
+
+    /**
+     *
+     * @param target
+     * @param radius
+     * @param distanceStrategy
+     * @return
+     */
+    @Override
+    public PreparedRangeQuery prepareRangeQuery(@Valid @NotNull Coordinate target, @PositiveOrZero double radius,
+                                                @NotNull DistanceStrategy distanceStrategy) {
+        return distanceStrategy.prepareRangeQuery(target, radius);
+    }
+
+    /**
+     *
+     * @param target
+     * @param latitudes
+     * @param longitudes
+     * @param distances
+     */
+    @Override
+    public void distancesFrom(@Valid @NotNull Coordinate target,
+                              @NotNull double[] latitudes, @NotNull double[] longitudes, @NotNull double[] distances) {
+        checkColumns(latitudes, longitudes);
+        if (distances.length < latitudes.length) {
+            throw new IllegalArgumentException("distances must be at least as long as latitudes and longitudes");
+        }
+
+        double targetLat = target.getLatitudeInRadians();
+        double targetLong = target.getLongitudeInRadians();
+        for (int i = 0; i < latitudes.length; i++) {
+            distances[i] = distanceStrategy.distance(targetLat, targetLong, latitudes[i], longitudes[i]);
+        }
+    }
+
+    /**
+     *
+     * @param target
+     * @param radius
+     * @param latitudes
+     * @param longitudes
+     * @param result
+     */
+    @Override
+    public void withinRange(@Valid @NotNull Coordinate target, @PositiveOrZero double radius,
+                            @NotNull double[] latitudes, @NotNull double[] longitudes, @NotNull BitSet result) {
+        withinRange(prepareRangeQuery(target, radius), latitudes, longitudes, 0, latitudes.length, result);
+    }
+
+    /**
+     *
+     * @param query
+     * @param latitudes
+     * @param longitudes
+     * @param from
+     * @param to
+     * @param result
+     */
+    @Override
+    public void withinRange(@NotNull PreparedRangeQuery query,
+                            @NotNull double[] latitudes, @NotNull double[] longitudes, int from, int to,
+                            @NotNull BitSet result) {
+        checkColumns(latitudes, longitudes);
+        checkRange(from, to, latitudes.length);
+        query.filter(latitudes, longitudes, from, to, result);
+    }
+
+    /**
+     *
+     * @param query
+     * @param xs
+     * @param ys
+     * @param zs
+     * @param result
+     */
+    @Override
+    public void withinRange(@NotNull PreparedRangeQuery query,
+                            @NotNull double[] xs, @NotNull double[] ys, @NotNull double[] zs, @NotNull BitSet result) {
+        withinRange(query, xs, ys, zs, 0, xs.length, result);
+    }
+
+    /**
+     *
+     * @param query
+     * @param xs
+     * @param ys
+     * @param zs
+     * @param from
+     * @param to
+     * @param result
+     */
+    @Override
+    public void withinRange(@NotNull PreparedRangeQuery query,
+                            @NotNull double[] xs, @NotNull double[] ys, @NotNull double[] zs, int from, int to,
+                            @NotNull BitSet result) {
+        if (xs.length != ys.length || xs.length != zs.length) {
+            throw new IllegalArgumentException("xs, ys and zs must have the same length");
+        }
+        checkRange(from, to, xs.length);
+        query.filter(rangeFilterKernel, xs, ys, zs, from, to, result);
+    }
+
+    private static void checkColumns(double[] latitudes, double[] longitudes) {
+        if (latitudes.length != longitudes.length) {
+            throw new IllegalArgumentException("latitudes and longitudes must have the same length");
+        }
+    }
+
+    private static void checkRange(int from, int to, int length) {
+        if (from < 0 || from > to || to > length) {
+            throw new IndexOutOfBoundsException("range [" + from + ", " + to + ") out of [0, " + length + ")");
+        }
+    }
 }
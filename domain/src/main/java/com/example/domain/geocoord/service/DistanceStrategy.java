@@ -0,0 +1,65 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+
+/**
+ * A formula for the distance between two points on Earth.
+ * <p>
+ * Implementations differ in speed and accuracy, and declare both so that callers can pick the cheapest one which is
+ * accurate enough for the radius they work with: {@link #getRelativeCost()} compares the cost of one evaluation with
+ * the spherical law of cosines, and {@link #maxError(double)} bounds the error against the geodesic distance on the
+ * WGS84 ellipsoid.
+ */
+public interface DistanceStrategy {
+    /**
+     *
+     * @return name under which the strategy can be selected (e.g. from the command line)
+     */
+    String getName();
+
+    /**
+     *
+     * @param latA latitude of the first point (in radians)
+     * @param longA longitude of the first point (in radians)
+     * @param latB latitude of the second point (in radians)
+     * @param longB longitude of the second point (in radians)
+     * @return distance (in meters)
+     */
+    double distance(double latA, double longA, double latB, double longB);
+
+    /**
+     *
+     * @return approximate cost of one {@link #distance} evaluation, relative to the spherical law of cosines
+     */
+    double getRelativeCost();
+
+    /**
+     *
+     * @param distance distance (in meters) as computed by this strategy
+     * @return upper bound (in meters) of the absolute error of that distance against the WGS84 geodesic distance
+     */
+    double maxError(double distance);
+
+    /**
+     *
+     * @return implementation of the trigonometric functions used by {@link #distance}
+     */
+    MathMode getMathMode();
+
+    /**
+     *
+     * @param math
+     * @return the same formula, computed with the given implementation of the trigonometric functions
+     */
+    DistanceStrategy withMathMode(MathMode math);
+
+    /**
+     *
+     * @param target
+     * @param radius radius of the query (in meters)
+     * @return
+     */
+    default PreparedRangeQuery prepareRangeQuery(Coordinate target, double radius) {
+        return new DistanceThresholdRangeQuery(this, target, radius);
+    }
+}
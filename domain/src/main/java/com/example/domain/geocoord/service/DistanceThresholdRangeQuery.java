@@ -0,0 +1,68 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+import lombok.ToString;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Range query which evaluates the full distance formula of a {@link DistanceStrategy} for every candidate; used by
+ * strategies which have no cheaper equivalent test.
+ * <p>
+ * Distances within the {@link MathMode#maxDistanceError() error bound} of the strategy's math mode from the radius
+ * are re-computed with {@link MathMode#STRICT}.
+ */
+@Immutable
+@ToString(of = {"target", "radius"})
+class DistanceThresholdRangeQuery implements PreparedRangeQuery {
+
+    private final DistanceStrategy distanceStrategy;
+    private final Coordinate target;
+    private final double radius;
+
+    private final DistanceStrategy strictDistanceStrategy;
+    private final double boundaryBand;
+
+    private final double targetLat;
+    private final double targetLong;
+
+    /**
+     *
+     * @param distanceStrategy
+     * @param target
+     * @param radius radius of the query (in meters)
+     */
+    DistanceThresholdRangeQuery(DistanceStrategy distanceStrategy, Coordinate target, double radius) {
+        this.distanceStrategy = distanceStrategy;
+        this.target = target;
+        this.radius = radius;
+        this.strictDistanceStrategy = distanceStrategy.withMathMode(MathMode.STRICT);
+        this.boundaryBand = distanceStrategy.getMathMode().maxDistanceError();
+        this.targetLat = target.getLatitudeInRadians();
+        this.targetLong = target.getLongitudeInRadians();
+    }
+
+    @Override
+    public Coordinate getTarget() {
+        return target;
+    }
+
+    @Override
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public DistanceStrategy getDistanceStrategy() {
+        return distanceStrategy;
+    }
+
+    @Override
+    public boolean contains(double latitude, double longitude) {
+        double distance = distanceStrategy.distance(targetLat, targetLong, latitude, longitude);
+        if (Math.abs(distance - radius) <= boundaryBand) {
+            distance = strictDistanceStrategy.distance(targetLat, targetLong, latitude, longitude);
+        }
+        return distance <= radius;
+    }
+}
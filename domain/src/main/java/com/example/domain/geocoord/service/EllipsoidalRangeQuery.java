@@ -0,0 +1,120 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.UnitVector;
+import lombok.ToString;
+
+import javax.annotation.concurrent.Immutable;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static com.example.domain.geocoord.model.Constants.SPHERICAL_EARTH_MAX_RELATIVE_ERROR;
+import static java.lang.StrictMath.atan2;
+import static java.lang.StrictMath.sqrt;
+
+/**
+ * Two-phase range query on the ellipsoid.
+ * <p>
+ * The great-circle distance {@code s} on the mean sphere is within {@code ε = }
+ * {@link com.example.domain.geocoord.model.Constants#SPHERICAL_EARTH_MAX_RELATIVE_ERROR} of the geodesic distance
+ * {@code g}, i.e. {@code s / (1 + ε) <= g <= s / (1 - ε)}. Candidates with {@code s <= r (1 - ε)} are therefore
+ * definitely in range, and candidates with {@code s > r (1 + ε)} definitely out of range (both widened by the
+ * {@link DistanceStrategy#maxError(double) error bound} of the strategy, which grows with {@code r}); both tests are
+ * {@link UnitVector#squaredChordLength chord length} thresholds which need no trigonometry. Only the candidates in
+ * between (about 1% of the disc) are evaluated with the geodesic distance of the strategy, re-computed with
+ * {@link MathMode#STRICT} when the strategy's math mode cannot decide.
+ */
+@Immutable
+@ToString(of = {"target", "radius"})
+class EllipsoidalRangeQuery implements PreparedRangeQuery {
+
+    private static final double MARGIN = 1.0; // in meters, on top of the error bound of the geodesic solver
+
+    private final DistanceStrategy distanceStrategy;
+    private final Coordinate target;
+    private final double radius;
+
+    private final DistanceStrategy strictDistanceStrategy;
+    private final double boundaryBand;
+
+    private final double targetLat;
+    private final double targetLong;
+    private final UnitVector targetVector;
+    private final double minSquaredChordOut;
+    private final double maxSquaredChordIn;
+
+    /**
+     *
+     * @param distanceStrategy
+     * @param target
+     * @param radius radius of the query (in meters)
+     */
+    EllipsoidalRangeQuery(DistanceStrategy distanceStrategy, Coordinate target, double radius) {
+        this.distanceStrategy = distanceStrategy;
+        this.target = target;
+        this.radius = radius;
+        this.strictDistanceStrategy = distanceStrategy.withMathMode(MathMode.STRICT);
+        this.boundaryBand = distanceStrategy.getMathMode().maxDistanceError();
+
+        this.targetLat = target.getLatitudeInRadians();
+        this.targetLong = target.getLongitudeInRadians();
+        this.targetVector = target.getUnitVector();
+
+        double margin = MARGIN + distanceStrategy.maxError(radius);
+        this.maxSquaredChordIn = squaredChord(radius * (1 - SPHERICAL_EARTH_MAX_RELATIVE_ERROR) - margin);
+        this.minSquaredChordOut = squaredChord(radius * (1 + SPHERICAL_EARTH_MAX_RELATIVE_ERROR) + margin);
+    }
+
+    private static double squaredChord(double distance) {
+        if (distance < 0) {
+            return -1.0; // no candidate is definitely in range
+        }
+        double chord = UnitVector.chordLength(distance / MEAN_EARTH_RADIUS);
+        return chord * chord;
+    }
+
+    @Override
+    public Coordinate getTarget() {
+        return target;
+    }
+
+    @Override
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public DistanceStrategy getDistanceStrategy() {
+        return distanceStrategy;
+    }
+
+    @Override
+    public boolean contains(double latitude, double longitude) {
+        UnitVector location = UnitVector.of(latitude, longitude);
+        double squaredChord = targetVector.squaredChordLength(location);
+        return squaredChord <= maxSquaredChordIn
+                || squaredChord <= minSquaredChordOut && isWithinGeodesicRange(latitude, longitude);
+    }
+
+    @Override
+    public boolean contains(Coordinate location) {
+        double squaredChord = targetVector.squaredChordLength(location.getUnitVector());
+        return squaredChord <= maxSquaredChordIn
+                || squaredChord <= minSquaredChordOut
+                && isWithinGeodesicRange(location.getLatitudeInRadians(), location.getLongitudeInRadians());
+    }
+
+    @Override
+    public boolean contains(double x, double y, double z) {
+        double squaredChord = targetVector.squaredChordLength(x, y, z);
+        return squaredChord <= maxSquaredChordIn
+                || squaredChord <= minSquaredChordOut && isWithinGeodesicRange(atan2(z, sqrt(x * x + y * y)), atan2(y, x));
+    }
+
+    private boolean isWithinGeodesicRange(double latitude, double longitude) {
+        double distance = distanceStrategy.distance(targetLat, targetLong, latitude, longitude);
+        if (Math.abs(distance - radius) <= boundaryBand) {
+            distance = strictDistanceStrategy.distance(targetLat, targetLong, latitude, longitude);
+        }
+        return distance <= radius;
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.domain.geocoord.service;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Singleton;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static java.lang.StrictMath.IEEEremainder;
+import static java.lang.StrictMath.PI;
+import static java.lang.StrictMath.abs;
+import static java.lang.StrictMath.cos;
+import static java.lang.StrictMath.sqrt;
+
+/**
+ * Equirectangular approximation.
+ * <p>
+ * Projects both points onto a plane tangent at their mean latitude and takes the Euclidean distance, which costs a
+ * single {@code cos} and {@code sqrt}. The relative error of the approximation grows with the square of the distance
+ * and with the latitude ({@code angle² / (8 cos² latitude)}), so it is only used for distances of up to
+ * {@value #MAX_CENTRAL_ANGLE} radians (about 320 km) between points no further than 70 degrees from the equator;
+ * anything else falls back to the {@link HaversineDistanceStrategy haversine formula}.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Equirectangular_projection">Equirectangular projection</a>
+ */
+@ThreadSafe
+@Singleton
+public class EquirectangularDistanceStrategy implements DistanceStrategy {
+
+    public static final String NAME = "equirectangular";
+
+    static final double MAX_CENTRAL_ANGLE = 0.05; // in radians
+    static final double MAX_LATITUDE = 70.0 * PI / 180.0; // in radians
+
+    private static final double MAX_APPROXIMATION_ERROR_FACTOR = 1 / (8 * cos(MAX_LATITUDE) * cos(MAX_LATITUDE));
+
+    private final MathMode math;
+    private final HaversineDistanceStrategy fallback;
+
+    /**
+     * Computes distances with {@link MathMode#STRICT}.
+     */
+    public EquirectangularDistanceStrategy() {
+        this(MathMode.STRICT);
+    }
+
+    /**
+     *
+     * @param math
+     */
+    public EquirectangularDistanceStrategy(MathMode math) {
+        this.math = math;
+        this.fallback = new HaversineDistanceStrategy(math);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(double latA, double longA, double latB, double longB) {
+        double x = IEEEremainder(longB - longA, 2 * PI) * math.cos((latA + latB) / 2);
+        double y = latB - latA;
+        double centralAngle = sqrt(x * x + y * y);
+
+        if (centralAngle > MAX_CENTRAL_ANGLE || abs(latA) > MAX_LATITUDE || abs(latB) > MAX_LATITUDE) {
+            return fallback.distance(latA, longA, latB, longB);
+        }
+        return MEAN_EARTH_RADIUS * centralAngle;
+    }
+
+    @Override
+    public double getRelativeCost() {
+        return 0.3;
+    }
+
+    @Override
+    public double maxError(double distance) {
+        double centralAngle = distance / MEAN_EARTH_RADIUS;
+        double approximationError = centralAngle > MAX_CENTRAL_ANGLE
+                ? 0.0
+                : distance * centralAngle * centralAngle * MAX_APPROXIMATION_ERROR_FACTOR;
+        return fallback.maxError(distance) + approximationError;
+    }
+
+    @Override
+    public MathMode getMathMode() {
+        return math;
+    }
+
+    @Override
+    public DistanceStrategy withMathMode(MathMode math) {
+        return math == this.math ? this : new EquirectangularDistanceStrategy(math);
+    }
+
+    @Override
+    public String toString() {
+        return math == MathMode.STRICT ? NAME : NAME + " (" + math.getName() + ")";
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Singleton;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static com.example.domain.geocoord.model.Constants.SPHERICAL_EARTH_MAX_RELATIVE_ERROR;
+import static java.lang.StrictMath.min;
+import static java.lang.StrictMath.sqrt;
+
+/**
+ * Haversine formula.
+ * <p>
+ * About as expensive as the law of cosines but well-conditioned for short distances, which makes it the better
+ * choice for small radii.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Haversine_formula">Haversine formula</a>
+ */
+@ThreadSafe
+@Singleton
+public class HaversineDistanceStrategy implements DistanceStrategy {
+
+    public static final String NAME = "haversine";
+
+    private static final double MAX_ROUNDING_ERROR = 0.1; // in meters (only reached for nearly antipodal points)
+
+    private final MathMode math;
+
+    /**
+     * Computes distances with {@link MathMode#STRICT}.
+     */
+    public HaversineDistanceStrategy() {
+        this(MathMode.STRICT);
+    }
+
+    /**
+     *
+     * @param math
+     */
+    public HaversineDistanceStrategy(MathMode math) {
+        this.math = math;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(double latA, double longA, double latB, double longB) {
+        return 2 * MEAN_EARTH_RADIUS * math.asin(min(1.0, sqrt(haversine(math, latA, longA, latB, longB))));
+    }
+
+    @Override
+    public double getRelativeCost() {
+        return 1.1;
+    }
+
+    @Override
+    public double maxError(double distance) {
+        return SPHERICAL_EARTH_MAX_RELATIVE_ERROR * distance + MAX_ROUNDING_ERROR + math.maxDistanceError();
+    }
+
+    @Override
+    public MathMode getMathMode() {
+        return math;
+    }
+
+    @Override
+    public DistanceStrategy withMathMode(MathMode math) {
+        return math == this.math ? this : new HaversineDistanceStrategy(math);
+    }
+
+    @Override
+    public PreparedRangeQuery prepareRangeQuery(Coordinate target, double radius) {
+        return new HaversineRangeQuery(this, target, radius);
+    }
+
+    @Override
+    public String toString() {
+        return math == MathMode.STRICT ? NAME : NAME + " (" + math.getName() + ")";
+    }
+
+    /**
+     *
+     * @return the haversine of the central angle between both points, i.e. {@code sin²(angle / 2)}
+     */
+    static double haversine(MathMode math, double latA, double longA, double latB, double longB) {
+        double sinHalfDeltaLat = math.sin((latB - latA) / 2);
+        double sinHalfDeltaLong = math.sin((longB - longA) / 2);
+        return sinHalfDeltaLat * sinHalfDeltaLat
+                + math.cos(latA) * math.cos(latB) * sinHalfDeltaLong * sinHalfDeltaLong;
+    }
+}
@@ -0,0 +1,122 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.UnitVector;
+import lombok.ToString;
+
+import javax.annotation.concurrent.Immutable;
+import java.util.BitSet;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static java.lang.StrictMath.PI;
+import static java.lang.StrictMath.cos;
+import static java.lang.StrictMath.sin;
+
+/**
+ * Haversine range query.
+ * <p>
+ * The radius is converted once into a threshold on the haversine of the central angle (i.e. on the squared chord
+ * length between both points, up to a constant factor), so that no {@code asin} or {@code sqrt} call is needed per
+ * candidate. For candidates whose {@link UnitVector unit vector} is known, the squared chord length to the target
+ * is compared directly, which needs no trigonometry and stays well-conditioned for short distances.
+ * <p>
+ * Otherwise the haversine is computed with the {@link MathMode} of the distance strategy, and re-computed with
+ * {@link MathMode#STRICT} when it is too close to the threshold for the mode's error bound to decide.
+ */
+@Immutable
+@ToString(of = {"target", "radius"})
+class HaversineRangeQuery implements PreparedRangeQuery {
+
+    private final DistanceStrategy distanceStrategy;
+    private final Coordinate target;
+    private final double radius;
+
+    private final MathMode math;
+    private final double boundaryBand;
+
+    private final double targetLat;
+    private final double targetLong;
+    private final double cosTargetLat;
+    private final double haversineThreshold;
+    private final double squaredChordThreshold;
+    private final UnitVector targetVector;
+
+    /**
+     *
+     * @param distanceStrategy
+     * @param target
+     * @param radius radius of the query (in meters)
+     */
+    HaversineRangeQuery(DistanceStrategy distanceStrategy, Coordinate target, double radius) {
+        this.distanceStrategy = distanceStrategy;
+        this.target = target;
+        this.radius = radius;
+        this.math = distanceStrategy.getMathMode();
+        this.boundaryBand = math.boundaryBand();
+
+        this.targetLat = target.getLatitudeInRadians();
+        this.targetLong = target.getLongitudeInRadians();
+        this.cosTargetLat = cos(targetLat);
+
+        double maxCentralAngle = radius / MEAN_EARTH_RADIUS;
+        double sinHalfMaxCentralAngle = sin(maxCentralAngle / 2);
+        this.haversineThreshold = maxCentralAngle >= PI
+                ? Double.POSITIVE_INFINITY
+                : sinHalfMaxCentralAngle * sinHalfMaxCentralAngle;
+        this.squaredChordThreshold = 4 * haversineThreshold;
+        this.targetVector = target.getUnitVector();
+    }
+
+    @Override
+    public Coordinate getTarget() {
+        return target;
+    }
+
+    @Override
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public DistanceStrategy getDistanceStrategy() {
+        return distanceStrategy;
+    }
+
+    @Override
+    public boolean contains(double latitude, double longitude) {
+        double haversine = haversine(math, latitude, longitude);
+        if (Math.abs(haversine - haversineThreshold) <= boundaryBand) {
+            haversine = haversine(MathMode.STRICT, latitude, longitude);
+        }
+        return haversine <= haversineThreshold;
+    }
+
+    private double haversine(MathMode mode, double latitude, double longitude) {
+        double sinHalfDeltaLat = mode.sin((latitude - targetLat) / 2);
+        double sinHalfDeltaLong = mode.sin((longitude - targetLong) / 2);
+        return sinHalfDeltaLat * sinHalfDeltaLat
+                + cosTargetLat * mode.cos(latitude) * sinHalfDeltaLong * sinHalfDeltaLong;
+    }
+
+    @Override
+    public boolean contains(Coordinate location) {
+        return contains(location.getUnitVector());
+    }
+
+    @Override
+    public boolean contains(double x, double y, double z) {
+        return targetVector.squaredChordLength(x, y, z) <= squaredChordThreshold;
+    }
+
+    @Override
+    public boolean isUnitVectorThreshold() {
+        return true;
+    }
+
+    @Override
+    public void filter(RangeFilterKernel kernel,
+                       double[] xs, double[] ys, double[] zs, int from, int to, BitSet result) {
+        kernel.filterBySquaredChordLength(targetVector.getX(), targetVector.getY(), targetVector.getZ(),
+                squaredChordThreshold, xs, ys, zs, from, to, result);
+    }
+}
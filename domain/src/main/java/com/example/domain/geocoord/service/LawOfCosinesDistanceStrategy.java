@@ -0,0 +1,84 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Singleton;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static com.example.domain.geocoord.model.Constants.SPHERICAL_EARTH_MAX_RELATIVE_ERROR;
+
+/**
+ * Spherical law of cosines.
+ * <p>
+ * Cheap and exact for long distances, but ill-conditioned for very short ones: {@code acos} of a value close to 1
+ * loses about half of the significant digits, i.e. results are only accurate to a few decimeters.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Great-circle_distance#Formulae">Great-circle distance</a>
+ */
+@ThreadSafe
+@Singleton
+public class LawOfCosinesDistanceStrategy implements DistanceStrategy {
+
+    public static final String NAME = "law-of-cosines";
+
+    private static final double MAX_ROUNDING_ERROR = 0.5; // in meters
+
+    private final MathMode math;
+
+    /**
+     * Computes distances with {@link MathMode#STRICT}.
+     */
+    public LawOfCosinesDistanceStrategy() {
+        this(MathMode.STRICT);
+    }
+
+    /**
+     *
+     * @param math
+     */
+    public LawOfCosinesDistanceStrategy(MathMode math) {
+        this.math = math;
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(double latA, double longA, double latB, double longB) {
+        return MEAN_EARTH_RADIUS * math.acos(math.sin(latA) * math.sin(latB)
+                + math.cos(latA) * math.cos(latB) * math.cos(longA - longB));
+    }
+
+    @Override
+    public double getRelativeCost() {
+        return 1.0;
+    }
+
+    @Override
+    public double maxError(double distance) {
+        return SPHERICAL_EARTH_MAX_RELATIVE_ERROR * distance + MAX_ROUNDING_ERROR + math.maxDistanceError();
+    }
+
+    @Override
+    public MathMode getMathMode() {
+        return math;
+    }
+
+    @Override
+    public DistanceStrategy withMathMode(MathMode math) {
+        return math == this.math ? this : new LawOfCosinesDistanceStrategy(math);
+    }
+
+    @Override
+    public PreparedRangeQuery prepareRangeQuery(Coordinate target, double radius) {
+        return new CosineThresholdRangeQuery(this, target, radius);
+    }
+
+    @Override
+    public String toString() {
+        return math == MathMode.STRICT ? NAME : NAME + " (" + math.getName() + ")";
+    }
+}
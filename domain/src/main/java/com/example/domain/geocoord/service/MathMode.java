@@ -0,0 +1,235 @@
+package com.example.domain.geocoord.service;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+
+/**
+ * Implementation of the trigonometric functions used by the {@link DistanceStrategy distance strategies}.
+ * <p>
+ * {@link #STRICT} gives bit-for-bit reproducible results on every platform, but {@link StrictMath} is never
+ * intrinsified by the JIT compiler. {@link #FAST} uses {@link Math}, which differs from it by at most one ulp per
+ * call, and {@link #APPROX} uses {@link TrigApproximations lookup tables and polynomials}. The error bounds of each
+ * mode are relative to {@link #STRICT}; {@link #maxDistanceError()} turns them into a bound (in meters) on the
+ * distances computed by the spherical formulas. Range queries re-check candidates near the radius boundary with
+ * {@link #STRICT}, so their answers do not depend on the mode.
+ */
+public enum MathMode {
+    STRICT(0.0, 0.0) {
+        @Override
+        public double sin(double x) {
+            return StrictMath.sin(x);
+        }
+
+        @Override
+        public double cos(double x) {
+            return StrictMath.cos(x);
+        }
+
+        @Override
+        public double tan(double x) {
+            return StrictMath.tan(x);
+        }
+
+        @Override
+        public double asin(double x) {
+            return StrictMath.asin(x);
+        }
+
+        @Override
+        public double acos(double x) {
+            return StrictMath.acos(x);
+        }
+
+        @Override
+        public double atan(double x) {
+            return StrictMath.atan(x);
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return StrictMath.atan2(y, x);
+        }
+    },
+    FAST(1e-15, 1e-15) {
+        @Override
+        public double sin(double x) {
+            return Math.sin(x);
+        }
+
+        @Override
+        public double cos(double x) {
+            return Math.cos(x);
+        }
+
+        @Override
+        public double tan(double x) {
+            return Math.tan(x);
+        }
+
+        @Override
+        public double asin(double x) {
+            return Math.asin(x);
+        }
+
+        @Override
+        public double acos(double x) {
+            return Math.acos(x);
+        }
+
+        @Override
+        public double atan(double x) {
+            return Math.atan(x);
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return Math.atan2(y, x);
+        }
+    },
+    /**
+     * {@code sin} and {@code cos} are within {@code 1e-14} of {@link #STRICT}, {@code asin} and {@code acos} within
+     * {@code 2.5e-8} (i.e. about 16 cm on the Earth's surface); the other functions are the same as {@link #FAST}.
+     */
+    APPROX(1e-14, 2.5e-8) {
+        @Override
+        public double sin(double x) {
+            return TrigApproximations.sin(x);
+        }
+
+        @Override
+        public double cos(double x) {
+            return TrigApproximations.cos(x);
+        }
+
+        @Override
+        public double tan(double x) {
+            return Math.tan(x);
+        }
+
+        @Override
+        public double asin(double x) {
+            return TrigApproximations.asin(x);
+        }
+
+        @Override
+        public double acos(double x) {
+            return TrigApproximations.acos(x);
+        }
+
+        @Override
+        public double atan(double x) {
+            return Math.atan(x);
+        }
+
+        @Override
+        public double atan2(double y, double x) {
+            return Math.atan2(y, x);
+        }
+    };
+
+    private final double maxTrigError;
+    private final double maxInverseTrigError;
+
+    MathMode(double maxTrigError, double maxInverseTrigError) {
+        this.maxTrigError = maxTrigError;
+        this.maxInverseTrigError = maxInverseTrigError;
+    }
+
+    /**
+     *
+     * @return name under which the mode can be selected (e.g. from the command line)
+     */
+    public String getName() {
+        return name().toLowerCase();
+    }
+
+    /**
+     *
+     * @return upper bound of the absolute error of {@link #sin} and {@link #cos} against {@link #STRICT}
+     */
+    public double getMaxTrigError() {
+        return maxTrigError;
+    }
+
+    /**
+     *
+     * @return upper bound of the absolute error (in radians) of {@link #asin} and {@link #acos} against
+     * {@link #STRICT}
+     */
+    public double getMaxInverseTrigError() {
+        return maxInverseTrigError;
+    }
+
+    /**
+     * An error {@code e} on the argument of {@code acos} (or of {@code asin} after a square root) changes the result
+     * by at most {@code sqrt(2e)}, the worst case being reached for nearly coincident points; the spherical formulas
+     * accumulate at most four such errors, hence the bound {@code R (2 e_inverse + 4 sqrt(e_trig))}, i.e. 0 m for
+     * {@link #STRICT}, about 0.8 m for {@link #FAST} and about 3 m for {@link #APPROX}.
+     *
+     * @return upper bound (in meters) of the absolute error of a distance against the same distance computed with
+     * {@link #STRICT}
+     */
+    public double maxDistanceError() {
+        return MEAN_EARTH_RADIUS * (2 * maxInverseTrigError + 4 * Math.sqrt(maxTrigError));
+    }
+
+    /**
+     * Upper bound of the absolute error, against {@link #STRICT}, of an expression such as
+     * {@code sin a sin b + cos a cos b cos c} (or its haversine counterpart) computed with this mode; results which
+     * are closer than this to a threshold must be re-checked with {@link #STRICT}.
+     *
+     * @return
+     */
+    double boundaryBand() {
+        return 4 * (maxTrigError + Math.ulp(1.0));
+    }
+
+    /**
+     *
+     * @param x (in radians)
+     * @return
+     */
+    public abstract double sin(double x);
+
+    /**
+     *
+     * @param x (in radians)
+     * @return
+     */
+    public abstract double cos(double x);
+
+    /**
+     *
+     * @param x (in radians)
+     * @return
+     */
+    public abstract double tan(double x);
+
+    /**
+     *
+     * @param x
+     * @return (in radians)
+     */
+    public abstract double asin(double x);
+
+    /**
+     *
+     * @param x
+     * @return (in radians)
+     */
+    public abstract double acos(double x);
+
+    /**
+     *
+     * @param x
+     * @return (in radians)
+     */
+    public abstract double atan(double x);
+
+    /**
+     *
+     * @param y
+     * @param x
+     * @return (in radians)
+     */
+    public abstract double atan2(double y, double x);
+}
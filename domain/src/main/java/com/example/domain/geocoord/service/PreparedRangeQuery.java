@@ -0,0 +1,182 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.BoundingBox;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.UnitVector;
+
+import java.util.BitSet;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static com.example.domain.geocoord.model.Constants.SPHERICAL_EARTH_MAX_RELATIVE_ERROR;
+import static java.lang.StrictMath.asin;
+import static java.lang.StrictMath.atan2;
+
+/**
+ * A range query around a fixed target location, prepared once so that everything that only depends on the
+ * target and the radius is computed up-front and can be reused for every candidate location.
+ */
+public interface PreparedRangeQuery {
+    /**
+     *
+     * @return
+     */
+    Coordinate getTarget();
+
+    /**
+     *
+     * @return radius of the query (in meters)
+     */
+    double getRadius();
+
+    /**
+     *
+     * @return strategy whose distance formula decides which candidates are within range
+     */
+    DistanceStrategy getDistanceStrategy();
+
+    /**
+     *
+     * @return latitude/longitude window enclosing every location the query may contain
+     * @see #boundingBoxOf(PreparedRangeQuery)
+     */
+    default BoundingBox getBoundingBox() {
+        return boundingBoxOf(this);
+    }
+
+    /**
+     *
+     * @return central angle (in radians) enclosing every location the query may contain
+     * @see #maxCentralAngleOf(PreparedRangeQuery)
+     */
+    default double getMaxCentralAngle() {
+        return maxCentralAngleOf(this);
+    }
+
+    /**
+     *
+     * @param latitude latitude of the candidate location (in radians)
+     * @param longitude longitude of the candidate location (in radians)
+     * @return
+     */
+    boolean contains(double latitude, double longitude);
+
+    /**
+     *
+     * @param location
+     * @return
+     */
+    default boolean contains(Coordinate location) {
+        return contains(location.getLatitudeInRadians(), location.getLongitudeInRadians());
+    }
+
+    /**
+     * Queries which can test unit vectors directly override this to avoid converting back to latitude/longitude.
+     *
+     * @param x
+     * @param y
+     * @param z
+     * @return
+     * @see UnitVector
+     */
+    default boolean contains(double x, double y, double z) {
+        return contains(asin(z), atan2(y, x));
+    }
+
+    /**
+     *
+     * @param location
+     * @return
+     */
+    default boolean contains(UnitVector location) {
+        return contains(location.getX(), location.getY(), location.getZ());
+    }
+
+    /**
+     * Scans only compute the unit vectors of their candidates for the queries which return {@code true}; the others
+     * test latitude/longitude, and would only convert unit vectors back.
+     *
+     * @return whether the test of the query is a plain threshold on unit vectors, which
+     * {@link #filter(RangeFilterKernel, double[], double[], double[], int, int, BitSet)} hands over to the kernel
+     */
+    default boolean isUnitVectorThreshold() {
+        return false;
+    }
+
+    /**
+     * Tests a whole batch of candidate locations given as primitive columns, setting bit {@code i} of the result
+     * for every candidate {@code i} within range (other bits are left untouched).
+     *
+     * @param latitudes latitudes of the candidate locations (in radians)
+     * @param longitudes longitudes of the candidate locations (in radians)
+     * @param from index of the first candidate (inclusive)
+     * @param to index of the last candidate (exclusive)
+     * @param result
+     */
+    default void filter(double[] latitudes, double[] longitudes, int from, int to, BitSet result) {
+        for (int i = from; i < to; i++) {
+            if (contains(latitudes[i], longitudes[i])) {
+                result.set(i);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #filter(double[], double[], int, int, BitSet)}, for candidate locations given as unit vector
+     * columns.
+     *
+     * @param xs
+     * @param ys
+     * @param zs
+     * @param from index of the first candidate (inclusive)
+     * @param to index of the last candidate (exclusive)
+     * @param result
+     */
+    default void filter(double[] xs, double[] ys, double[] zs, int from, int to, BitSet result) {
+        for (int i = from; i < to; i++) {
+            if (contains(xs[i], ys[i], zs[i])) {
+                result.set(i);
+            }
+        }
+    }
+
+    /**
+     * Same as {@link #filter(double[], double[], double[], int, int, BitSet)}; queries whose test is a plain
+     * threshold on unit vectors hand the loop over to the given kernel.
+     *
+     * @param kernel
+     * @param xs
+     * @param ys
+     * @param zs
+     * @param from index of the first candidate (inclusive)
+     * @param to index of the last candidate (exclusive)
+     * @param result
+     */
+    default void filter(RangeFilterKernel kernel,
+                        double[] xs, double[] ys, double[] zs, int from, int to, BitSet result) {
+        filter(xs, ys, zs, from, to, result);
+    }
+
+    /**
+     * The radius is widened by the error bound of the distance strategy and of the spherical Earth model, so that
+     * the angle never excludes a location which the strategy (spherical, approximate or ellipsoidal) would accept.
+     *
+     * @param query
+     * @return central angle (in radians) enclosing every location the query may contain
+     */
+    static double maxCentralAngleOf(PreparedRangeQuery query) {
+        double radius = query.getRadius();
+        double maxDistance = (radius + query.getDistanceStrategy().maxError(radius))
+                * (1 + SPHERICAL_EARTH_MAX_RELATIVE_ERROR);
+        return maxDistance / MEAN_EARTH_RADIUS;
+    }
+
+    /**
+     *
+     * @param query
+     * @return latitude/longitude window enclosing every location the query may contain
+     * @see #maxCentralAngleOf(PreparedRangeQuery)
+     */
+    static BoundingBox boundingBoxOf(PreparedRangeQuery query) {
+        return BoundingBox.around(query.getTarget(), maxCentralAngleOf(query));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.domain.geocoord.service;
+
+import java.util.BitSet;
+
+/**
+ * Tight loop testing a whole column of candidate locations, given as unit vectors, against a range threshold.
+ * <p>
+ * Both tests are plain arithmetic on primitive arrays, which makes them suitable for explicit vectorization; every
+ * implementation must compute them with the same operations in the same order as the scalar one (i.e. without
+ * fused multiply-add), so that all kernels return exactly the same bits.
+ *
+ * @see RangeFilterKernels
+ * @see com.example.domain.geocoord.model.UnitVector
+ */
+public interface RangeFilterKernel {
+    /**
+     *
+     * @return name under which the kernel can be selected
+     */
+    String getName();
+
+    /**
+     * Sets bit {@code i} of the result for every candidate {@code i} in {@code [from, to)} such that
+     * {@code xs[i] * tx + ys[i] * ty + zs[i] * tz >= minDotProduct}.
+     *
+     * @param tx
+     * @param ty
+     * @param tz
+     * @param minDotProduct
+     * @param xs
+     * @param ys
+     * @param zs
+     * @param from index of the first candidate (inclusive)
+     * @param to index of the last candidate (exclusive)
+     * @param result
+     */
+    void filterByDotProduct(double tx, double ty, double tz, double minDotProduct,
+                            double[] xs, double[] ys, double[] zs, int from, int to, BitSet result);
+
+    /**
+     * Sets bit {@code i} of the result for every candidate {@code i} in {@code [from, to)} such that
+     * {@code (tx - xs[i])² + (ty - ys[i])² + (tz - zs[i])² <= maxSquaredChordLength}.
+     *
+     * @param tx
+     * @param ty
+     * @param tz
+     * @param maxSquaredChordLength
+     * @param xs
+     * @param ys
+     * @param zs
+     * @param from index of the first candidate (inclusive)
+     * @param to index of the last candidate (exclusive)
+     * @param result
+     */
+    void filterBySquaredChordLength(double tx, double ty, double tz, double maxSquaredChordLength,
+                                    double[] xs, double[] ys, double[] zs, int from, int to, BitSet result);
+}
@@ -0,0 +1,87 @@
+package com.example.domain.geocoord.service;
+
+import lombok.extern.log4j.Log4j2;
+
+import java.util.Optional;
+
+/**
+ * Factory of {@link RangeFilterKernel range filter kernels}.
+ * <p>
+ * The {@value #VECTOR} kernel uses the incubating Vector API and is only packaged for Java 17 and later (as a
+ * multi-release class of this module's jar); it is loaded reflectively, and {@value #AUTO} falls back to the
+ * {@value #SCALAR} kernel whenever it cannot be loaded, e.g. on Java 8 or when the JVM was started without
+ * {@code --add-modules jdk.incubator.vector}.
+ */
+@Log4j2
+public final class RangeFilterKernels {
+
+    public static final String SCALAR = ScalarRangeFilterKernel.NAME;
+    public static final String VECTOR = "vector";
+    public static final String AUTO = "auto";
+
+    /**
+     * System property selecting the kernel returned by {@link #fromSystemProperty()}, one of {@value #AUTO}
+     * (default), {@value #SCALAR} or {@value #VECTOR}.
+     */
+    public static final String SYSTEM_PROPERTY = "com.example.domain.geocoord.kernel";
+
+    private static final String VECTOR_KERNEL_CLASS_NAME =
+            "com.example.domain.geocoord.service.VectorRangeFilterKernel";
+
+    private static final RangeFilterKernel SCALAR_KERNEL = new ScalarRangeFilterKernel();
+
+    private RangeFilterKernels() {
+    }
+
+    /**
+     *
+     * @return
+     */
+    public static RangeFilterKernel scalar() {
+        return SCALAR_KERNEL;
+    }
+
+    /**
+     *
+     * @return the vectorized kernel, or nothing when it is not available on this JVM
+     */
+    public static Optional<RangeFilterKernel> vector() {
+        try {
+            return Optional.of((RangeFilterKernel) Class.forName(VECTOR_KERNEL_CLASS_NAME).newInstance());
+        } catch (ReflectiveOperationException | LinkageError e) {
+            log.debug("Vector API range filter kernel not available: {}", e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     *
+     * @param name one of {@value #AUTO}, {@value #SCALAR} or {@value #VECTOR}
+     * @return the kernel with the given name, or the scalar one when the vectorized kernel was requested but is not
+     * available
+     */
+    public static RangeFilterKernel byName(String name) {
+        switch (name) {
+            case SCALAR:
+                return scalar();
+            case VECTOR:
+                return vector().orElseGet(() -> {
+                    log.warn("Vector API range filter kernel not available, falling back to the scalar one");
+                    return scalar();
+                });
+            case AUTO:
+                return vector().orElseGet(RangeFilterKernels::scalar);
+            default:
+                throw new IllegalArgumentException("Unknown range filter kernel '" + name + "', expected one of ["
+                        + AUTO + ", " + SCALAR + ", " + VECTOR + "]");
+        }
+    }
+
+    /**
+     *
+     * @return the kernel selected by the {@value #SYSTEM_PROPERTY} system property
+     */
+    public static RangeFilterKernel fromSystemProperty() {
+        return byName(System.getProperty(SYSTEM_PROPERTY, AUTO));
+    }
+}
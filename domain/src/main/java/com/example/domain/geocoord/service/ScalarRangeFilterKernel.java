@@ -0,0 +1,46 @@
+package com.example.domain.geocoord.service;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.BitSet;
+
+/**
+ * Plain loop, one candidate at a time; available on every Java version.
+ */
+@ThreadSafe
+final class ScalarRangeFilterKernel implements RangeFilterKernel {
+
+    static final String NAME = "scalar";
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public void filterByDotProduct(double tx, double ty, double tz, double minDotProduct,
+                                   double[] xs, double[] ys, double[] zs, int from, int to, BitSet result) {
+        for (int i = from; i < to; i++) {
+            if (xs[i] * tx + ys[i] * ty + zs[i] * tz >= minDotProduct) {
+                result.set(i);
+            }
+        }
+    }
+
+    @Override
+    public void filterBySquaredChordLength(double tx, double ty, double tz, double maxSquaredChordLength,
+                                           double[] xs, double[] ys, double[] zs, int from, int to, BitSet result) {
+        for (int i = from; i < to; i++) {
+            double dx = tx - xs[i];
+            double dy = ty - ys[i];
+            double dz = tz - zs[i];
+            if (dx * dx + dy * dy + dz * dz <= maxSquaredChordLength) {
+                result.set(i);
+            }
+        }
+    }
+
+    @Override
+    public String toString() {
+        return NAME;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.domain.geocoord.service;
+
+import static java.lang.StrictMath.PI;
+
+/**
+ * Table-based {@code sin}/{@code cos} and polynomial {@code acos}/{@code asin} used by {@link MathMode#APPROX}.
+ * <p>
+ * {@code sin} and {@code cos} look up the nearest of {@value #TABLE_SIZE} nodes per turn and correct for the
+ * remaining offset {@code d} (at most {@code π / 4096}) with the angle addition formulas and short Taylor expansions
+ * of {@code sin d} and {@code cos d}, whose truncation error is below {@code 1e-17}. {@code acos} is the
+ * Abramowitz &amp; Stegun 4.4.46 polynomial, with an absolute error below {@code 2e-8}.
+ */
+final class TrigApproximations {
+
+    static final int TABLE_SIZE = 4096;
+    static final double MAX_ARGUMENT = 16 * PI;
+
+    private static final double STEP = 2 * PI / TABLE_SIZE;
+    private static final double INVERSE_STEP = TABLE_SIZE / (2 * PI);
+    private static final double[] SIN = new double[TABLE_SIZE];
+    private static final double[] COS = new double[TABLE_SIZE];
+
+    static {
+        for (int i = 0; i < TABLE_SIZE; i++) {
+            SIN[i] = StrictMath.sin(i * STEP);
+            COS[i] = StrictMath.cos(i * STEP);
+        }
+    }
+
+    private TrigApproximations() {
+    }
+
+    /**
+     *
+     * @param x (in radians)
+     * @return
+     */
+    static double sin(double x) {
+        if (Math.abs(x) > MAX_ARGUMENT) {
+            return Math.sin(x); // argument reduction would lose accuracy
+        }
+        double k = Math.rint(x * INVERSE_STEP);
+        double d = x - k * STEP;
+        int i = (int) k & (TABLE_SIZE - 1);
+        double d2 = d * d;
+        return SIN[i] * cosOfSmall(d2) + COS[i] * sinOfSmall(d, d2);
+    }
+
+    /**
+     *
+     * @param x (in radians)
+     * @return
+     */
+    static double cos(double x) {
+        if (Math.abs(x) > MAX_ARGUMENT) {
+            return Math.cos(x); // argument reduction would lose accuracy
+        }
+        double k = Math.rint(x * INVERSE_STEP);
+        double d = x - k * STEP;
+        int i = (int) k & (TABLE_SIZE - 1);
+        double d2 = d * d;
+        return COS[i] * cosOfSmall(d2) - SIN[i] * sinOfSmall(d, d2);
+    }
+
+    /**
+     *
+     * @param x
+     * @return (in radians)
+     */
+    static double acos(double x) {
+        double a = Math.abs(x);
+        if (!(a <= 1.0)) {
+            return Double.NaN;
+        }
+        double p = -0.0012624911;
+        p = p * a + 0.0066700901;
+        p = p * a - 0.0170881256;
+        p = p * a + 0.0308918810;
+        p = p * a - 0.0501743046;
+        p = p * a + 0.0889789874;
+        p = p * a - 0.2145988016;
+        p = p * a + 1.5707963050;
+        double acos = Math.sqrt(1.0 - a) * p;
+        return x >= 0 ? acos : PI - acos;
+    }
+
+    /**
+     *
+     * @param x
+     * @return (in radians)
+     */
+    static double asin(double x) {
+        return PI / 2 - acos(x);
+    }
+
+    private static double sinOfSmall(double d, double d2) {
+        return d * (1.0 - d2 / 6.0 * (1.0 - d2 / 20.0));
+    }
+
+    private static double cosOfSmall(double d2) {
+        return 1.0 - d2 / 2.0 * (1.0 - d2 / 12.0);
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.domain.geocoord.service;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Singleton;
+
+import static com.example.domain.geocoord.model.Constants.WGS84_FLATTENING;
+import static com.example.domain.geocoord.model.Constants.WGS84_SEMI_MAJOR_AXIS;
+import static java.lang.StrictMath.abs;
+import static java.lang.StrictMath.sqrt;
+
+/**
+ * Vincenty's inverse formula on the WGS84 ellipsoid.
+ * <p>
+ * Accurate to within a millimeter, but iterative and an order of magnitude more expensive than the spherical
+ * formulas. The iteration does not converge for nearly antipodal points, in which case the distance falls back to
+ * the {@link HaversineDistanceStrategy haversine formula}.
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Vincenty%27s_formulae">Vincenty's formulae</a>
+ */
+@ThreadSafe
+@Singleton
+public class VincentyDistanceStrategy implements DistanceStrategy {
+
+    public static final String NAME = "vincenty";
+
+    private static final double SEMI_MINOR_AXIS = WGS84_SEMI_MAJOR_AXIS * (1 - WGS84_FLATTENING);
+    private static final double SECOND_ECCENTRICITY_SQUARED =
+            (WGS84_SEMI_MAJOR_AXIS * WGS84_SEMI_MAJOR_AXIS - SEMI_MINOR_AXIS * SEMI_MINOR_AXIS)
+                    / (SEMI_MINOR_AXIS * SEMI_MINOR_AXIS);
+
+    private static final double CONVERGENCE_THRESHOLD = 1e-12; // in radians, i.e. about 0.006 mm
+    private static final int MAX_ITERATIONS = 200;
+
+    private static final double MAX_ERROR = 0.001; // in meters
+    private static final double MIN_NON_CONVERGING_DISTANCE = 19_500_000.0; // in meters
+
+    private final MathMode math;
+    private final HaversineDistanceStrategy fallback;
+
+    /**
+     * Computes distances with {@link MathMode#STRICT}.
+     */
+    public VincentyDistanceStrategy() {
+        this(MathMode.STRICT);
+    }
+
+    /**
+     *
+     * @param math
+     */
+    public VincentyDistanceStrategy(MathMode math) {
+        this.math = math;
+        this.fallback = new HaversineDistanceStrategy(math);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(double latA, double longA, double latB, double longB) {
+        double l = longB - longA;
+        double u1 = math.atan((1 - WGS84_FLATTENING) * math.tan(latA));
+        double u2 = math.atan((1 - WGS84_FLATTENING) * math.tan(latB));
+        double sinU1 = math.sin(u1);
+        double cosU1 = math.cos(u1);
+        double sinU2 = math.sin(u2);
+        double cosU2 = math.cos(u2);
+
+        double lambda = l;
+        double sinSigma;
+        double cosSigma;
+        double sigma;
+        double cosSqAlpha;
+        double cos2SigmaM;
+
+        for (int i = 0; ; i++) {
+            if (i == MAX_ITERATIONS) {
+                return fallback.distance(latA, longA, latB, longB);
+            }
+
+            double sinLambda = math.sin(lambda);
+            double cosLambda = math.cos(lambda);
+            double t = cosU1 * sinU2 - sinU1 * cosU2 * cosLambda;
+            sinSigma = sqrt((cosU2 * sinLambda) * (cosU2 * sinLambda) + t * t);
+            if (sinSigma == 0) {
+                return 0.0; // coincident points
+            }
+            cosSigma = sinU1 * sinU2 + cosU1 * cosU2 * cosLambda;
+            sigma = math.atan2(sinSigma, cosSigma);
+            double sinAlpha = cosU1 * cosU2 * sinLambda / sinSigma;
+            cosSqAlpha = 1 - sinAlpha * sinAlpha;
+            cos2SigmaM = cosSqAlpha != 0 ? cosSigma - 2 * sinU1 * sinU2 / cosSqAlpha : 0; // equatorial line
+            double c = WGS84_FLATTENING / 16 * cosSqAlpha * (4 + WGS84_FLATTENING * (4 - 3 * cosSqAlpha));
+
+            double previousLambda = lambda;
+            lambda = l + (1 - c) * WGS84_FLATTENING * sinAlpha
+                    * (sigma + c * sinSigma * (cos2SigmaM + c * cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)));
+
+            if (abs(lambda - previousLambda) <= CONVERGENCE_THRESHOLD) {
+                break;
+            }
+        }
+
+        double uSq = cosSqAlpha * SECOND_ECCENTRICITY_SQUARED;
+        double a = 1 + uSq / 16384 * (4096 + uSq * (-768 + uSq * (320 - 175 * uSq)));
+        double b = uSq / 1024 * (256 + uSq * (-128 + uSq * (74 - 47 * uSq)));
+        double deltaSigma = b * sinSigma * (cos2SigmaM + b / 4 * (cosSigma * (-1 + 2 * cos2SigmaM * cos2SigmaM)
+                - b / 6 * cos2SigmaM * (-3 + 4 * sinSigma * sinSigma) * (-3 + 4 * cos2SigmaM * cos2SigmaM)));
+
+        return SEMI_MINOR_AXIS * a * (sigma - deltaSigma);
+    }
+
+    @Override
+    public double getRelativeCost() {
+        return 10.0;
+    }
+
+    @Override
+    public double maxError(double distance) {
+        return distance < MIN_NON_CONVERGING_DISTANCE
+                ? MAX_ERROR + math.maxDistanceError()
+                : fallback.maxError(distance);
+    }
+
+    @Override
+    public MathMode getMathMode() {
+        return math;
+    }
+
+    @Override
+    public DistanceStrategy withMathMode(MathMode math) {
+        return math == this.math ? this : new VincentyDistanceStrategy(math);
+    }
+
+    @Override
+    public String toString() {
+        return math == MathMode.STRICT ? NAME : NAME + " (" + math.getName() + ")";
+    }
+}
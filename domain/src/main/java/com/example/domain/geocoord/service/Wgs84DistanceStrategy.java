@@ -0,0 +1,79 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.inject.Singleton;
+
+/**
+ * Geodesic distance on the WGS84 ellipsoid, as computed by {@link VincentyDistanceStrategy Vincenty's formula}, with
+ * two-phase range queries.
+ * <p>
+ * Distances cost as much as with Vincenty's formula, but range queries first classify candidates with the spherical
+ * chord test, and only run the iterative solver for the thin band of candidates which the spherical Earth model
+ * cannot decide (see {@link EllipsoidalRangeQuery}), so that their throughput stays close to that of the spherical
+ * formulas.
+ */
+@ThreadSafe
+@Singleton
+public class Wgs84DistanceStrategy implements DistanceStrategy {
+
+    public static final String NAME = "wgs84";
+
+    private final VincentyDistanceStrategy geodesic;
+
+    /**
+     * Computes distances with {@link MathMode#STRICT}.
+     */
+    public Wgs84DistanceStrategy() {
+        this(MathMode.STRICT);
+    }
+
+    /**
+     *
+     * @param math
+     */
+    public Wgs84DistanceStrategy(MathMode math) {
+        this.geodesic = new VincentyDistanceStrategy(math);
+    }
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public double distance(double latA, double longA, double latB, double longB) {
+        return geodesic.distance(latA, longA, latB, longB);
+    }
+
+    @Override
+    public double getRelativeCost() {
+        return geodesic.getRelativeCost();
+    }
+
+    @Override
+    public double maxError(double distance) {
+        return geodesic.maxError(distance);
+    }
+
+    @Override
+    public MathMode getMathMode() {
+        return geodesic.getMathMode();
+    }
+
+    @Override
+    public DistanceStrategy withMathMode(MathMode math) {
+        return math == getMathMode() ? this : new Wgs84DistanceStrategy(math);
+    }
+
+    @Override
+    public PreparedRangeQuery prepareRangeQuery(Coordinate target, double radius) {
+        return new EllipsoidalRangeQuery(this, target, radius);
+    }
+
+    @Override
+    public String toString() {
+        return getMathMode() == MathMode.STRICT ? NAME : NAME + " (" + getMathMode().getName() + ")";
+    }
+}
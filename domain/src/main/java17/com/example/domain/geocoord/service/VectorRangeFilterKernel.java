@@ -0,0 +1,74 @@
+package com.example.domain.geocoord.service;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.BitSet;
+
+/**
+ * Vector API kernel, testing as many candidates per instruction as the preferred vector shape of the platform holds
+ * (e.g. 4 with AVX2, 8 with AVX-512); the tail of each column is handled by the {@link ScalarRangeFilterKernel}.
+ * <p>
+ * Only compiled for Java 17 and later, and loaded reflectively by {@link RangeFilterKernels}.
+ */
+@ThreadSafe
+final class VectorRangeFilterKernel implements RangeFilterKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private final ScalarRangeFilterKernel tail = new ScalarRangeFilterKernel();
+
+    @Override
+    public String getName() {
+        return RangeFilterKernels.VECTOR;
+    }
+
+    @Override
+    public void filterByDotProduct(double tx, double ty, double tz, double minDotProduct,
+                                   double[] xs, double[] ys, double[] zs, int from, int to, BitSet result) {
+        int upperBound = from + SPECIES.loopBound(to - from);
+        int i = from;
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector dotProduct = DoubleVector.fromArray(SPECIES, xs, i).mul(tx)
+                    .add(DoubleVector.fromArray(SPECIES, ys, i).mul(ty))
+                    .add(DoubleVector.fromArray(SPECIES, zs, i).mul(tz));
+            set(dotProduct.compare(VectorOperators.GE, minDotProduct), i, result);
+        }
+        tail.filterByDotProduct(tx, ty, tz, minDotProduct, xs, ys, zs, i, to, result);
+    }
+
+    @Override
+    public void filterBySquaredChordLength(double tx, double ty, double tz, double maxSquaredChordLength,
+                                           double[] xs, double[] ys, double[] zs, int from, int to, BitSet result) {
+        DoubleVector vtx = DoubleVector.broadcast(SPECIES, tx);
+        DoubleVector vty = DoubleVector.broadcast(SPECIES, ty);
+        DoubleVector vtz = DoubleVector.broadcast(SPECIES, tz);
+
+        int upperBound = from + SPECIES.loopBound(to - from);
+        int i = from;
+        for (; i < upperBound; i += SPECIES.length()) {
+            DoubleVector dx = vtx.sub(DoubleVector.fromArray(SPECIES, xs, i));
+            DoubleVector dy = vty.sub(DoubleVector.fromArray(SPECIES, ys, i));
+            DoubleVector dz = vtz.sub(DoubleVector.fromArray(SPECIES, zs, i));
+            DoubleVector squaredChordLength = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            set(squaredChordLength.compare(VectorOperators.LE, maxSquaredChordLength), i, result);
+        }
+        tail.filterBySquaredChordLength(tx, ty, tz, maxSquaredChordLength, xs, ys, zs, i, to, result);
+    }
+
+    private static void set(VectorMask<Double> mask, int offset, BitSet result) {
+        long lanes = mask.toLong();
+        while (lanes != 0) {
+            result.set(offset + Long.numberOfTrailingZeros(lanes));
+            lanes &= lanes - 1;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return RangeFilterKernels.VECTOR;
+    }
+}
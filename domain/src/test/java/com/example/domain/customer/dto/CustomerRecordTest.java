@@ -178,6 +178,42 @@ public class CustomerRecordTest {
                 hasProperty("message", equalTo("longitude must be between -180.0 and 180.0"))));
     }
 
+    @Test
+    public void customerRecord_shouldRoundLatitudeTo7DecimalDigits_whenItHasMore() {
+        // when
+        CustomerRecord customerRecord = new CustomerRecord(1L, "John Smith", new BigDecimal("53.12345678"), BigDecimal.ZERO);
+
+        // then
+        assertThat(customerRecord.getLatitude(), is(equalTo(new BigDecimal("53.1234568"))));
+        assertThat(validator.validate(customerRecord), is(empty()));
+    }
+
+    @Test
+    public void customerRecord_shouldRoundLongitudeTo7DecimalDigits_whenItHasMore() {
+        // when
+        CustomerRecord customerRecord = new CustomerRecord(1L, "John Smith", BigDecimal.ZERO, new BigDecimal("-6.12345675"));
+
+        // then
+        assertThat(customerRecord.getLongitude(), is(equalTo(new BigDecimal("-6.1234568"))));
+        assertThat(validator.validate(customerRecord), is(empty()));
+    }
+
+    @Test
+    public void customerRecord_shouldKeepCoordinatesLosslessly_whenExtraDecimalDigitsAreTrailingZeros() {
+        // given
+        CustomerRecord customerRecord = new CustomerRecord(1L, "John Smith", BigDecimal.ZERO, BigDecimal.ZERO);
+
+        // when
+        customerRecord.setLatitude(new BigDecimal("53.33942800"));
+        customerRecord.setLongitude(new BigDecimal("-6.257664000"));
+
+        // then
+        assertThat(customerRecord.getLatitude().compareTo(new BigDecimal("53.339428")), is(0));
+        assertThat(customerRecord.getLongitude().compareTo(new BigDecimal("-6.257664")), is(0));
+        assertThat(customerRecord.encodeLocation(), is(new CustomerRecord(1L, "John Smith",
+                new BigDecimal("53.339428"), new BigDecimal("-6.257664")).encodeLocation()));
+    }
+
     @Test
     public void customerRecord_shouldBeValid_whenLatitudeAndLongitudeAreWithinTheirValidRanges() {
         // given
@@ -386,4 +422,29 @@ public class CustomerRecordTest {
         assertThat(isReadable, is(true));
         assertThat(isWriteable, is(true));
     }
+
+    @Test
+    public void encodeLocation_shouldBeLosslessWhenDecodedWithOf() {
+        // given
+        CustomerRecord customerRecord = new CustomerRecord(12L, "Christina McArdle", new BigDecimal("52.986375"), new BigDecimal("-6.043701"));
+
+        // when
+        CustomerRecord decoded = CustomerRecord.of(customerRecord.getUserId(), customerRecord.getName(), customerRecord.encodeLocation());
+
+        // then
+        assertThat(decoded, is(equalTo(customerRecord)));
+    }
+
+    @Test
+    public void encodeLocation_shouldThrowException_whenLatitudeIsNull() {
+        // given
+        CustomerRecord customerRecord = new CustomerRecord(12L, "Christina McArdle", null, new BigDecimal("-6.043701"));
+
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("latitude must not be null");
+
+        // when
+        customerRecord.encodeLocation();
+    }
 }
@@ -0,0 +1,140 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.HeapCustomerStore;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.CoordinateService;
+import com.example.domain.geocoord.service.DefaultCoordinateService;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import com.example.domain.geocoord.service.VincentyDistanceStrategy;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class CustomerIndexParameterizedTest {
+
+    private static final CustomerStore STORE = randomStore(5_000, 42);
+    private static final CoordinateService COORDINATE_SERVICE = new DefaultCoordinateService();
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        return Stream.of(CustomerIndexType.values()).map(type -> new Object[]{type}).collect(Collectors.toList());
+    }
+
+    @Parameterized.Parameter
+    public CustomerIndexType indexType;
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsStore_whenRangeIsSmall() {
+        assertSameRowsAsStore(new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000));
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsStore_whenRangeCrossesTheAntimeridian() {
+        assertSameRowsAsStore(new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("-17.7134", "178.065"), 1_000_000));
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsStore_whenRangeCoversAPole() {
+        assertSameRowsAsStore(new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("89.5", "120.0"), 1_500_000));
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsStore_whenRangeCoversTheWholeEarth() {
+        assertSameRowsAsStore(new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("0.0", "0.0"), 20_100_000));
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsStore_whenRadiusIsZero() {
+        assertSameRowsAsStore(new HaversineDistanceStrategy()
+                .prepareRangeQuery(STORE.getCustomer(7).getLocation(), 0));
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsStore_whenUsingEllipsoidalDistance() {
+        assertSameRowsAsStore(new VincentyDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("40.7128", "-74.006"), 2_000_000));
+    }
+
+    @Test
+    public void withinRange_shouldReturnNoRows_whenStoreIsEmpty() {
+        // given
+        CustomerIndex index = indexType.build(HeapCustomerStore.builder().build(), COORDINATE_SERVICE);
+
+        // when
+        BitSet rows = index.withinRange(new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("0.0", "0.0"), 20_100_000));
+
+        // then
+        assertThat(rows.isEmpty(), is(true));
+    }
+
+    @Test
+    public void getStore_shouldReturnIndexedStore() {
+        // when
+        CustomerIndex index = indexType.build(STORE, COORDINATE_SERVICE);
+
+        // then
+        assertThat(index.getStore(), is(sameInstance(STORE)));
+    }
+
+    private void assertSameRowsAsStore(PreparedRangeQuery query) {
+        // given
+        CustomerIndex index = indexType.build(STORE, COORDINATE_SERVICE);
+
+        // when
+        BitSet rows = index.withinRange(query);
+
+        // then
+        assertThat(rows.isEmpty(), is(false));
+        assertThat(rows, is(equalTo(STORE.withinRange(query))));
+    }
+
+    /**
+     * Half of the customers are spread over the whole Earth, the other half clustered around a few cities, with
+     * some duplicate locations.
+     */
+    private static CustomerStore randomStore(int size, long seed) {
+        Random random = new Random(seed);
+        int[][] cities = {{533_394_280, -62_576_640}, {407_128_000, -740_060_000}, {-177_134_000, 1_780_650_000},
+                {895_000_000, 1_200_000_000}};
+        long[] locations = new long[size];
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder(size);
+        for (int i = 0; i < size; i++) {
+            long location;
+            if (i % 10 == 9) {
+                location = locations[random.nextInt(i)];
+            } else if (i % 2 == 0) {
+                location = FixedPointCoordinate.pack(random.nextInt(1_800_000_001) - 900_000_000,
+                        (int) (random.nextDouble() * 3_600_000_000L - 1_800_000_000));
+            } else {
+                int[] city = cities[random.nextInt(cities.length)];
+                location = FixedPointCoordinate.pack(
+                        Math.max(-900_000_000, Math.min(900_000_000, city[0] + random.nextInt(40_000_000) - 20_000_000)),
+                        (int) ((city[1] + random.nextInt(40_000_000) - 20_000_000 + 5_400_000_000L)
+                                % 3_600_000_000L - 1_800_000_000));
+            }
+            locations[i] = location;
+            builder.add(i, "Customer " + i, location);
+        }
+        return builder.build();
+    }
+}
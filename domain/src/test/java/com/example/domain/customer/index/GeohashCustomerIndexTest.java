@@ -0,0 +1,46 @@
+package com.example.domain.customer.index;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class GeohashCustomerIndexTest {
+
+    @Test
+    public void geohash_shouldInterleaveBitsStartingWithLongitude() {
+        // when
+        long geohash = GeohashCustomerIndex.geohash(0xFFFFFFFFL, 0L);
+
+        // then
+        assertThat(geohash, is(0xAAAAAAAAAAAAAAAAL));
+    }
+
+    @Test
+    public void geohash_shouldMatchBase32GeohashBits() {
+        // given: "gc7x3" (Dublin) is 01111 01011 00111 11101 00011 in base 32
+        long longitudeKey = GeohashCustomerIndex.longitudeKey(-62_576_640);
+        long latitudeKey = GeohashCustomerIndex.latitudeKey(533_394_280);
+
+        // when
+        long geohash = GeohashCustomerIndex.geohash(longitudeKey, latitudeKey);
+
+        // then
+        assertThat(geohash >>> 64 - 25, is(0b01111_01011_00111_11101_00011L));
+    }
+
+    @Test
+    public void keys_shouldBeMonotonicAndFitIn32Bits() {
+        // then
+        assertThat(GeohashCustomerIndex.latitudeKey(-900_000_000), is(0L));
+        assertThat(GeohashCustomerIndex.latitudeKey(899_999_999), lessThan(GeohashCustomerIndex.latitudeKey(900_000_000)));
+        assertThat(GeohashCustomerIndex.latitudeKey(900_000_000), lessThan(1L << 32));
+        assertThat(GeohashCustomerIndex.longitudeKey(-1_800_000_000), is(0L));
+        assertThat(GeohashCustomerIndex.longitudeKey(1_800_000_000), lessThan(1L << 32));
+        assertThat(GeohashCustomerIndex.longitudeKey(0), is(both(greaterThan((1L << 31) - 3)).and(lessThanOrEqualTo(1L << 31))));
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.HeapCustomerStore;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import org.junit.Test;
+
+import java.util.BitSet;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class KdTreeCustomerIndexTest {
+
+    @Test
+    public void withinRange_shouldReturnEveryRow_whenAllCustomersShareTheirLocation() {
+        // given
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (int i = 0; i < 1_000; i++) {
+            builder.add(i, "Customer " + i, FixedPointCoordinate.pack(533_394_280, -62_576_640));
+        }
+        KdTreeCustomerIndex index = KdTreeCustomerIndex.of(builder.build());
+
+        // when
+        BitSet rows = index.withinRange(new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 0));
+
+        // then
+        assertThat(rows.cardinality(), is(1_000));
+    }
+
+    @Test
+    public void withinRange_shouldFindCustomersOnBothSidesOfTheAntimeridian() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(1L, "West", FixedPointCoordinate.pack(0, 1_799_000_000))
+                .add(2L, "East", FixedPointCoordinate.pack(0, -1_799_000_000))
+                .add(3L, "Far", FixedPointCoordinate.pack(0, 0))
+                .build();
+        PreparedRangeQuery query = new HaversineDistanceStrategy().prepareRangeQuery(Coordinate.of("0.0", "180.0"), 50_000);
+
+        // when
+        BitSet rows = KdTreeCustomerIndex.of(store).withinRange(query);
+
+        // then
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(1);
+        assertThat(rows, is(expected));
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.HeapCustomerStore;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class QuadtreeCustomerIndexTest {
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsStore_whateverTheCellCapacity() {
+        // given
+        Random random = new Random(3);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (int i = 0; i < 4_000; i++) {
+            // a dense city (within about 1 km of Dublin) and a sparse rest of the world
+            builder.add(i, "Customer " + i, i % 4 == 0
+                    ? FixedPointCoordinate.pack(random.nextInt(1_800_000_001) - 900_000_000,
+                            (int) (random.nextDouble() * 3_600_000_000L - 1_800_000_000))
+                    : FixedPointCoordinate.pack(533_394_280 + random.nextInt(100_000) - 50_000,
+                            -62_576_640 + random.nextInt(100_000) - 50_000));
+        }
+        CustomerStore store = builder.build();
+        PreparedRangeQuery query = new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("53.34", "-6.26"), 500);
+
+        for (int cellCapacity : new int[] {1, 4, 32, 10_000}) {
+            // when
+            BitSet rows = QuadtreeCustomerIndex.of(store, cellCapacity).withinRange(query);
+
+            // then
+            assertThat(rows, is(equalTo(store.withinRange(query))));
+        }
+    }
+
+    @Test
+    public void withinRange_shouldReturnEveryRow_whenAllCustomersShareTheirLocation() {
+        // given
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (int i = 0; i < 100; i++) {
+            builder.add(i, "Customer " + i, FixedPointCoordinate.pack(533_394_280, -62_576_640));
+        }
+        QuadtreeCustomerIndex index = QuadtreeCustomerIndex.of(builder.build(), 1);
+
+        // when
+        BitSet rows = index.withinRange(new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 0));
+
+        // then
+        assertThat(rows.cardinality(), is(100));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void of_shouldThrowException_whenCellCapacityIsNotPositive() {
+        // when
+        QuadtreeCustomerIndex.of(HeapCustomerStore.builder().build(), 0);
+    }
+}
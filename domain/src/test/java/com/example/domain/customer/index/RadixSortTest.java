@@ -0,0 +1,40 @@
+package com.example.domain.customer.index;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class RadixSortTest {
+
+    @Test
+    public void sort_shouldSortKeysInSignedOrderAndMoveValuesAlong() {
+        // given
+        Random random = new Random(42);
+        long[] keys = new long[1_000];
+        int[] values = new int[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = i % 3 == 0 ? random.nextInt(10) : random.nextLong();
+            values[i] = i;
+        }
+        long[] originalKeys = keys.clone();
+        long[] expected = keys.clone();
+        Arrays.sort(expected);
+
+        // when
+        RadixSort.sort(keys, values);
+
+        // then
+        assertThat(keys, is(expected));
+        for (int i = 0; i < keys.length; i++) {
+            assertThat(originalKeys[values[i]], is(keys[i]));
+            if (i > 0 && keys[i] == keys[i - 1]) {
+                // stable
+                assertThat(values[i] > values[i - 1], is(true));
+            }
+        }
+    }
+}
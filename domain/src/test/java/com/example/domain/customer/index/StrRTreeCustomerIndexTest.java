@@ -0,0 +1,73 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.HeapCustomerStore;
+import com.example.domain.geocoord.model.BoundingBox;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class StrRTreeCustomerIndexTest {
+
+    private static final CustomerStore STORE = randomStore(3_000, 7);
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsStore_whateverTheFanOut() {
+        // given
+        PreparedRangeQuery query = new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("10.0", "20.0"), 3_000_000);
+
+        for (int fanOut : new int[] {2, 3, 8, 64, 10_000}) {
+            // when
+            BitSet rows = StrRTreeCustomerIndex.of(STORE, fanOut).withinRange(query);
+
+            // then
+            assertThat(rows, is(equalTo(STORE.withinRange(query))));
+        }
+    }
+
+    @Test
+    public void withinBoundingBox_shouldReturnRowsWithinTheWindow() {
+        // given
+        BoundingBox boundingBox = new BoundingBox(Math.toRadians(-10), Math.toRadians(30), Math.toRadians(170),
+                Math.toRadians(-160));
+
+        // when
+        BitSet rows = StrRTreeCustomerIndex.of(STORE).withinBoundingBox(boundingBox);
+
+        // then
+        BitSet expected = new BitSet();
+        for (int row = 0; row < STORE.size(); row++) {
+            if (boundingBox.contains(STORE.getLatitudeInRadians(row), STORE.getLongitudeInRadians(row))) {
+                expected.set(row);
+            }
+        }
+        assertThat(expected.isEmpty(), is(false));
+        assertThat(rows, is(equalTo(expected)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void of_shouldThrowException_whenFanOutIsLessThanTwo() {
+        // when
+        StrRTreeCustomerIndex.of(STORE, 1);
+    }
+
+    private static CustomerStore randomStore(int size, long seed) {
+        Random random = new Random(seed);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder(size);
+        for (int i = 0; i < size; i++) {
+            builder.add(i, "Customer " + i, FixedPointCoordinate.pack(random.nextInt(1_800_000_001) - 900_000_000,
+                    (int) (random.nextDouble() * 3_600_000_000L - 1_800_000_000)));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.domain.customer.index;
+
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.HeapCustomerStore;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.CoordinateService;
+import com.example.domain.geocoord.service.DefaultCoordinateService;
+import org.junit.Test;
+
+import java.util.Comparator;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VantagePointCustomerIndexTest {
+
+    private static final CoordinateService COORDINATE_SERVICE = new DefaultCoordinateService();
+    private static final CustomerStore STORE = randomStore(2_000, 11);
+
+    @Test
+    public void nearest_shouldReturnSameDistancesAsExhaustiveSearch() {
+        // given
+        VantagePointCustomerIndex index = VantagePointCustomerIndex.of(STORE, COORDINATE_SERVICE);
+        double latitude = Math.toRadians(48.8566);
+        double longitude = Math.toRadians(2.3522);
+
+        for (int count : new int[] {1, 10, 100}) {
+            // when
+            int[] rows = index.nearest(latitude, longitude, count);
+
+            // then
+            double[] expected = IntStream.range(0, STORE.size())
+                    .mapToDouble(row -> distance(latitude, longitude, row))
+                    .sorted()
+                    .limit(count)
+                    .toArray();
+            double[] actual = IntStream.of(rows).mapToDouble(row -> distance(latitude, longitude, row)).toArray();
+            assertThat(actual, is(expected));
+        }
+    }
+
+    @Test
+    public void nearest_shouldReturnEveryRowNearestFirst_whenCountExceedsStoreSize() {
+        // given
+        VantagePointCustomerIndex index = VantagePointCustomerIndex.of(STORE, COORDINATE_SERVICE);
+
+        // when
+        int[] rows = index.nearest(0.0, Math.PI, STORE.size() + 1);
+
+        // then
+        int[] expected = IntStream.range(0, STORE.size()).boxed()
+                .sorted(Comparator.comparingDouble(row -> distance(0.0, Math.PI, row)))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        assertThat(rows.length, is(STORE.size()));
+        assertThat(IntStream.of(rows).mapToDouble(row -> distance(0.0, Math.PI, row)).toArray(),
+                is(IntStream.of(expected).mapToDouble(row -> distance(0.0, Math.PI, row)).toArray()));
+    }
+
+    @Test
+    public void nearest_shouldReturnNoRows_whenCountIsZero() {
+        // when
+        int[] rows = VantagePointCustomerIndex.of(STORE, COORDINATE_SERVICE).nearest(0.0, 0.0, 0);
+
+        // then
+        assertThat(rows.length, is(0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void nearest_shouldThrowException_whenCountIsNegative() {
+        // when
+        VantagePointCustomerIndex.of(STORE, COORDINATE_SERVICE).nearest(0.0, 0.0, -1);
+    }
+
+    private static double distance(double latitude, double longitude, int row) {
+        return COORDINATE_SERVICE.greatCircleDistanceOnEarthBetween(latitude, longitude,
+                STORE.getLatitudeInRadians(row), STORE.getLongitudeInRadians(row));
+    }
+
+    private static CustomerStore randomStore(int size, long seed) {
+        Random random = new Random(seed);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder(size);
+        for (int i = 0; i < size; i++) {
+            // clustered around Paris, with the rest spread over the whole Earth
+            builder.add(i, "Customer " + i, i % 2 == 0
+                    ? FixedPointCoordinate.pack(488_566_000 + random.nextInt(20_000_000) - 10_000_000,
+                            23_522_000 + random.nextInt(20_000_000) - 10_000_000)
+                    : FixedPointCoordinate.pack(random.nextInt(1_800_000_001) - 900_000_000,
+                            (int) (random.nextDouble() * 3_600_000_000L - 1_800_000_000)));
+        }
+        return builder.build();
+    }
+}
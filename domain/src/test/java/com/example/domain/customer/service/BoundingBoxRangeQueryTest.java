@@ -0,0 +1,59 @@
+package com.example.domain.customer.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import com.example.domain.geocoord.service.VincentyDistanceStrategy;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class BoundingBoxRangeQueryTest {
+
+    @Test
+    public void contains_shouldNotEvaluateWrappedQuery_whenCandidateIsOutsideBoundingBox() {
+        // given
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+        given(query.getTarget()).willReturn(Coordinate.of("53.339428", "-6.257664"));
+        given(query.getRadius()).willReturn(100_000.0);
+        given(query.getDistanceStrategy()).willReturn(new VincentyDistanceStrategy());
+
+        BoundingBoxRangeQuery boxQuery = new BoundingBoxRangeQuery(query);
+
+        // when
+        boolean contains = boxQuery.contains(Coordinate.of("40.416775", "-3.703790"));
+
+        // then
+        assertThat(contains, is(false));
+        verify(query, never()).contains(anyDouble(), anyDouble());
+    }
+
+    @Test
+    public void contains_shouldAgreeWithWrappedQuery() {
+        // given
+        Random random = new Random(42);
+        DistanceStrategy distanceStrategy = new VincentyDistanceStrategy();
+        PreparedRangeQuery query = distanceStrategy.prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000.0);
+
+        BoundingBoxRangeQuery boxQuery = new BoundingBoxRangeQuery(query);
+
+        for (int i = 0; i < 10_000; i++) {
+            Coordinate candidate = Coordinate.of(
+                    BigDecimal.valueOf(51.0 + 4.0 * random.nextDouble()),
+                    BigDecimal.valueOf(-9.0 + 5.0 * random.nextDouble()));
+
+            // then
+            assertThat(boxQuery.contains(candidate), is(equalTo(query.contains(candidate))));
+        }
+    }
+}
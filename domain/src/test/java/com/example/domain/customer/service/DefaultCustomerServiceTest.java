@@ -1,8 +1,23 @@
 package com.example.domain.customer.service;
 
+import com.example.domain.customer.dto.CustomerRecord;
+import com.example.domain.customer.index.CustomerIndex;
+import com.example.domain.customer.index.CustomerIndexType;
+import com.example.domain.customer.index.VantagePointCustomerIndex;
 import com.example.domain.customer.model.Customer;
+import com.example.domain.customer.store.CustomerStore;
+import com.example.domain.customer.store.HeapCustomerStore;
+import com.example.domain.customer.store.UnitVectorCustomerStore;
+import com.example.domain.geocoord.model.BoundingBox;
 import com.example.domain.geocoord.model.Coordinate;
 import com.example.domain.geocoord.service.CoordinateService;
+import com.example.domain.geocoord.service.DefaultCoordinateService;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.LawOfCosinesDistanceStrategy;
+import com.example.domain.geocoord.service.MathMode;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import com.example.domain.geocoord.service.VincentyDistanceStrategy;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -12,21 +27,31 @@ import javax.validation.Validation;
 import javax.validation.executable.ExecutableValidator;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
 import java.util.Set;
 
 import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.hasToString;
+import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 
 public class DefaultCustomerServiceTest {
 
@@ -60,7 +85,9 @@ public class DefaultCustomerServiceTest {
         Coordinate location = Coordinate.of("0.0", "0.0"); // actual location doesn't matter since the mock is instrumented
         double radius = 100_000; // 100 km
 
-        given(coordService.greatCircleDistanceOnEarthBetween(any(Coordinate.class), any(Coordinate.class))).willReturn(radius);
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+        given(coordService.prepareRangeQuery(location, radius)).willReturn(query);
+        given(query.contains(customer.getLocation())).willReturn(true);
 
         // when
         boolean withinRange = customerService.isCustomerWithinRange(customer, location, radius);
@@ -76,7 +103,9 @@ public class DefaultCustomerServiceTest {
         Coordinate location = Coordinate.of("0.0", "0.0"); // actual location doesn't matter since the mock is instrumented
         double radius = 100_000; // 100 km
 
-        given(coordService.greatCircleDistanceOnEarthBetween(any(Coordinate.class), any(Coordinate.class))).willReturn(radius + 1);
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+        given(coordService.prepareRangeQuery(location, radius)).willReturn(query);
+        given(query.contains(customer.getLocation())).willReturn(false);
 
         // when
         boolean withinRange = customerService.isCustomerWithinRange(customer, location, radius);
@@ -85,6 +114,30 @@ public class DefaultCustomerServiceTest {
         assertThat(withinRange, is(false));
     }
 
+    @Test
+    public void isCustomerWithinRange_shouldAgreeWithStrictMath_whenCustomerIsNearRadiusBoundary() {
+        // given
+        CoordinateService strictService = new DefaultCoordinateService();
+        CustomerService approxCustomerService = new DefaultCustomerService(
+                new DefaultCoordinateService(new LawOfCosinesDistanceStrategy(MathMode.APPROX)));
+        Coordinate location = Coordinate.of("53.339428", "-6.257664");
+        Random random = new Random(42);
+
+        for (int i = 0; i < 1_000; i++) {
+            Customer customer = new Customer((long) i, "Customer " + i, Coordinate.of(
+                    BigDecimal.valueOf(52_000_000 + random.nextInt(3_000_000), 6),
+                    BigDecimal.valueOf(-8_000_000 + random.nextInt(3_000_000), 6)));
+            double distance = strictService.distanceBetween(location, customer.getLocation());
+            double radius = distance + (random.nextBoolean() ? 1e-4 : -1e-4); // 0.1 mm
+
+            // when
+            boolean withinRange = approxCustomerService.isCustomerWithinRange(customer, location, radius);
+
+            // then
+            assertThat(withinRange, is(distance <= radius));
+        }
+    }
+
     @Test
     public void isCustomerWithinRange_shouldRequireNonNullCustomer() throws Exception {
         // given
@@ -235,4 +288,323 @@ public class DefaultCustomerServiceTest {
         assertThat(violations, is(notNullValue()));
         assertThat(violations, is(empty()));
     }
+
+    @Test
+    public void prepareRangeQuery_shouldWrapQueryPreparedByCoordinateServiceInBoundingBox() {
+        // given
+        Coordinate location = Coordinate.of("0.0", "0.0");
+        double radius = 100_000; // 100 km
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+
+        given(coordService.prepareRangeQuery(location, radius)).willReturn(query);
+        given(query.getTarget()).willReturn(location);
+        given(query.getRadius()).willReturn(radius);
+        given(query.getDistanceStrategy()).willReturn(new HaversineDistanceStrategy());
+        given(query.contains(any(Coordinate.class))).willReturn(true);
+
+        // when
+        PreparedRangeQuery preparedQuery = customerService.prepareRangeQuery(location, radius);
+
+        // then
+        assertThat(preparedQuery, is(instanceOf(BoundingBoxRangeQuery.class)));
+        assertThat(preparedQuery.contains(Coordinate.of("0.5", "0.5")), is(true));
+        assertThat(preparedQuery.contains(Coordinate.of("1.0", "0.0")), is(false));
+    }
+
+    @Test
+    public void isCustomerWithinRange_shouldReturnTrue_whenPreparedQueryContainsCustomerLocation() {
+        // given
+        Coordinate customerLocation = Coordinate.of("0.0", "0.0");
+        Customer customer = new Customer(1L, "John Smith", customerLocation);
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+
+        given(query.contains(customerLocation)).willReturn(true);
+
+        // when
+        boolean withinRange = customerService.isCustomerWithinRange(customer, query);
+
+        // then
+        assertThat(withinRange, is(true));
+        verify(query).contains(customerLocation);
+    }
+
+    @Test
+    public void isCustomerWithinRange_shouldReturnFalse_whenPreparedQueryDoesNotContainCustomerLocation() {
+        // given
+        Coordinate customerLocation = Coordinate.of("0.0", "0.0");
+        Customer customer = new Customer(1L, "John Smith", customerLocation);
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+
+        given(query.contains(customerLocation)).willReturn(false);
+
+        // when
+        boolean withinRange = customerService.isCustomerWithinRange(customer, query);
+
+        // then
+        assertThat(withinRange, is(false));
+    }
+
+    @Test
+    public void isCustomerWithinRange_shouldRequireNonNullPreparedQuery() throws Exception {
+        // given
+        Method isCustomerWithinRange = customerService.getClass().getDeclaredMethod("isCustomerWithinRange", Customer.class, PreparedRangeQuery.class);
+        Object[] invalidArgs = new Object[]{
+                /* valid customer */ new Customer(1L, "John Smith", Coordinate.of(new BigDecimal("0.0"), new BigDecimal("0.0"))),
+                /* invalid query  */ null
+        };
+
+        // when
+        Set<ConstraintViolation<DefaultCustomerService>> violations = validator.validateParameters(customerService, isCustomerWithinRange, invalidArgs);
+
+        // then
+        assertThat(violations, is(notNullValue()));
+        assertThat(violations, hasItem(
+                allOf(
+                        hasProperty("propertyPath", hasToString("isCustomerWithinRange.query")),
+                        hasProperty("invalidValue", nullValue()),
+                        hasProperty("message", equalTo("must not be null"))
+                )));
+    }
+
+    @Test
+    public void addCustomer_shouldAddCustomerRecordToStore() {
+        // given
+        CustomerStore.Builder store = HeapCustomerStore.builder();
+        CustomerRecord customerRecord = new CustomerRecord(1L, "John Smith", new BigDecimal("53.2451022"), new BigDecimal("-6.238335"));
+
+        // when
+        CustomerStore.Builder returned = customerService.addCustomer(store, customerRecord);
+
+        // then
+        assertThat(returned, is(store));
+        assertThat(store.build().getCustomer(0),
+                is(new Customer(1L, "John Smith", Coordinate.of("53.2451022", "-6.238335"))));
+    }
+
+    @Test
+    public void addCustomer_shouldRequireValidCustomerRecord() throws Exception {
+        // given
+        Method addCustomer = customerService.getClass().getDeclaredMethod("addCustomer", CustomerStore.Builder.class, CustomerRecord.class);
+        Object[] invalidArgs = new Object[]{
+                /* valid store            */ HeapCustomerStore.builder(),
+                /* invalid customer record */ new CustomerRecord(null, "John Smith", BigDecimal.ZERO, BigDecimal.ZERO)
+        };
+
+        // when
+        Set<ConstraintViolation<DefaultCustomerService>> violations = validator.validateParameters(customerService, addCustomer, invalidArgs);
+
+        // then
+        assertThat(violations, is(notNullValue()));
+        assertThat(violations, hasItem(
+                allOf(
+                        hasProperty("propertyPath", hasToString("addCustomer.customerRecord.userId")),
+                        hasProperty("message", equalTo("user ID must not be null"))
+                )));
+    }
+
+    @Test
+    public void findCustomersWithinRange_shouldReturnRowsWhichTheCoordinateServiceFiltersWithinBoundingBox() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(new CustomerRecord(1L, "John Smith", new BigDecimal("1.0"), new BigDecimal("1.0")))
+                .add(new CustomerRecord(2L, "Jane Doe", new BigDecimal("2.0"), new BigDecimal("2.0")))
+                .add(new CustomerRecord(3L, "Joe Bloggs", new BigDecimal("1.0"), new BigDecimal("3.0")))
+                .add(new CustomerRecord(4L, "Mary Major", new BigDecimal("-40.0"), new BigDecimal("2.0")))
+                .build();
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+        given(query.getBoundingBox()).willReturn(BoundingBox.around(Coordinate.of("2.0", "2.0"), 0.1));
+        willAnswer(invocation -> {
+            BitSet hits = invocation.getArgument(5);
+            hits.set(0);
+            hits.set(2);
+            return null;
+        }).given(coordService).withinRange(eq(query), any(double[].class), any(double[].class),
+                eq(0), eq(3), any(BitSet.class));
+
+        // when
+        BitSet rows = customerService.findCustomersWithinRange(store, query);
+
+        // then
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        assertThat(rows, is(expected));
+        verify(coordService, never()).withinRange(any(PreparedRangeQuery.class), any(double[].class),
+                any(double[].class), any(double[].class), anyInt(), anyInt(), any(BitSet.class));
+    }
+
+    @Test
+    public void findCustomersWithinRange_shouldFilterUnitVectors_whenQueryIsUnitVectorThreshold() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(new CustomerRecord(1L, "John Smith", new BigDecimal("1.0"), new BigDecimal("1.0")))
+                .add(new CustomerRecord(2L, "Jane Doe", new BigDecimal("2.0"), new BigDecimal("2.0")))
+                .build();
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+        given(query.isUnitVectorThreshold()).willReturn(true);
+        given(query.getBoundingBox()).willReturn(BoundingBox.around(Coordinate.of("2.0", "2.0"), 0.1));
+        willAnswer(invocation -> {
+            BitSet hits = invocation.getArgument(6);
+            hits.set(1);
+            return null;
+        }).given(coordService).withinRange(eq(query), any(double[].class), any(double[].class),
+                any(double[].class), eq(0), eq(2), any(BitSet.class));
+
+        // when
+        BitSet rows = customerService.findCustomersWithinRange(store, query);
+
+        // then
+        BitSet expected = new BitSet();
+        expected.set(1);
+        assertThat(rows, is(expected));
+    }
+
+    @Test
+    public void findCustomersWithinRange_shouldAgreeWithDistanceStrategy_whenCustomersAreNorthOrSouthOfTargetAtTheEquator() {
+        // given
+        CoordinateService vincentyService = new DefaultCoordinateService(new VincentyDistanceStrategy());
+        CustomerService vincentyCustomerService = new DefaultCustomerService(vincentyService);
+        Coordinate location = Coordinate.of("0.0", "0.0");
+        double radius = 100_000; // 100 km
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (int i = 0; i < 200; i++) {
+            BigDecimal latitude = BigDecimal.valueOf(904_300 + i, 6); // meridional boundary is at about 0.9044 degrees
+            builder.add(new CustomerRecord(2L * i, "North " + i, latitude, BigDecimal.ZERO));
+            builder.add(new CustomerRecord(2L * i + 1, "South " + i, latitude.negate(), BigDecimal.ZERO));
+        }
+        CustomerStore store = builder.build();
+        PreparedRangeQuery query = vincentyService.prepareRangeQuery(location, radius);
+
+        // when
+        BitSet rows = vincentyCustomerService.findCustomersWithinRange(store, query);
+
+        // then
+        for (int row = 0; row < store.size(); row++) {
+            Customer customer = store.getCustomer(row);
+            boolean expected = vincentyService.distanceBetween(location, customer.getLocation()) <= radius;
+            assertThat(customer.getName(), rows.get(row), is(expected));
+            assertThat(customer.getName(), query.contains(customer.getLocation()), is(expected));
+            assertThat(customer.getName(), vincentyCustomerService.isCustomerWithinRange(customer, location, radius), is(expected));
+        }
+        assertThat(rows.isEmpty(), is(false));
+    }
+
+    @Test
+    public void findCustomersWithinRange_shouldFilterPrecomputedUnitVectorsWithCoordinateService() {
+        // given
+        CustomerStore store = customerService.precomputeUnitVectors(HeapCustomerStore.builder()
+                .add(new CustomerRecord(1L, "John Smith", new BigDecimal("1.0"), new BigDecimal("1.0")))
+                .build());
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+        given(query.isUnitVectorThreshold()).willReturn(true);
+
+        // when
+        customerService.findCustomersWithinRange(store, query);
+
+        // then
+        verify(coordService).withinRange(eq(query),
+                any(double[].class), any(double[].class), any(double[].class), any(BitSet.class));
+    }
+
+    @Test
+    public void precomputeUnitVectors_shouldReturnViewWithSameCustomers() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(new CustomerRecord(1L, "John Smith", new BigDecimal("1.0"), new BigDecimal("1.0")))
+                .build();
+
+        // when
+        CustomerStore view = customerService.precomputeUnitVectors(store);
+
+        // then
+        assertThat(view, is(instanceOf(UnitVectorCustomerStore.class)));
+        assertThat(view.getCustomer(0), is(store.getCustomer(0)));
+    }
+
+    @Test
+    public void findWithinRange_shouldReturnCustomersOfTheRowsTheIndexFinds() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(new CustomerRecord(1L, "John Smith", new BigDecimal("1.0"), new BigDecimal("1.0")))
+                .add(new CustomerRecord(2L, "Jane Doe", new BigDecimal("2.0"), new BigDecimal("2.0")))
+                .build();
+        Coordinate location = Coordinate.of("0.0", "0.0");
+        double radius = 100_000; // 100 km
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+        CustomerIndex index = mock(CustomerIndex.class);
+        BitSet rows = new BitSet();
+        rows.set(1);
+
+        given(coordService.prepareRangeQuery(location, radius)).willReturn(query);
+        given(query.getTarget()).willReturn(location);
+        given(query.getRadius()).willReturn(radius);
+        given(query.getDistanceStrategy()).willReturn(new HaversineDistanceStrategy());
+        given(index.getStore()).willReturn(store);
+        given(index.withinRange(any(PreparedRangeQuery.class))).willReturn(rows);
+
+        // when
+        List<Customer> customers = customerService.findWithinRange(index, location, radius);
+
+        // then
+        assertThat(customers, contains(store.getCustomer(1)));
+    }
+
+    @Test
+    public void findWithinRange_shouldPrepareQueryWithGivenDistanceStrategy() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(new CustomerRecord(1L, "John Smith", new BigDecimal("1.0"), new BigDecimal("1.0")))
+                .build();
+        Coordinate location = Coordinate.of("0.0", "0.0");
+        double radius = 100_000; // 100 km
+        DistanceStrategy distanceStrategy = new HaversineDistanceStrategy();
+        PreparedRangeQuery query = mock(PreparedRangeQuery.class);
+        CustomerIndex index = mock(CustomerIndex.class);
+        BitSet rows = new BitSet();
+        rows.set(0);
+
+        given(coordService.prepareRangeQuery(location, radius, distanceStrategy)).willReturn(query);
+        given(query.getTarget()).willReturn(location);
+        given(query.getRadius()).willReturn(radius);
+        given(query.getDistanceStrategy()).willReturn(distanceStrategy);
+        given(index.getStore()).willReturn(store);
+        given(index.withinRange(any(PreparedRangeQuery.class))).willReturn(rows);
+
+        // when
+        List<Customer> customers = customerService.findWithinRange(index, location, radius, distanceStrategy);
+
+        // then
+        assertThat(customers, contains(store.getCustomer(0)));
+        verify(coordService).prepareRangeQuery(location, radius, distanceStrategy);
+    }
+
+    @Test
+    public void findNearestCustomers_shouldReturnCustomersOfTheRowsTheIndexFinds_inOrder() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(new CustomerRecord(1L, "John Smith", new BigDecimal("1.0"), new BigDecimal("1.0")))
+                .add(new CustomerRecord(2L, "Jane Doe", new BigDecimal("2.0"), new BigDecimal("2.0")))
+                .build();
+        VantagePointCustomerIndex index = VantagePointCustomerIndex.of(store, new DefaultCoordinateService());
+
+        // when
+        List<Customer> customers = customerService.findNearestCustomers(index, Coordinate.of("2.5", "2.5"), 2);
+
+        // then
+        assertThat(customers, contains(store.getCustomer(1), store.getCustomer(0)));
+    }
+
+    @Test
+    public void indexCustomers_shouldBuildIndexOfGivenType() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(new CustomerRecord(1L, "John Smith", new BigDecimal("1.0"), new BigDecimal("1.0")))
+                .build();
+
+        // when
+        CustomerIndex index = customerService.indexCustomers(store, CustomerIndexType.GEOHASH);
+
+        // then
+        assertThat(index.getStore(), is(store));
+    }
 }
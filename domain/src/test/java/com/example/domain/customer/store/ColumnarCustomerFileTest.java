@@ -0,0 +1,307 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class ColumnarCustomerFileTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void read_shouldReturnCustomersWritten() throws IOException {
+        // given
+        Random random = new Random(42);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < 1_000; userId++) {
+            builder.add(random.nextLong(), "Customer Ó " + userId, FixedPointCoordinate.pack(
+                    random.nextInt(1_800_000_001) - 900_000_000, (int) (random.nextDouble() * 3_600_000_000L - 1_800_000_000)));
+        }
+        CustomerStore store = builder.build();
+        Path file = temporaryFolder.newFile().toPath();
+
+        // when
+        ColumnarCustomerFile.write(store, file);
+        CustomerStore read = ColumnarCustomerFile.read(file, HeapCustomerStore.builder()).build();
+
+        // then
+        assertThat(read.size(), is(store.size()));
+        for (int row = 0; row < store.size(); row++) {
+            assertThat(read.getUserId(row), is(store.getUserId(row)));
+            assertThat(read.getName(row), is(store.getName(row)));
+            assertThat(read.getLocation(row), is(store.getLocation(row)));
+        }
+    }
+
+    @Test
+    public void read_shouldReturnCustomersWritten_whenColumnsAreDeltaVarintEncoded() throws IOException {
+        // given
+        Random random = new Random(42);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < 1_000; userId++) {
+            builder.add(random.nextLong(), "Customer " + userId, FixedPointCoordinate.pack(
+                    random.nextInt(1_800_000_001) - 900_000_000, (int) (random.nextDouble() * 3_600_000_000L - 1_800_000_000)));
+        }
+        CustomerStore store = builder.build();
+        Path file = temporaryFolder.newFile().toPath();
+
+        // when
+        ColumnarCustomerFile.write(store, file, 100, ColumnEncoding.DELTA_VARINT);
+        CustomerStore read = ColumnarCustomerFile.read(file, HeapCustomerStore.builder()).build();
+
+        // then
+        assertThat(read.size(), is(store.size()));
+        for (int row = 0; row < store.size(); row++) {
+            assertThat(read.getUserId(row), is(store.getUserId(row)));
+            assertThat(read.getName(row), is(store.getName(row)));
+            assertThat(read.getLocation(row), is(store.getLocation(row)));
+        }
+    }
+
+    @Test
+    public void write_shouldWriteSmallerColumns_whenDeltaVarintEncodingSortedCustomers() throws IOException {
+        // given
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (int i = 0; i < 1_000; i++) {
+            builder.add(i, "", FixedPointCoordinate.pack(533_000_000 + i * 100, -62_000_000 - i * 100));
+        }
+        CustomerStore store = builder.build();
+        Path plain = temporaryFolder.newFile().toPath();
+        Path compressed = temporaryFolder.newFile().toPath();
+
+        // when
+        ColumnarCustomerFile.write(store, plain, 100, ColumnEncoding.PLAIN);
+        ColumnarCustomerFile.write(store, compressed, 100, ColumnEncoding.DELTA_VARINT);
+
+        // then
+        ByteBuffer plainHeader = ByteBuffer.wrap(Files.readAllBytes(plain)).order(ByteOrder.LITTLE_ENDIAN);
+        ByteBuffer compressedHeader = ByteBuffer.wrap(Files.readAllBytes(compressed)).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(plainHeader.getInt(40), is(ColumnEncoding.PLAIN.ordinal()));
+        assertThat(plainHeader.getLong(48), is(1_000L * 16));
+        assertThat(compressedHeader.getInt(40), is(ColumnEncoding.DELTA_VARINT.ordinal()));
+        assertThat(compressedHeader.getLong(48), is(lessThan(1_000L * 16 / 3)));
+    }
+
+    @Test
+    public void write_shouldWriteHeaderWithRowCountAndBoundingBox() throws IOException {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(1L, "John Smith", FixedPointCoordinate.pack(532_451_022, -62_383_350))
+                .add(2L, "Jane Doe", FixedPointCoordinate.pack(529_863_750, -60_437_010))
+                .build();
+        Path file = temporaryFolder.newFile().toPath();
+
+        // when
+        ColumnarCustomerFile.write(store, file);
+
+        // then
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        assertThat(new String(Arrays.copyOf(header.array(), 4), UTF_8), is("CUST"));
+        assertThat(header.getInt(4), is(ColumnarCustomerFile.VERSION));
+        assertThat(header.getLong(8), is(2L));
+        assertThat(header.getInt(16), is(529_863_750));
+        assertThat(header.getInt(20), is(532_451_022));
+        assertThat(header.getInt(24), is(-62_383_350));
+        assertThat(header.getInt(28), is(-60_437_010));
+        assertThat(header.getLong(32), is(18L));
+        assertThat(Files.size(file), is(ColumnarCustomerFile.HEADER_SIZE + 2 * 24L + 8L + 18L + 8L + 32L));
+    }
+
+    @Test
+    public void write_shouldWriteZoneMapOfEachBlockInFooter() throws IOException {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(3L, "A", FixedPointCoordinate.pack(10, -10))
+                .add(1L, "B", FixedPointCoordinate.pack(30, -30))
+                .add(7L, "C", FixedPointCoordinate.pack(20, -20))
+                .build();
+        Path file = temporaryFolder.newFile().toPath();
+
+        // when
+        ColumnarCustomerFile.write(store, file, 2);
+
+        // then
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        int footer = ColumnarCustomerFile.HEADER_SIZE + 3 * 24 + 8 + 3;
+        assertThat(bytes.getInt(footer), is(2));
+        assertThat(bytes.getInt(footer + 4), is(2));
+        int zoneMaps = footer + 8;
+        assertThat(bytes.getInt(zoneMaps), is(10));
+        assertThat(bytes.getInt(zoneMaps + 4), is(30));
+        assertThat(bytes.getInt(zoneMaps + 8), is(-30));
+        assertThat(bytes.getInt(zoneMaps + 12), is(-10));
+        assertThat(bytes.getLong(zoneMaps + 16), is(1L));
+        assertThat(bytes.getLong(zoneMaps + 24), is(3L));
+        assertThat(bytes.getInt(zoneMaps + 32), is(20));
+        assertThat(bytes.getInt(zoneMaps + 36), is(20));
+        assertThat(bytes.getInt(zoneMaps + 40), is(-20));
+        assertThat(bytes.getInt(zoneMaps + 44), is(-20));
+        assertThat(bytes.getLong(zoneMaps + 48), is(7L));
+        assertThat(bytes.getLong(zoneMaps + 56), is(7L));
+        assertThat(bytes.capacity(), is(zoneMaps + 64));
+    }
+
+    @Test
+    public void write_shouldThrowIllegalArgumentException_whenBlockSizeIsNotPositive() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("block size must be positive");
+
+        // when
+        ColumnarCustomerFile.write(HeapCustomerStore.builder().build(), file, 0);
+    }
+
+    @Test
+    public void read_shouldReturnEmptyStore_whenEmptyStoreWasWritten() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(HeapCustomerStore.builder().build(), file);
+
+        // when
+        CustomerStore read = ColumnarCustomerFile.read(file, HeapCustomerStore.builder()).build();
+
+        // then
+        assertThat(read.size(), is(0));
+    }
+
+    @Test
+    public void isColumnarCustomerFile_shouldReturnTrue_whenFileStartsWithMagicNumber() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(HeapCustomerStore.builder().build(), file);
+
+        // when
+        boolean columnar = ColumnarCustomerFile.isColumnarCustomerFile(file);
+
+        // then
+        assertThat(columnar, is(true));
+    }
+
+    @Test
+    public void isColumnarCustomerFile_shouldReturnFalse_whenFileIsJsonLines() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, "{\"latitude\": \"52.986375\", \"user_id\": 12}".getBytes(UTF_8));
+
+        // when
+        boolean columnar = ColumnarCustomerFile.isColumnarCustomerFile(file);
+
+        // then
+        assertThat(columnar, is(false));
+    }
+
+    @Test
+    public void isColumnarCustomerFile_shouldReturnFalse_whenFileIsShorterThanMagicNumber() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, "CU".getBytes(UTF_8));
+
+        // when
+        boolean columnar = ColumnarCustomerFile.isColumnarCustomerFile(file);
+
+        // then
+        assertThat(columnar, is(false));
+    }
+
+    @Test
+    public void read_shouldThrowIOException_whenFileIsTruncated() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(HeapCustomerStore.builder().add(1L, "John Smith", 0L).build(), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+
+        // then
+        thrown.expect(IOException.class);
+        thrown.expectMessage(file + " is truncated or corrupted");
+
+        // when
+        ColumnarCustomerFile.read(file, HeapCustomerStore.builder());
+    }
+
+    @Test
+    public void read_shouldThrowIOException_whenBlockOffsetIsBeyondColumns() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(randomStore(100, 17), file, 10, ColumnEncoding.DELTA_VARINT);
+        corruptBlockOffset(file, 5, Integer.MAX_VALUE);
+
+        // then
+        thrown.expect(IOException.class);
+        thrown.expectMessage(file + " is truncated or corrupted");
+
+        // when
+        ColumnarCustomerFile.read(file, HeapCustomerStore.builder());
+    }
+
+    @Test
+    public void read_shouldThrowIOException_whenBlockIsShorterThanItsRows() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(randomStore(100, 19), file, 10, ColumnEncoding.DELTA_VARINT);
+        // block 0 ends where it starts
+        corruptBlockOffset(file, 1, 0);
+
+        // then
+        thrown.expect(IOException.class);
+        thrown.expectMessage(file + " is truncated or corrupted");
+
+        // when
+        ColumnarCustomerFile.read(file, HeapCustomerStore.builder());
+    }
+
+    @Test
+    public void read_shouldThrowIOException_whenFileIsNotAColumnarCustomerFile() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, new byte[ColumnarCustomerFile.HEADER_SIZE]);
+
+        // then
+        thrown.expect(IOException.class);
+        thrown.expectMessage(file + " is not a columnar customer file");
+
+        // when
+        ColumnarCustomerFile.read(file, HeapCustomerStore.builder());
+    }
+
+    private static CustomerStore randomStore(int size, long seed) {
+        Random random = new Random(seed);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < size; userId++) {
+            builder.add(random.nextLong(), "Customer " + userId, FixedPointCoordinate.pack(
+                    random.nextInt(1_800_000_001) - 900_000_000, random.nextInt(1_800_000_001) - 900_000_000));
+        }
+        return builder.build();
+    }
+
+    /**
+     * Overwrites the given entry of the block offsets of a delta/varint encoded file, which start its columns.
+     */
+    private static void corruptBlockOffset(Path file, int index, long offset) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.putLong(ColumnarCustomerFile.HEADER_SIZE + index * Long.BYTES, offset);
+        Files.write(file, bytes.array());
+    }
+}
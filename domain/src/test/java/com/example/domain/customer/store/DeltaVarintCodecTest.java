@@ -0,0 +1,72 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class DeltaVarintCodecTest {
+
+    @Test
+    public void decode_shouldReturnValuesEncoded() {
+        // given
+        Random random = new Random(42);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        builder.add(Long.MIN_VALUE, "", FixedPointCoordinate.pack(-900_000_000, -1_800_000_000));
+        builder.add(Long.MAX_VALUE, "", FixedPointCoordinate.pack(900_000_000, 1_800_000_000));
+        for (int i = 0; i < 100; i++) {
+            builder.add(random.nextLong(), "", FixedPointCoordinate.pack(
+                    random.nextInt(1_800_000_001) - 900_000_000, (int) (random.nextDouble() * 3_600_000_000L - 1_800_000_000)));
+        }
+        CustomerStore store = builder.build();
+        int[] latitudes = new int[store.size() - 1];
+        int[] longitudes = new int[store.size() - 1];
+        long[] userIds = new long[store.size() - 1];
+
+        // when
+        byte[] block = DeltaVarintCodec.encodeBlock(store, 1, store.size());
+        int position = DeltaVarintCodec.decodeCoordinates(block, store.size() - 1, latitudes, longitudes);
+        DeltaVarintCodec.decodeUserIds(block, position, store.size() - 1, userIds);
+
+        // then
+        for (int row = 1; row < store.size(); row++) {
+            assertThat(latitudes[row - 1], is(FixedPointCoordinate.latitudeUnits(store.getLocation(row))));
+            assertThat(longitudes[row - 1], is(FixedPointCoordinate.longitudeUnits(store.getLocation(row))));
+            assertThat(userIds[row - 1], is(store.getUserId(row)));
+        }
+    }
+
+    @Test
+    public void encodeBlock_shouldEncodeEachCloseValueInOneOrTwoBytes() {
+        // given
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (int i = 0; i < 100; i++) {
+            builder.add(1_000 + i, "", FixedPointCoordinate.pack(533_000_000 + i * 20 * (i % 2 == 0 ? 1 : -1),
+                    -62_000_000 + i * 100));
+        }
+        CustomerStore store = builder.build();
+
+        // when
+        byte[] block = DeltaVarintCodec.encodeBlock(store, 0, store.size());
+
+        // then: the first values take 5, 4 and 2 bytes
+        assertThat(block.length, is(lessThanOrEqualTo(5 + 4 + 2 + 99 * (2 + 2 + 1))));
+    }
+
+    @Test
+    public void unzigzag_shouldReturnValueZigzagged() {
+        for (long value : new long[]{0, 1, -1, 2, -2, Long.MAX_VALUE, Long.MIN_VALUE}) {
+            // when
+            long unzigzagged = DeltaVarintCodec.unzigzag(DeltaVarintCodec.zigzag(value));
+
+            // then
+            assertThat(unzigzagged, is(value));
+        }
+        assertThat(DeltaVarintCodec.zigzag(-1), is(1L));
+        assertThat(DeltaVarintCodec.zigzag(1), is(2L));
+    }
+}
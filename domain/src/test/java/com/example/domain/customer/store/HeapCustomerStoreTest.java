@@ -0,0 +1,238 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.customer.dto.CustomerRecord;
+import com.example.domain.customer.model.Customer;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.DefaultCoordinateService;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import com.example.domain.geocoord.service.VincentyDistanceStrategy;
+import com.example.domain.geocoord.service.Wgs84DistanceStrategy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class HeapCustomerStoreTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void build_shouldReturnEmptyStore_whenNoCustomerWasAdded() {
+        // when
+        CustomerStore store = HeapCustomerStore.builder().build();
+
+        // then
+        assertThat(store.size(), is(0));
+        assertThat(store.customers(store.withinRange(new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("0.0", "0.0"), 100_000))).collect(Collectors.toList()), is(empty()));
+    }
+
+    @Test
+    public void store_shouldReturnColumnValuesOfEachRow() {
+        // given
+        CustomerRecord johnSmith = new CustomerRecord(1L, "John Smith", new BigDecimal("53.2451022"), new BigDecimal("-6.238335"));
+        CustomerRecord seanOBrien = new CustomerRecord(12L, "Seán Ó Briain", new BigDecimal("-90"), new BigDecimal("180.0"));
+
+        // when
+        CustomerStore store = HeapCustomerStore.builder().add(johnSmith).add(seanOBrien).build();
+
+        // then
+        assertThat(store.size(), is(2));
+        assertThat(store.getUserId(0), is(1L));
+        assertThat(store.getName(0), is("John Smith"));
+        assertThat(store.getLocation(0), is(johnSmith.encodeLocation()));
+        assertThat(store.getUserId(1), is(12L));
+        assertThat(store.getName(1), is("Seán Ó Briain"));
+        assertThat(store.getLocation(1), is(seanOBrien.encodeLocation()));
+    }
+
+    @Test
+    public void getNameBytes_shouldReturnUtf8EncodedName() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(1L, "Seán Ó Briain", 0L)
+                .add(2L, "\uD83D\uDE00 \uD800", 0L)
+                .build();
+
+        // when
+        byte[] name = store.getNameBytes(0);
+
+        // then
+        assertThat(name, is("Seán Ó Briain".getBytes(UTF_8)));
+        assertThat(store.getNameLength(0), is(15));
+        assertThat(store.getNameBytes(1), is("\uD83D\uDE00 \uD800".getBytes(UTF_8)));
+        assertThat(store.getName(1), is(new String("\uD83D\uDE00 \uD800".getBytes(UTF_8), UTF_8)));
+    }
+
+    @Test
+    public void add_shouldCopyUtf8EncodedNameAsIs() {
+        // given
+        byte[] names = "John SmithSeán Ó Briain".getBytes(UTF_8);
+
+        // when
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(1L, names, 0, 10, 0L)
+                .add(12L, names, 10, 15, 0L)
+                .build();
+
+        // then
+        assertThat(store.getName(0), is("John Smith"));
+        assertThat(store.getName(1), is("Seán Ó Briain"));
+    }
+
+    @Test
+    public void store_shouldReturnSameRadiansAsCoordinate() {
+        // given
+        Coordinate location = Coordinate.of("53.2451022", "-6.238335");
+
+        // when
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(1L, "John Smith", FixedPointCoordinate.encode(location))
+                .build();
+
+        // then
+        assertThat(store.getLatitudeInRadians(0), is(location.getLatitudeInRadians()));
+        assertThat(store.getLongitudeInRadians(0), is(location.getLongitudeInRadians()));
+    }
+
+    @Test
+    public void getCustomer_shouldMaterializeCustomerOfRow() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(new CustomerRecord(4L, "Ian Kehoe", new BigDecimal("53.2451022"), new BigDecimal("-6.238335")))
+                .build();
+
+        // when
+        Customer customer = store.getCustomer(0);
+
+        // then
+        assertThat(customer, is(new Customer(4L, "Ian Kehoe", Coordinate.of("53.2451022", "-6.238335"))));
+    }
+
+    @Test
+    public void getUserId_shouldThrowIndexOutOfBoundsException_whenRowIsOutOfRange() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder().add(1L, "John Smith", 0L).build();
+
+        // then
+        thrown.expect(IndexOutOfBoundsException.class);
+        thrown.expectMessage("row 1 out of [0, 1)");
+
+        // when
+        store.getUserId(1);
+    }
+
+    @Test
+    public void builder_shouldGrowBeyondExpectedSize() {
+        // given
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder(1);
+
+        // when
+        for (long userId = 0; userId < 100; userId++) {
+            builder.add(userId, "Customer " + userId, FixedPointCoordinate.pack((int) userId, (int) -userId));
+        }
+        CustomerStore store = builder.build();
+
+        // then
+        assertThat(store.size(), is(100));
+        for (int row = 0; row < 100; row++) {
+            assertThat(store.getUserId(row), is((long) row));
+            assertThat(store.getName(row), is("Customer " + row));
+            assertThat(store.getLocation(row), is(FixedPointCoordinate.pack(row, -row)));
+        }
+    }
+
+    @Test
+    public void withinRange_shouldMatchPreparedQueryOnMaterializedCustomers() {
+        // given
+        Random random = new Random(42);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < 1_000; userId++) {
+            int latitudeUnits = 530_000_000 + random.nextInt(20_000_000);
+            int longitudeUnits = -70_000_000 + random.nextInt(20_000_000);
+            builder.add(userId, "Customer " + userId, FixedPointCoordinate.pack(latitudeUnits, longitudeUnits));
+        }
+        CustomerStore store = builder.build();
+        PreparedRangeQuery query = new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000);
+
+        // when
+        BitSet rows = store.withinRange(query);
+
+        // then
+        List<Customer> expected = store.customers(allRows(store))
+                .filter(c -> query.contains(c.getLocation()))
+                .collect(Collectors.toList());
+        assertThat(rows.cardinality(), is(expected.size()));
+        assertThat(store.customers(rows).collect(Collectors.toList()), is(equalTo(expected)));
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRows_whenScanGoesThroughBatchFilterOfCoordinateService() {
+        // given
+        Random random = new Random(43);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < 5_000; userId++) {
+            int latitudeUnits = 523_000_000 + random.nextInt(20_000_000);
+            int longitudeUnits = -82_000_000 + random.nextInt(40_000_000);
+            builder.add(userId, "Customer " + userId, FixedPointCoordinate.pack(latitudeUnits, longitudeUnits));
+        }
+        CustomerStore store = builder.build();
+
+        for (DistanceStrategy distanceStrategy : Arrays.asList(new HaversineDistanceStrategy(),
+                new VincentyDistanceStrategy(), new Wgs84DistanceStrategy())) {
+            PreparedRangeQuery query = distanceStrategy
+                    .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000);
+
+            // when
+            BitSet rows = store.withinRange(query, new DefaultCoordinateService(distanceStrategy));
+
+            // then
+            assertThat(rows.cardinality(), is(greaterThan(CandidateBatch.CAPACITY)));
+            assertThat(rows, is(equalTo(store.withinRange(query))));
+        }
+    }
+
+    @Test
+    public void customers_shouldMaterializeOnlyGivenRowsInRowOrder() {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(3L, "Joe Bloggs", 0L)
+                .add(1L, "John Smith", 0L)
+                .add(2L, "Jane Doe", 0L)
+                .build();
+        BitSet rows = new BitSet();
+        rows.set(0);
+        rows.set(2);
+
+        // when
+        List<Long> userIds = store.customers(rows).map(Customer::getUserId).collect(Collectors.toList());
+
+        // then
+        assertThat(userIds, contains(3L, 2L));
+    }
+
+    private static BitSet allRows(CustomerStore store) {
+        BitSet rows = new BitSet();
+        rows.set(0, store.size());
+        return rows;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.model.HilbertCurve;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.arrayWithSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class HilbertOrderTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void sort_shouldReturnEveryRowOnceInHilbertCurveOrder() throws IOException {
+        // given
+        CustomerStore store = randomStore(1_000, 42);
+
+        // when
+        CustomerStore sorted = HilbertOrder.sort(store, 1_000, temporaryFolder.getRoot().toPath());
+
+        // then
+        assertSortedPermutation(sorted, store);
+    }
+
+    @Test
+    public void sort_shouldReturnSameRowsAsInMemorySort_whenRowsDoNotFitInOneRun() throws IOException {
+        // given
+        CustomerStore store = randomStore(1_000, 7);
+        CustomerStore expected = HilbertOrder.sort(store, 1_000, temporaryFolder.getRoot().toPath());
+
+        // when
+        CustomerStore sorted = HilbertOrder.sort(store, 64, temporaryFolder.getRoot().toPath());
+
+        // then
+        assertSortedPermutation(sorted, store);
+        for (int row = 0; row < store.size(); row++) {
+            assertThat(sorted.getCustomer(row), is(expected.getCustomer(row)));
+        }
+    }
+
+    @Test
+    public void sort_shouldDeleteTemporaryFiles() throws IOException {
+        // given
+        CustomerStore store = randomStore(100, 3);
+        File tempDirectory = temporaryFolder.newFolder();
+
+        // when
+        HilbertOrder.sort(store, 10, tempDirectory.toPath());
+
+        // then
+        assertThat(tempDirectory.listFiles(), is(arrayWithSize(0)));
+    }
+
+    @Test
+    public void sort_shouldThrowIllegalArgumentException_whenRunSizeIsNotPositive() throws IOException {
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("run size must be positive");
+
+        // when
+        HilbertOrder.sort(randomStore(1, 1), 0, temporaryFolder.getRoot().toPath());
+    }
+
+    private static CustomerStore randomStore(int size, long seed) {
+        Random random = new Random(seed);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < size; userId++) {
+            builder.add(userId, "Customer " + userId, FixedPointCoordinate.pack(
+                    random.nextInt(1_800_000_001) - 900_000_000,
+                    (int) (random.nextDouble() * 3_600_000_000L - 1_800_000_000)));
+        }
+        return builder.build();
+    }
+
+    private static void assertSortedPermutation(CustomerStore sorted, CustomerStore store) {
+        assertThat(sorted.size(), is(store.size()));
+        Set<Long> userIds = new HashSet<>();
+        for (int row = 0; row < sorted.size(); row++) {
+            userIds.add(sorted.getUserId(row));
+            if (row > 0) {
+                assertThat(HilbertCurve.index(sorted.getLocation(row - 1)),
+                        is(lessThanOrEqualTo(HilbertCurve.index(sorted.getLocation(row)))));
+            }
+        }
+        assertThat(userIds.size(), is(store.size()));
+    }
+}
@@ -0,0 +1,247 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.customer.model.Customer;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.DefaultCoordinateService;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import com.example.domain.geocoord.service.VincentyDistanceStrategy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assert.assertThat;
+
+public class MappedCustomerStoreTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Rule
+    public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    @Test
+    public void open_shouldReturnStoreWithSameRowsAsWrittenStore() throws IOException {
+        // given
+        CustomerStore store = randomStore(1_000, 42);
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(store, file);
+
+        // when
+        CustomerStore mapped = MappedCustomerStore.open(file);
+
+        // then
+        assertSameRows(mapped, store);
+    }
+
+    @Test
+    public void open_shouldReturnStoreWithSameRowsAsWrittenStore_whenColumnsSpanSeveralChunks() throws IOException {
+        // given
+        CustomerStore store = randomStore(1_000, 7);
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(store, file);
+
+        // when
+        CustomerStore mapped = MappedCustomerStore.open(file, 16);
+
+        // then
+        assertSameRows(mapped, store);
+    }
+
+    @Test
+    public void open_shouldReturnStoreWithSameRowsAsWrittenStore_whenColumnsAreDeltaVarintEncoded()
+            throws IOException {
+        // given
+        CustomerStore store = randomStore(1_000, 11);
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(store, file, 64, ColumnEncoding.DELTA_VARINT);
+
+        // when
+        CustomerStore mapped = MappedCustomerStore.open(file, 16);
+
+        // then
+        assertSameRows(mapped, store);
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsWrittenStore() throws IOException {
+        // given
+        CustomerStore store = randomStore(1_000, 3);
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(store, file);
+        PreparedRangeQuery query = new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000);
+
+        // when
+        BitSet rows = MappedCustomerStore.open(file, 64).withinRange(query);
+
+        // then
+        assertThat(rows.isEmpty(), is(false));
+        assertThat(rows, is(equalTo(store.withinRange(query))));
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsWrittenStore_whenBlocksAreSkipped() throws IOException {
+        // given
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (int i = 0; i < 1_000; i++) {
+            // sorted by latitude, from 45 to 65 degrees north
+            builder.add(i, "Customer " + i, FixedPointCoordinate.pack(450_000_000 + i * 200_000, -62_576_640 + i));
+        }
+        CustomerStore store = builder.build();
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(store, file, 10);
+        PreparedRangeQuery query = new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000);
+        MappedCustomerStore mapped = MappedCustomerStore.open(file, 64);
+
+        // when
+        BitSet rows = mapped.withinRange(query);
+
+        // then
+        assertThat(rows.isEmpty(), is(false));
+        assertThat(rows, is(equalTo(store.withinRange(query))));
+        assertThat(mapped.candidateBlocks(query.getBoundingBox()).cardinality(), is(lessThan(100 / 5)));
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsWrittenStore_whenScanGoesThroughBatchFilterOfCoordinateService()
+            throws IOException {
+        // given
+        CustomerStore store = randomStore(1_000, 13);
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(store, file, 100, ColumnEncoding.DELTA_VARINT);
+        MappedCustomerStore mapped = MappedCustomerStore.open(file);
+
+        for (DistanceStrategy distanceStrategy : Arrays.asList(new HaversineDistanceStrategy(),
+                new VincentyDistanceStrategy())) {
+            PreparedRangeQuery query = distanceStrategy
+                    .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000);
+
+            // when
+            BitSet rows = mapped.withinRange(query, new DefaultCoordinateService(distanceStrategy));
+
+            // then
+            assertThat(rows.isEmpty(), is(false));
+            assertThat(rows, is(equalTo(store.withinRange(query))));
+        }
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsWrittenStore_whenColumnsAreDeltaVarintEncoded()
+            throws IOException {
+        // given
+        CustomerStore store = randomStore(1_000, 5);
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(store, file, 100, ColumnEncoding.DELTA_VARINT);
+        PreparedRangeQuery query = new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000);
+
+        // when
+        BitSet rows = MappedCustomerStore.open(file).withinRange(query);
+
+        // then
+        assertThat(rows.isEmpty(), is(false));
+        assertThat(rows, is(equalTo(store.withinRange(query))));
+    }
+
+    @Test
+    public void candidateBlocks_shouldIncludeBlocksOnEitherSideOfTheAntimeridian() throws IOException {
+        // given
+        CustomerStore store = HeapCustomerStore.builder()
+                .add(1L, "East", FixedPointCoordinate.pack(0, 1_799_000_000))
+                .add(2L, "Greenwich", FixedPointCoordinate.pack(0, 0))
+                .add(3L, "West", FixedPointCoordinate.pack(0, -1_799_000_000))
+                .build();
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(store, file, 1);
+        PreparedRangeQuery query = new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("0.0", "180.0"), 100_000);
+
+        // when
+        BitSet blocks = MappedCustomerStore.open(file).candidateBlocks(query.getBoundingBox());
+
+        // then
+        BitSet expected = new BitSet();
+        expected.set(0);
+        expected.set(2);
+        assertThat(blocks, is(equalTo(expected)));
+    }
+
+    @Test
+    public void open_shouldReturnEmptyStore_whenFileHasNoRows() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(HeapCustomerStore.builder().build(), file);
+
+        // when
+        CustomerStore mapped = MappedCustomerStore.open(file);
+
+        // then
+        assertThat(mapped.size(), is(0));
+        assertThat(mapped.withinRange(new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("0.0", "0.0"), 100_000)).isEmpty(), is(true));
+    }
+
+    @Test
+    public void open_shouldThrowIOException_whenFileIsNotAColumnarCustomerFile() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        Files.write(file, new byte[ColumnarCustomerFile.HEADER_SIZE]);
+
+        // then
+        thrown.expect(IOException.class);
+        thrown.expectMessage(file + " is not a columnar customer file");
+
+        // when
+        MappedCustomerStore.open(file);
+    }
+
+    @Test
+    public void getUserId_shouldThrowIndexOutOfBoundsException_whenRowIsOutOfRange() throws IOException {
+        // given
+        Path file = temporaryFolder.newFile().toPath();
+        ColumnarCustomerFile.write(HeapCustomerStore.builder().add(1L, "John Smith", 0L).build(), file);
+        CustomerStore mapped = MappedCustomerStore.open(file);
+
+        // then
+        thrown.expect(IndexOutOfBoundsException.class);
+        thrown.expectMessage("row 1 out of [0, 1)");
+
+        // when
+        mapped.getUserId(1);
+    }
+
+    private static CustomerStore randomStore(int size, long seed) {
+        Random random = new Random(seed);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < size; userId++) {
+            builder.add(userId, "Customer Ó " + Long.toHexString(random.nextLong()), FixedPointCoordinate.pack(
+                    530_000_000 + random.nextInt(20_000_000), -70_000_000 + random.nextInt(20_000_000)));
+        }
+        return builder.build();
+    }
+
+    private static void assertSameRows(CustomerStore actual, CustomerStore expected) {
+        assertThat(actual.size(), is(expected.size()));
+        for (int row = 0; row < expected.size(); row++) {
+            Customer customer = actual.getCustomer(row);
+            assertThat(customer, is(expected.getCustomer(row)));
+            assertThat(actual.getLatitudeInRadians(row), is(expected.getLatitudeInRadians(row)));
+            assertThat(actual.getLongitudeInRadians(row), is(expected.getLongitudeInRadians(row)));
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.customer.dto.CustomerRecord;
+import com.example.domain.customer.model.Customer;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class OffHeapCustomerStoreTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void store_shouldReturnColumnValuesOfEachRow() {
+        // given
+        CustomerRecord johnSmith = new CustomerRecord(1L, "John Smith", new BigDecimal("53.2451022"), new BigDecimal("-6.238335"));
+        CustomerRecord seanOBrien = new CustomerRecord(12L, "Seán Ó Briain", new BigDecimal("-90"), new BigDecimal("180.0"));
+
+        // when
+        CustomerStore store = OffHeapCustomerStore.builder().add(johnSmith).add(seanOBrien).build();
+
+        // then
+        assertThat(store.size(), is(2));
+        assertThat(store.getCustomer(0), is(new Customer(1L, "John Smith", Coordinate.of("53.2451022", "-6.238335"))));
+        assertThat(store.getUserId(1), is(12L));
+        assertThat(store.getName(1), is("Seán Ó Briain"));
+        assertThat(store.getLocation(1), is(seanOBrien.encodeLocation()));
+    }
+
+    @Test
+    public void store_shouldReturnSameRowsAsHeapStore_whenSpanningSeveralSegmentsAndNameBuffers() {
+        // given
+        Random random = new Random(42);
+        OffHeapCustomerStore.Builder offHeapBuilder = OffHeapCustomerStore.builder(64, 100);
+        HeapCustomerStore.Builder heapBuilder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < 1_000; userId++) {
+            long location = FixedPointCoordinate.pack(
+                    530_000_000 + random.nextInt(20_000_000), -70_000_000 + random.nextInt(20_000_000));
+            String name = "Customer " + Long.toHexString(random.nextLong());
+            offHeapBuilder.add(userId, name, location);
+            heapBuilder.add(userId, name, location);
+        }
+
+        // when
+        CustomerStore offHeapStore = offHeapBuilder.build();
+        CustomerStore heapStore = heapBuilder.build();
+
+        // then
+        assertThat(offHeapStore.size(), is(heapStore.size()));
+        for (int row = 0; row < heapStore.size(); row++) {
+            assertThat(offHeapStore.getCustomer(row), is(heapStore.getCustomer(row)));
+            assertThat(offHeapStore.getLatitudeInRadians(row), is(heapStore.getLatitudeInRadians(row)));
+            assertThat(offHeapStore.getLongitudeInRadians(row), is(heapStore.getLongitudeInRadians(row)));
+        }
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRowsAsHeapStore() {
+        // given
+        Random random = new Random(7);
+        OffHeapCustomerStore.Builder offHeapBuilder = OffHeapCustomerStore.builder(128, 1 << 12);
+        HeapCustomerStore.Builder heapBuilder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < 1_000; userId++) {
+            long location = FixedPointCoordinate.pack(
+                    530_000_000 + random.nextInt(20_000_000), -70_000_000 + random.nextInt(20_000_000));
+            offHeapBuilder.add(userId, "Customer " + userId, location);
+            heapBuilder.add(userId, "Customer " + userId, location);
+        }
+        PreparedRangeQuery query = new HaversineDistanceStrategy()
+                .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000);
+
+        // when
+        BitSet rows = offHeapBuilder.build().withinRange(query);
+
+        // then
+        BitSet expected = heapBuilder.build().withinRange(query);
+        assertThat(rows.isEmpty(), is(false));
+        assertThat(rows, is(equalTo(expected)));
+    }
+
+    @Test
+    public void builder_shouldRejectSegmentRowsThatAreNotAPowerOfTwo() {
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("segment rows must be a power of two between 1 and 67108864");
+
+        // when
+        OffHeapCustomerStore.builder(100, 1 << 12);
+    }
+
+    @Test
+    public void add_shouldRejectNamesLongerThanANameBuffer() {
+        // given
+        OffHeapCustomerStore.Builder builder = OffHeapCustomerStore.builder(64, 8);
+
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("name must not be longer than 8 bytes");
+
+        // when
+        builder.add(1L, "John Smith", 0L);
+    }
+
+    @Test
+    public void add_shouldThrowIllegalStateException_whenStoreHasAlreadyBeenBuilt() {
+        // given
+        OffHeapCustomerStore.Builder builder = OffHeapCustomerStore.builder(64, 1 << 12);
+        builder.build();
+
+        // then
+        thrown.expect(IllegalStateException.class);
+        thrown.expectMessage("store has already been built");
+
+        // when
+        builder.add(1L, "John Smith", 0L);
+    }
+
+    @Test
+    public void getName_shouldThrowIndexOutOfBoundsException_whenRowIsOutOfRange() {
+        // given
+        CustomerStore store = OffHeapCustomerStore.builder(64, 1 << 12).add(1L, "John Smith", 0L).build();
+
+        // then
+        thrown.expect(IndexOutOfBoundsException.class);
+        thrown.expectMessage("row -1 out of [0, 1)");
+
+        // when
+        store.getName(-1);
+    }
+
+    @Test
+    public void customers_shouldMaterializeCustomersOfGivenRows() {
+        // given
+        CustomerStore store = OffHeapCustomerStore.builder(1, 16)
+                .add(1L, "John Smith", 0L)
+                .add(2L, "Jane Doe", 0L)
+                .build();
+        BitSet rows = new BitSet();
+        rows.set(1);
+
+        // when
+        List<String> names = store.customers(rows).map(Customer::getName).collect(Collectors.toList());
+
+        // then
+        assertThat(names, is(equalTo(Collections.singletonList("Jane Doe"))));
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.domain.customer.store;
+
+import com.example.domain.customer.model.Customer;
+import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.FixedPointCoordinate;
+import com.example.domain.geocoord.service.DefaultCoordinateService;
+import com.example.domain.geocoord.service.DistanceStrategy;
+import com.example.domain.geocoord.service.EquirectangularDistanceStrategy;
+import com.example.domain.geocoord.service.HaversineDistanceStrategy;
+import com.example.domain.geocoord.service.LawOfCosinesDistanceStrategy;
+import com.example.domain.geocoord.service.PreparedRangeQuery;
+import com.example.domain.geocoord.service.RangeFilterKernels;
+import com.example.domain.geocoord.service.VincentyDistanceStrategy;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class UnitVectorCustomerStoreTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void of_shouldPrecomputeUnitVectorOfEachCustomerLocation() {
+        // given
+        CustomerStore store = randomStore(100);
+
+        // when
+        UnitVectorCustomerStore view = UnitVectorCustomerStore.of(store);
+
+        // then
+        assertThat(view.size(), is(store.size()));
+        for (int row = 0; row < store.size(); row++) {
+            assertThat(view.getCustomer(row), is(store.getCustomer(row)));
+            assertThat(view.getUnitVector(row), is(store.getCustomer(row).getLocation().getUnitVector()));
+        }
+    }
+
+    @Test
+    public void withinRange_shouldMatchPreparedQueryOnMaterializedCustomers() {
+        // given
+        CustomerStore store = randomStore(1_000);
+        UnitVectorCustomerStore view = UnitVectorCustomerStore.of(store);
+
+        for (DistanceStrategy distanceStrategy : Arrays.asList(new LawOfCosinesDistanceStrategy(),
+                new HaversineDistanceStrategy(), new EquirectangularDistanceStrategy(),
+                new VincentyDistanceStrategy())) {
+            PreparedRangeQuery query = distanceStrategy
+                    .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000);
+
+            // when
+            BitSet rows = view.withinRange(query);
+
+            // then
+            List<Customer> expected = store.customers(allRows(store))
+                    .filter(c -> query.contains(c.getLocation()))
+                    .collect(Collectors.toList());
+            assertThat(rows.isEmpty(), is(false));
+            assertThat(view.customers(rows).collect(Collectors.toList()), is(equalTo(expected)));
+        }
+    }
+
+    @Test
+    public void withinRange_shouldReturnSameRows_whenFilteringWithCoordinateServiceKernel() {
+        // given
+        UnitVectorCustomerStore view = UnitVectorCustomerStore.of(randomStore(1_000));
+        DistanceStrategy distanceStrategy = new HaversineDistanceStrategy();
+        DefaultCoordinateService coordinateService =
+                new DefaultCoordinateService(distanceStrategy, RangeFilterKernels.scalar());
+        PreparedRangeQuery query = distanceStrategy
+                .prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000);
+
+        // when
+        BitSet rows = view.withinRange(query, coordinateService);
+
+        // then
+        assertThat(rows, is(equalTo(view.withinRange(query))));
+    }
+
+    @Test
+    public void getUnitVector_shouldThrowIndexOutOfBoundsException_whenRowIsOutOfRange() {
+        // given
+        UnitVectorCustomerStore view = UnitVectorCustomerStore.of(randomStore(1));
+
+        // then
+        thrown.expect(IndexOutOfBoundsException.class);
+        thrown.expectMessage("row 1 out of [0, 1)");
+
+        // when
+        view.getUnitVector(1);
+    }
+
+    private static CustomerStore randomStore(int size) {
+        Random random = new Random(42);
+        HeapCustomerStore.Builder builder = HeapCustomerStore.builder();
+        for (long userId = 0; userId < size; userId++) {
+            int latitudeUnits = 530_000_000 + random.nextInt(20_000_000);
+            int longitudeUnits = -70_000_000 + random.nextInt(20_000_000);
+            builder.add(userId, "Customer " + userId, FixedPointCoordinate.pack(latitudeUnits, longitudeUnits));
+        }
+        return builder.build();
+    }
+
+    private static BitSet allRows(CustomerStore store) {
+        BitSet rows = new BitSet();
+        rows.set(0, store.size());
+        return rows;
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.domain.geocoord.model;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static com.example.domain.geocoord.TestUtils.ERROR;
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static java.lang.StrictMath.PI;
+import static java.lang.StrictMath.asin;
+import static java.lang.StrictMath.atan2;
+import static java.lang.StrictMath.cos;
+import static java.lang.StrictMath.sin;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class BoundingBoxTest {
+
+    @Test
+    public void around_shouldSpanCentralAngleInLatitude() {
+        // given
+        Coordinate center = Coordinate.of("53.339428", "-6.257664");
+        double centralAngle = 100_000.0 / MEAN_EARTH_RADIUS;
+
+        // when
+        BoundingBox box = BoundingBox.around(center, centralAngle);
+
+        // then
+        assertThat(box.getMinLatitude(), is(closeTo(center.getLatitudeInRadians() - centralAngle, ERROR)));
+        assertThat(box.getMaxLatitude(), is(closeTo(center.getLatitudeInRadians() + centralAngle, ERROR)));
+        assertThat(box.crossesAntimeridian(), is(false));
+    }
+
+    @Test
+    public void around_shouldWrapLongitudes_whenCenterIsCloseToAntimeridian() {
+        // given
+        Coordinate center = Coordinate.of("0.0", "179.9");
+
+        // when
+        BoundingBox box = BoundingBox.around(center, 1.0 * PI / 180.0);
+
+        // then
+        assertThat(box.crossesAntimeridian(), is(true));
+        assertThat(box.contains(0.0, PI), is(true));
+        assertThat(box.contains(0.0, -PI), is(true));
+        assertThat(box.contains(0.0, -179.5 * PI / 180.0), is(true));
+        assertThat(box.contains(0.0, -178.0 * PI / 180.0), is(false));
+        assertThat(box.contains(0.0, 178.0 * PI / 180.0), is(false));
+    }
+
+    @Test
+    public void around_shouldSpanAllLongitudes_whenRangeCoversPole() {
+        // given
+        Coordinate center = Coordinate.of("89.5", "0.0");
+
+        // when
+        BoundingBox box = BoundingBox.around(center, 1.0 * PI / 180.0);
+
+        // then
+        assertThat(box.getMaxLatitude(), is(closeTo(PI / 2, ERROR)));
+        assertThat(box.getMinLongitude(), is(closeTo(-PI, ERROR)));
+        assertThat(box.getMaxLongitude(), is(closeTo(PI, ERROR)));
+        assertThat(box.contains(89.0 * PI / 180.0, PI), is(true));
+        assertThat(box.contains(88.0 * PI / 180.0, PI), is(false));
+    }
+
+    @Test
+    public void around_shouldSpanWholeSphere_whenCentralAngleIsPi() {
+        // when
+        BoundingBox box = BoundingBox.around(Coordinate.of("12.0", "34.0"), PI);
+
+        // then
+        assertThat(box.contains(-PI / 2, -PI), is(true));
+        assertThat(box.contains(PI / 2, PI), is(true));
+    }
+
+    @Test
+    public void contains_shouldReturnTrue_forEveryPointWithinCentralAngle() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            // given a random center, and a random point within a random central angle of it
+            double lat = asin(2 * random.nextDouble() - 1);
+            double lon = PI * (2 * random.nextDouble() - 1);
+            double centralAngle = 0.5 * random.nextDouble();
+            double angle = centralAngle * random.nextDouble();
+            double bearing = 2 * PI * random.nextDouble();
+            double pointLat = asin(sin(lat) * cos(angle) + cos(lat) * sin(angle) * cos(bearing));
+            double pointLon = StrictMath.IEEEremainder(
+                    lon + atan2(sin(bearing) * sin(angle) * cos(lat), cos(angle) - sin(lat) * sin(pointLat)), 2 * PI);
+
+            // when
+            BoundingBox box = BoundingBox.around(lat, lon, centralAngle * (1 + 1e-9));
+
+            // then
+            assertThat(box.toString(), box.contains(pointLat, pointLon), is(true));
+        }
+    }
+
+    @Test
+    public void intersects_shouldCompareLatitudeAndLongitudeRanges() {
+        // given
+        BoundingBox box = new BoundingBox(0.1, 0.2, 0.3, 0.4);
+
+        // then
+        assertThat(box.intersects(0.15, 0.25, 0.35, 0.45), is(true));
+        assertThat(box.intersects(0.0, 0.1, 0.0, 0.3), is(true));
+        assertThat(box.intersects(0.0, 0.09, 0.3, 0.4), is(false));
+        assertThat(box.intersects(0.1, 0.2, 0.41, 0.5), is(false));
+    }
+
+    @Test
+    public void intersects_shouldMatchEitherSideOfTheAntimeridian_whenBoxCrossesIt() {
+        // given
+        BoundingBox box = new BoundingBox(-0.1, 0.1, PI - 0.1, -PI + 0.1);
+
+        // then
+        assertThat(box.intersects(0.0, 0.0, PI - 0.05, PI - 0.05), is(true));
+        assertThat(box.intersects(0.0, 0.0, -PI + 0.05, -PI + 0.05), is(true));
+        assertThat(box.intersects(0.0, 0.0, -PI + 0.2, PI - 0.2), is(false));
+        assertThat(box.intersects(0.0, 0.0, -PI, PI), is(true));
+    }
+}
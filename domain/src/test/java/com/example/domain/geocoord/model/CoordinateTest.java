@@ -12,6 +12,10 @@ import javax.validation.Validator;
 import java.math.BigDecimal;
 import java.util.Set;
 
+import static com.example.domain.geocoord.TestUtils.ERROR;
+import static java.lang.StrictMath.PI;
+
+import static org.hamcrest.Matchers.closeTo;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.emptyArray;
 import static org.hamcrest.Matchers.equalTo;
@@ -296,4 +300,34 @@ public class CoordinateTest {
         assertThat(isReadable, is(true));
         assertThat(isWriteable, is(false));
     }
+
+    @Test
+    public void coordinate_shouldCacheLatitudeAndLongitudeInRadians() {
+        // given
+        Coordinate coord = Coordinate.of("90.0", "-180.0");
+
+        // then
+        assertThat(coord.getLatitudeInRadians(), is(closeTo(PI / 2, ERROR)));
+        assertThat(coord.getLongitudeInRadians(), is(closeTo(-PI, ERROR)));
+    }
+
+    @Test
+    public void coordinate_shouldCacheNaNInRadians_whenLatitudeOrLongitudeIsNull() {
+        // given
+        Coordinate coord = Coordinate.of((BigDecimal) null, null);
+
+        // then
+        assertThat(Double.isNaN(coord.getLatitudeInRadians()), is(true));
+        assertThat(Double.isNaN(coord.getLongitudeInRadians()), is(true));
+    }
+
+    @Test
+    public void coordinate_shouldCacheUnitVector() {
+        // given
+        Coordinate coord = Coordinate.of("90.0", "-180.0");
+
+        // then
+        assertThat(coord.getUnitVector().getZ(), is(closeTo(1.0, ERROR)));
+        assertThat(coord.getUnitVector(), is(UnitVector.of(coord.getLatitudeInRadians(), coord.getLongitudeInRadians())));
+    }
 }
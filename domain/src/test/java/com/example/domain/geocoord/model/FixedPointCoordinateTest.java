@@ -0,0 +1,157 @@
+package com.example.domain.geocoord.model;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.comparesEqualTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+
+public class FixedPointCoordinateTest {
+
+    @Rule
+    public final ExpectedException thrown = ExpectedException.none();
+
+    @Test
+    public void decode_shouldReturnNumericallyEqualCoordinate_forCoordinatesWithUpTo7DecimalDigits() {
+        Random random = new Random(42);
+
+        for (int i = 0; i < 10_000; i++) {
+            // given: random coordinate with 0 to 7 decimal digits
+            BigDecimal latitude = BigDecimal.valueOf((long) (1_800_000_000L * random.nextDouble()) - 900_000_000L, 7)
+                    .setScale(random.nextInt(8), RoundingMode.DOWN);
+            BigDecimal longitude = BigDecimal.valueOf((long) (3_600_000_000L * random.nextDouble()) - 1_800_000_000L, 7)
+                    .setScale(random.nextInt(8), RoundingMode.DOWN);
+            Coordinate coordinate = Coordinate.of(latitude, longitude);
+
+            // when
+            Coordinate decoded = FixedPointCoordinate.decode(FixedPointCoordinate.encode(coordinate));
+
+            // then
+            assertThat(decoded.getLatitude(), is(comparesEqualTo(coordinate.getLatitude())));
+            assertThat(decoded.getLongitude(), is(comparesEqualTo(coordinate.getLongitude())));
+        }
+    }
+
+    @Test
+    public void decode_shouldReturnEqualCoordinate_whenDegreesHaveNoTrailingZeros() {
+        // given
+        Coordinate coordinate = Coordinate.of("53.339428", "-6.257664");
+
+        // when
+        Coordinate decoded = FixedPointCoordinate.decode(FixedPointCoordinate.encode(coordinate));
+
+        // then
+        assertThat(decoded, is(equalTo(coordinate)));
+    }
+
+    @Test
+    public void decode_shouldReturnIntegerDegrees_whenDegreesAreWhole() {
+        // when
+        Coordinate decoded = FixedPointCoordinate.decode(FixedPointCoordinate.encode(Coordinate.of("-90.0", "180.0")));
+
+        // then
+        assertThat(decoded.getLatitude().toString(), is(equalTo("-90")));
+        assertThat(decoded.getLongitude().toString(), is(equalTo("180")));
+    }
+
+    @Test
+    public void latitudeAndLongitudeInRadians_shouldBeTheSameAsThoseOfTheDecodedCoordinate() {
+        // given
+        Coordinate coordinate = Coordinate.of("53.0033946", "-6.3877505");
+        long packed = FixedPointCoordinate.encode(coordinate);
+
+        // then
+        assertThat(FixedPointCoordinate.latitudeInRadians(packed), is(equalTo(coordinate.getLatitudeInRadians())));
+        assertThat(FixedPointCoordinate.longitudeInRadians(packed), is(equalTo(coordinate.getLongitudeInRadians())));
+    }
+
+    @Test
+    public void pack_shouldOrderCoordinatesByLatitudeThenLongitude() {
+        // given
+        long southWest = FixedPointCoordinate.pack(-10, -20);
+        long southEast = FixedPointCoordinate.pack(-10, 20);
+        long northWest = FixedPointCoordinate.pack(10, -20);
+
+        // then
+        assertThat(southWest, is(lessThan(southEast)));
+        assertThat(southEast, is(lessThan(northWest)));
+        assertThat(FixedPointCoordinate.pack(0, Integer.MIN_VALUE), is(greaterThan(FixedPointCoordinate.pack(-1, Integer.MAX_VALUE))));
+    }
+
+    @Test
+    public void unpack_shouldReturnPackedUnits() {
+        // given
+        long packed = FixedPointCoordinate.pack(-900_000_000, 1_800_000_000);
+
+        // then
+        assertThat(FixedPointCoordinate.latitudeUnits(packed), is(equalTo(-900_000_000)));
+        assertThat(FixedPointCoordinate.longitudeUnits(packed), is(equalTo(1_800_000_000)));
+    }
+
+    @Test
+    public void encode_shouldThrowException_whenDegreesHaveMoreThan7DecimalDigits() {
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("latitude must have at most 7 decimal digits");
+
+        // when
+        FixedPointCoordinate.encode(Coordinate.of("53.33942801", "-6.257664"));
+    }
+
+    @Test
+    public void encode_shouldAcceptTrailingZerosBeyond7DecimalDigits() {
+        // when
+        long packed = FixedPointCoordinate.encode(Coordinate.of("53.3394280000", "-6.257664"));
+
+        // then
+        assertThat(FixedPointCoordinate.latitudeUnits(packed), is(equalTo(533_394_280)));
+    }
+
+    @Test
+    public void round_shouldRoundHalfUpTo7DecimalDigits_whenDegreesHaveMore() {
+        assertThat(FixedPointCoordinate.round(new BigDecimal("53.33942805")), is(equalTo(new BigDecimal("53.3394281"))));
+        assertThat(FixedPointCoordinate.round(new BigDecimal("-6.25766449")), is(equalTo(new BigDecimal("-6.2576645"))));
+        assertThat(FixedPointCoordinate.round(new BigDecimal("53.33942800")), is(equalTo(new BigDecimal("53.3394280"))));
+    }
+
+    @Test
+    public void round_shouldReturnDegreesAsIs_whenTheyHaveAtMost7DecimalDigits() {
+        // given
+        BigDecimal degrees = new BigDecimal("53.3394");
+
+        // then
+        assertThat(FixedPointCoordinate.round(degrees), is(sameInstance(degrees)));
+        assertThat(FixedPointCoordinate.round(null), is(nullValue()));
+    }
+
+    @Test
+    public void encode_shouldThrowException_whenLongitudeIsOutOfRange() {
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("longitude must be between -180.0 and 180.0");
+
+        // when
+        FixedPointCoordinate.encode(Coordinate.of("0.0", "180.0000001"));
+    }
+
+    @Test
+    public void encode_shouldThrowException_whenLatitudeIsNull() {
+        // then
+        thrown.expect(IllegalArgumentException.class);
+        thrown.expectMessage("latitude must not be null");
+
+        // when
+        FixedPointCoordinate.encode(Coordinate.of((BigDecimal) null, BigDecimal.ZERO));
+    }
+}
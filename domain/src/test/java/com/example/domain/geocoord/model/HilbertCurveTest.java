@@ -0,0 +1,59 @@
+package com.example.domain.geocoord.model;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class HilbertCurveTest {
+
+    @Test
+    public void index_shouldVisitEveryCellOnceMovingToAnAdjacentCellAtEachStep() {
+        // given
+        int order = 5;
+        int n = 1 << order;
+        long[] xs = new long[n * n];
+        long[] ys = new long[n * n];
+        Set<Long> indexes = new HashSet<>();
+
+        // when
+        for (long x = 0; x < n; x++) {
+            for (long y = 0; y < n; y++) {
+                long index = HilbertCurve.index(order, x, y);
+                indexes.add(index);
+                xs[(int) index] = x;
+                ys[(int) index] = y;
+            }
+        }
+
+        // then
+        assertThat(indexes.size(), is(n * n));
+        for (int i = 1; i < n * n; i++) {
+            assertThat(Math.abs(xs[i] - xs[i - 1]) + Math.abs(ys[i] - ys[i - 1]), is(1L));
+        }
+    }
+
+    @Test
+    public void index_shouldReturnIndexOfFirstOrderCurve() {
+        // then
+        assertThat(HilbertCurve.index(1, 0, 0), is(0L));
+        assertThat(HilbertCurve.index(1, 0, 1), is(1L));
+        assertThat(HilbertCurve.index(1, 1, 1), is(2L));
+        assertThat(HilbertCurve.index(1, 1, 0), is(3L));
+    }
+
+    @Test
+    public void index_shouldMapLocationsToCellsOfTheWholeGrid() {
+        // given
+        long southWest = FixedPointCoordinate.pack(-900_000_000, -1_800_000_000);
+        long northEast = FixedPointCoordinate.pack(900_000_000, 1_800_000_000);
+
+        // then
+        assertThat(HilbertCurve.index(southWest), is(0L));
+        assertThat(HilbertCurve.index(northEast),
+                is(HilbertCurve.index(HilbertCurve.ORDER, (1 << HilbertCurve.ORDER) - 1, (1 << HilbertCurve.ORDER) - 1)));
+    }
+}
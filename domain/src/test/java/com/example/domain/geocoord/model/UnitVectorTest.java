@@ -0,0 +1,71 @@
+package com.example.domain.geocoord.model;
+
+import org.junit.Test;
+
+import static java.lang.StrictMath.PI;
+import static java.lang.StrictMath.cos;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class UnitVectorTest {
+
+    private static final double ERROR = 1e-15;
+
+    @Test
+    public void of_shouldPointTowardsNorthPole_whenLatitudeIs90Degrees() {
+        // when
+        UnitVector vector = UnitVector.of(PI / 2, 1.0);
+
+        // then
+        assertThat(vector.getX(), is(closeTo(0.0, ERROR)));
+        assertThat(vector.getY(), is(closeTo(0.0, ERROR)));
+        assertThat(vector.getZ(), is(closeTo(1.0, ERROR)));
+    }
+
+    @Test
+    public void of_shouldPointTowardsYAxis_whenLongitudeIs90DegreesEast() {
+        // when
+        UnitVector vector = UnitVector.of(0.0, PI / 2);
+
+        // then
+        assertThat(vector.getX(), is(closeTo(0.0, ERROR)));
+        assertThat(vector.getY(), is(closeTo(1.0, ERROR)));
+        assertThat(vector.getZ(), is(closeTo(0.0, ERROR)));
+    }
+
+    @Test
+    public void dot_shouldReturnCosineOfCentralAngle() {
+        // given
+        UnitVector a = UnitVector.of(0.3, -0.2);
+        UnitVector b = UnitVector.of(0.3, 0.5);
+
+        // when
+        double dot = a.dot(b);
+
+        // then
+        double expected = StrictMath.sin(0.3) * StrictMath.sin(0.3) + cos(0.3) * cos(0.3) * cos(0.7);
+        assertThat(dot, is(closeTo(expected, ERROR)));
+    }
+
+    @Test
+    public void squaredChordLength_shouldMatchChordLengthOfCentralAngle() {
+        // given
+        UnitVector a = UnitVector.of(0.0, 0.0);
+        UnitVector b = UnitVector.of(0.0, 1e-6);
+
+        // when
+        double squaredChordLength = a.squaredChordLength(b);
+
+        // then
+        double chordLength = UnitVector.chordLength(1e-6);
+        assertThat(squaredChordLength, is(closeTo(chordLength * chordLength, 1e-24)));
+    }
+
+    @Test
+    public void chordLength_shouldBeTheDiameter_whenCentralAngleIsAtLeastPi() {
+        // then
+        assertThat(UnitVector.chordLength(PI), is(closeTo(2.0, ERROR)));
+        assertThat(UnitVector.chordLength(4.0), is(closeTo(2.0, ERROR)));
+    }
+}
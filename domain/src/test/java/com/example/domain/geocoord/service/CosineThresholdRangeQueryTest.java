@@ -0,0 +1,101 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.BitSet;
+import java.util.Random;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static java.lang.StrictMath.PI;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class CosineThresholdRangeQueryTest {
+
+    private final DefaultCoordinateService coordService = new DefaultCoordinateService();
+
+    @Test
+    public void contains_shouldReturnTrue_whenCandidateIsTheTarget() {
+        // given
+        Coordinate target = Coordinate.of("53.339428", "-6.257664");
+        PreparedRangeQuery query = new CosineThresholdRangeQuery(new LawOfCosinesDistanceStrategy(), target, 1.0); // law of cosines is ill-conditioned below ~1m
+
+        // when
+        boolean contains = query.contains(target);
+
+        // then
+        assertThat(contains, is(true));
+    }
+
+    @Test
+    public void contains_shouldReturnTrue_forAntipode_whenRadiusCoversHalfTheEarthCircumference() {
+        // given
+        Coordinate target = Coordinate.of("0.0", "0.0");
+        Coordinate antipode = Coordinate.of("0.0", "180.0");
+        PreparedRangeQuery query = new CosineThresholdRangeQuery(new LawOfCosinesDistanceStrategy(), target, PI * MEAN_EARTH_RADIUS);
+
+        // when
+        boolean contains = query.contains(antipode);
+
+        // then
+        assertThat(contains, is(true));
+    }
+
+    @Test
+    public void contains_shouldAgreeWithGreatCircleDistance() {
+        // given
+        Random random = new Random(42);
+        Coordinate target = Coordinate.of("53.339428", "-6.257664");
+        double radius = 100_000.0; // 100 km
+        PreparedRangeQuery query = new CosineThresholdRangeQuery(new LawOfCosinesDistanceStrategy(), target, radius);
+
+        for (int i = 0; i < 10_000; i++) {
+            Coordinate candidate = Coordinate.of(
+                    BigDecimal.valueOf(51.0 + 4.0 * random.nextDouble()),
+                    BigDecimal.valueOf(-9.0 + 5.0 * random.nextDouble()));
+
+            // when
+            boolean contains = query.contains(candidate);
+
+            // then
+            double distance = coordService.greatCircleDistanceOnEarthBetween(candidate, target);
+            assertThat("distance " + distance, contains, is(equalTo(distance <= radius)));
+        }
+    }
+
+    @Test
+    public void filter_shouldAgreeWithContains_whenCandidatesAreGivenAsUnitVectorColumns() {
+        // given
+        Random random = new Random(7);
+        Coordinate target = Coordinate.of("53.339428", "-6.257664");
+        PreparedRangeQuery query = new CosineThresholdRangeQuery(new LawOfCosinesDistanceStrategy(), target, 100_000.0);
+        int size = 1_000;
+        double[] lats = new double[size];
+        double[] lons = new double[size];
+        double[] xs = new double[size];
+        double[] ys = new double[size];
+        double[] zs = new double[size];
+        for (int i = 0; i < size; i++) {
+            Coordinate candidate = Coordinate.of(
+                    BigDecimal.valueOf(51.0 + 4.0 * random.nextDouble()),
+                    BigDecimal.valueOf(-9.0 + 5.0 * random.nextDouble()));
+            lats[i] = candidate.getLatitudeInRadians();
+            lons[i] = candidate.getLongitudeInRadians();
+            xs[i] = candidate.getUnitVector().getX();
+            ys[i] = candidate.getUnitVector().getY();
+            zs[i] = candidate.getUnitVector().getZ();
+        }
+        BitSet expected = new BitSet(size);
+        query.filter(lats, lons, 0, size, expected);
+
+        // when
+        BitSet result = new BitSet(size);
+        query.filter(xs, ys, zs, 0, size, result);
+
+        // then
+        assertThat(result, is(equalTo(expected)));
+    }
+}
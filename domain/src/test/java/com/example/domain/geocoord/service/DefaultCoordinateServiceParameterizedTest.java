@@ -358,4 +358,25 @@ public class DefaultCoordinateServiceParameterizedTest {
     public void greatCircleDistanceOnEarthBetween_shouldReturnExpectedValue() {
         assertThat(coordService.greatCircleDistanceOnEarthBetween(a, b), is(closeTo(MEAN_EARTH_RADIUS * centralAngle, ERROR)));
     }
+
+    @Test
+    public void centralAngle_shouldReturnExpectedValue_whenGivenCoordinatesInRadians() {
+        assertThat(coordService.centralAngle(
+                a.getLatitudeInRadians(), a.getLongitudeInRadians(),
+                b.getLatitudeInRadians(), b.getLongitudeInRadians()), is(closeTo(centralAngle, ERROR)));
+    }
+
+    @Test
+    public void arcLength_shouldReturnExpectedValue_whenGivenCoordinatesInRadians() {
+        assertThat(coordService.arcLength(2.0,
+                a.getLatitudeInRadians(), a.getLongitudeInRadians(),
+                b.getLatitudeInRadians(), b.getLongitudeInRadians()), is(closeTo(2.0 * centralAngle, ERROR)));
+    }
+
+    @Test
+    public void greatCircleDistanceOnEarthBetween_shouldReturnExpectedValue_whenGivenCoordinatesInRadians() {
+        assertThat(coordService.greatCircleDistanceOnEarthBetween(
+                a.getLatitudeInRadians(), a.getLongitudeInRadians(),
+                b.getLatitudeInRadians(), b.getLongitudeInRadians()), is(closeTo(MEAN_EARTH_RADIUS * centralAngle, ERROR)));
+    }
 }
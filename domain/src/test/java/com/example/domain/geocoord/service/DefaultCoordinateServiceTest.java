@@ -1,6 +1,7 @@
 package com.example.domain.geocoord.service;
 
 import com.example.domain.geocoord.model.Coordinate;
+import com.example.domain.geocoord.model.UnitVector;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
@@ -9,6 +10,7 @@ import javax.validation.Validation;
 import javax.validation.executable.ExecutableValidator;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
+import java.util.BitSet;
 import java.util.Set;
 
 import static com.example.domain.geocoord.TestUtils.ERROR;
@@ -382,4 +384,192 @@ public class DefaultCoordinateServiceTest {
                         hasProperty("message", equalTo("must not be null"))
                 )));
     }
+
+    @Test
+    public void distancesFrom_shouldComputeDistanceToEveryLocation() {
+        // given
+        Coordinate target = Coordinate.of("53.339428", "-6.257664");
+        Coordinate[] locations = {
+                Coordinate.of("53.2451022", "-6.238335"),
+                Coordinate.of("51.92893", "-10.27699"),
+                Coordinate.of("-33.865143", "151.209900")
+        };
+        double[] latitudes = new double[locations.length];
+        double[] longitudes = new double[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            latitudes[i] = locations[i].getLatitudeInRadians();
+            longitudes[i] = locations[i].getLongitudeInRadians();
+        }
+        double[] distances = new double[locations.length];
+
+        // when
+        coordService.distancesFrom(target, latitudes, longitudes, distances);
+
+        // then
+        for (int i = 0; i < locations.length; i++) {
+            assertThat(distances[i], is(closeTo(coordService.distanceBetween(target, locations[i]), ERROR)));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void distancesFrom_shouldThrowIllegalArgumentException_whenColumnsHaveDifferentLengths() {
+        coordService.distancesFrom(Coordinate.of("0.0", "0.0"), new double[2], new double[3], new double[3]);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void distancesFrom_shouldThrowIllegalArgumentException_whenOutputIsTooShort() {
+        coordService.distancesFrom(Coordinate.of("0.0", "0.0"), new double[3], new double[3], new double[2]);
+    }
+
+    @Test
+    public void withinRange_shouldSetBitOfEveryLocationWithinRange() {
+        // given
+        Coordinate target = Coordinate.of("53.339428", "-6.257664");
+        Coordinate[] locations = {
+                Coordinate.of("53.2451022", "-6.238335"),   // ~10 km
+                Coordinate.of("51.92893", "-10.27699"),     // ~313 km
+                Coordinate.of("54.0894797", "-6.18671")     // ~83 km
+        };
+        double[] latitudes = new double[locations.length];
+        double[] longitudes = new double[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            latitudes[i] = locations[i].getLatitudeInRadians();
+            longitudes[i] = locations[i].getLongitudeInRadians();
+        }
+        BitSet result = new BitSet();
+
+        // when
+        coordService.withinRange(target, 100_000.0, latitudes, longitudes, result);
+
+        // then
+        assertThat(result.get(0), is(true));
+        assertThat(result.get(1), is(false));
+        assertThat(result.get(2), is(true));
+        assertThat(result.cardinality(), is(equalTo(2)));
+    }
+
+    @Test
+    public void withinRange_shouldRequireValidRadius() throws Exception {
+        // given
+        Method withinRange = coordService.getClass().getDeclaredMethod("withinRange", Coordinate.class, double.class, double[].class, double[].class, BitSet.class);
+        Object[] invalidArgs = new Object[]{
+                /* valid target     */ Coordinate.of("0.0", "0.0"),
+                /* invalid radius   */ -1.0,
+                /* valid latitudes  */ new double[0],
+                /* valid longitudes */ new double[0],
+                /* valid result     */ new BitSet()
+        };
+
+        // when
+        Set<ConstraintViolation<DefaultCoordinateService>> violations = validator.validateParameters(coordService, withinRange, invalidArgs);
+
+        // then
+        assertThat(violations, is(notNullValue()));
+        assertThat(violations, hasItem(
+                allOf(
+                        hasProperty("propertyPath", hasToString("withinRange.radius")),
+                        hasProperty("invalidValue", equalTo(-1.0)),
+                        hasProperty("message", equalTo("must be greater than or equal to 0"))
+                )));
+    }
+
+    @Test
+    public void withinRange_shouldOnlyTestGivenRangeOfLocations() {
+        // given
+        PreparedRangeQuery query = coordService.prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000.0);
+        Coordinate location = Coordinate.of("53.2451022", "-6.238335");   // ~10 km
+        double[] latitudes = {location.getLatitudeInRadians(), location.getLatitudeInRadians(), location.getLatitudeInRadians()};
+        double[] longitudes = {location.getLongitudeInRadians(), location.getLongitudeInRadians(), location.getLongitudeInRadians()};
+        BitSet result = new BitSet();
+
+        // when
+        coordService.withinRange(query, latitudes, longitudes, 1, 2, result);
+
+        // then
+        assertThat(result.get(1), is(true));
+        assertThat(result.cardinality(), is(equalTo(1)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void withinRange_shouldThrowIllegalArgumentException_whenLocationColumnsHaveDifferentLengths() {
+        // given
+        PreparedRangeQuery query = coordService.prepareRangeQuery(Coordinate.of("0.0", "0.0"), 100_000.0);
+
+        // when
+        coordService.withinRange(query, new double[2], new double[3], 0, 2, new BitSet());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void withinRange_shouldThrowException_whenRangeIsOutOfLocationColumns() {
+        // given
+        PreparedRangeQuery query = coordService.prepareRangeQuery(Coordinate.of("0.0", "0.0"), 100_000.0);
+
+        // when
+        coordService.withinRange(query, new double[2], new double[2], 1, 3, new BitSet());
+    }
+
+    @Test
+    public void withinRange_shouldSetBitOfEveryUnitVectorWithinRange() {
+        // given
+        PreparedRangeQuery query = coordService.prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000.0);
+        Coordinate[] locations = {
+                Coordinate.of("53.2451022", "-6.238335"),   // ~10 km
+                Coordinate.of("51.92893", "-10.27699"),     // ~313 km
+                Coordinate.of("54.0894797", "-6.18671")     // ~83 km
+        };
+        double[] xs = new double[locations.length];
+        double[] ys = new double[locations.length];
+        double[] zs = new double[locations.length];
+        for (int i = 0; i < locations.length; i++) {
+            xs[i] = locations[i].getUnitVector().getX();
+            ys[i] = locations[i].getUnitVector().getY();
+            zs[i] = locations[i].getUnitVector().getZ();
+        }
+        BitSet result = new BitSet();
+
+        // when
+        coordService.withinRange(query, xs, ys, zs, result);
+
+        // then
+        assertThat(result.get(0), is(true));
+        assertThat(result.get(1), is(false));
+        assertThat(result.get(2), is(true));
+        assertThat(result.cardinality(), is(equalTo(2)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void withinRange_shouldThrowException_whenUnitVectorColumnsHaveDifferentLengths() {
+        // given
+        PreparedRangeQuery query = coordService.prepareRangeQuery(Coordinate.of("0.0", "0.0"), 100_000.0);
+
+        // when
+        coordService.withinRange(query, new double[2], new double[2], new double[1], new BitSet());
+    }
+
+    @Test
+    public void withinRange_shouldOnlyTestGivenRangeOfUnitVectors() {
+        // given
+        PreparedRangeQuery query = coordService.prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000.0);
+        UnitVector location = Coordinate.of("53.2451022", "-6.238335").getUnitVector();   // ~10 km
+        double[] xs = {location.getX(), location.getX(), location.getX()};
+        double[] ys = {location.getY(), location.getY(), location.getY()};
+        double[] zs = {location.getZ(), location.getZ(), location.getZ()};
+        BitSet result = new BitSet();
+
+        // when
+        coordService.withinRange(query, xs, ys, zs, 1, 2, result);
+
+        // then
+        assertThat(result.get(1), is(true));
+        assertThat(result.cardinality(), is(equalTo(1)));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void withinRange_shouldThrowException_whenRangeIsOutOfUnitVectorColumns() {
+        // given
+        PreparedRangeQuery query = coordService.prepareRangeQuery(Coordinate.of("0.0", "0.0"), 100_000.0);
+
+        // when
+        coordService.withinRange(query, new double[2], new double[2], new double[2], 1, 3, new BitSet());
+    }
 }
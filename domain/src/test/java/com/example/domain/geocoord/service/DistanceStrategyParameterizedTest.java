@@ -0,0 +1,150 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static java.lang.StrictMath.PI;
+import static java.lang.StrictMath.asin;
+import static java.lang.StrictMath.atan2;
+import static java.lang.StrictMath.cos;
+import static java.lang.StrictMath.sin;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class DistanceStrategyParameterizedTest {
+
+    private static final DistanceStrategy REFERENCE = new VincentyDistanceStrategy();
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        List<Object[]> data = new ArrayList<>();
+        for (MathMode math : MathMode.values()) {
+            data.add(new Object[]{new LawOfCosinesDistanceStrategy(math)});
+            data.add(new Object[]{new HaversineDistanceStrategy(math)});
+            data.add(new Object[]{new EquirectangularDistanceStrategy(math)});
+            data.add(new Object[]{new VincentyDistanceStrategy(math)});
+            data.add(new Object[]{new Wgs84DistanceStrategy(math)});
+        }
+        return data;
+    }
+
+    @Parameterized.Parameter
+    public DistanceStrategy distanceStrategy;
+
+    @Test
+    public void distance_shouldBeZero_forTheSamePoint() {
+        assertThat(distanceStrategy.distance(0.9, -0.1, 0.9, -0.1), is(lessThanOrEqualTo(distanceStrategy.maxError(0.0))));
+    }
+
+    @Test
+    public void distance_shouldBeSymmetric() {
+        double ab = distanceStrategy.distance(0.93, -0.11, 0.92, -0.12);
+        double ba = distanceStrategy.distance(0.92, -0.12, 0.93, -0.11);
+
+        assertThat(Math.abs(ab - ba), is(lessThanOrEqualTo(1e-6)));
+    }
+
+    @Test
+    public void distance_shouldBeWithinDeclaredErrorEnvelope_whenComparedToGeodesicDistanceOnWgs84() {
+        Random random = new Random(42);
+
+        for (double maxDistance : new double[]{1_000.0, 100_000.0, 1_000_000.0, 15_000_000.0}) {
+            for (int i = 0; i < 5_000; i++) {
+                // random point at a random bearing and distance from another random point
+                double latA = asin(2 * random.nextDouble() - 1);
+                double longA = PI * (2 * random.nextDouble() - 1);
+                double bearing = 2 * PI * random.nextDouble();
+                double angle = maxDistance * random.nextDouble() / MEAN_EARTH_RADIUS;
+                double latB = asin(sin(latA) * cos(angle) + cos(latA) * sin(angle) * cos(bearing));
+                double longB = longA + atan2(sin(bearing) * sin(angle) * cos(latA), cos(angle) - sin(latA) * sin(latB));
+                longB = StrictMath.IEEEremainder(longB, 2 * PI);
+
+                double distance = distanceStrategy.distance(latA, longA, latB, longB);
+                double expected = REFERENCE.distance(latA, longA, latB, longB);
+
+                assertThat(Math.abs(distance - expected), is(lessThanOrEqualTo(
+                        distanceStrategy.maxError(distance) + REFERENCE.maxError(expected))));
+            }
+        }
+    }
+
+    @Test
+    public void prepareRangeQuery_shouldAgreeWithDistance() {
+        Random random = new Random(7);
+        Coordinate target = Coordinate.of("53.339428", "-6.257664");
+        double radius = 100_000.0; // 100 km
+        PreparedRangeQuery query = distanceStrategy.prepareRangeQuery(target, radius);
+        DistanceStrategy strictDistanceStrategy = distanceStrategy.withMathMode(MathMode.STRICT);
+
+        for (int i = 0; i < 5_000; i++) {
+            Coordinate candidate = Coordinate.of(
+                    BigDecimal.valueOf(51.0 + 4.0 * random.nextDouble()),
+                    BigDecimal.valueOf(-9.0 + 5.0 * random.nextDouble()));
+            double distance = strictDistanceStrategy.distance(
+                    target.getLatitudeInRadians(), target.getLongitudeInRadians(),
+                    candidate.getLatitudeInRadians(), candidate.getLongitudeInRadians());
+
+            // the prepared test may only disagree with the formula because of rounding, i.e. right at the boundary
+            if (Math.abs(distance - radius) > 1e-3) {
+                assertThat("distance " + distance, query.contains(candidate), is(equalTo(distance <= radius)));
+            }
+        }
+    }
+
+    @Test
+    public void prepareRangeQuery_shouldAgreeWithStrictMathMode_whenCandidatesAreCloseToTheBoundary() {
+        Random random = new Random(11);
+        Coordinate target = Coordinate.of("53.339428", "-6.257664");
+        double radius = 100_000.0; // 100 km
+        PreparedRangeQuery query = distanceStrategy.prepareRangeQuery(target, radius);
+        PreparedRangeQuery strictQuery = distanceStrategy.withMathMode(MathMode.STRICT).prepareRangeQuery(target, radius);
+        double latA = target.getLatitudeInRadians();
+        double longA = target.getLongitudeInRadians();
+
+        for (int i = 0; i < 20_000; i++) {
+            // random point within a few meters of the (spherical) boundary
+            double bearing = 2 * PI * random.nextDouble();
+            double angle = (radius + 10 * (2 * random.nextDouble() - 1)) / MEAN_EARTH_RADIUS;
+            double latB = asin(sin(latA) * cos(angle) + cos(latA) * sin(angle) * cos(bearing));
+            double longB = longA + atan2(sin(bearing) * sin(angle) * cos(latA), cos(angle) - sin(latA) * sin(latB));
+
+            assertThat(query.contains(latB, longB), is(equalTo(strictQuery.contains(latB, longB))));
+        }
+    }
+
+    @Test
+    public void withMathMode_shouldKeepTheFormula() {
+        for (MathMode math : MathMode.values()) {
+            DistanceStrategy other = distanceStrategy.withMathMode(math);
+
+            assertThat(other.getName(), is(equalTo(distanceStrategy.getName())));
+            assertThat(other.getMathMode(), is(math));
+        }
+    }
+
+    @Test
+    public void relativeCost_shouldBePositive() {
+        assertThat(distanceStrategy.getRelativeCost() > 0, is(true));
+    }
+
+    @Test
+    public void toString_shouldReturnNameAndNonStrictMathMode() {
+        String expected = distanceStrategy.getMathMode() == MathMode.STRICT
+                ? distanceStrategy.getName()
+                : distanceStrategy.getName() + " (" + distanceStrategy.getMathMode().getName() + ")";
+
+        assertThat(distanceStrategy.toString(), is(equalTo(expected)));
+    }
+}
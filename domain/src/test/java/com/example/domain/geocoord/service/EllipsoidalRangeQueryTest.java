@@ -0,0 +1,115 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.util.Random;
+
+import static com.example.domain.geocoord.model.Constants.MEAN_EARTH_RADIUS;
+import static java.lang.StrictMath.PI;
+import static java.lang.StrictMath.asin;
+import static java.lang.StrictMath.atan2;
+import static java.lang.StrictMath.cos;
+import static java.lang.StrictMath.sin;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class EllipsoidalRangeQueryTest {
+
+    private final DistanceStrategy geodesic = new VincentyDistanceStrategy();
+
+    @Test
+    public void contains_shouldAgreeWithGeodesicDistance_whenCandidatesAreWithinSphericalErrorOfTheBoundary() {
+        Random random = new Random(42);
+
+        for (String latitude : new String[]{"0.0", "53.339428", "-78.5"}) {
+            Coordinate target = Coordinate.of(latitude, "-6.257664");
+            double latA = target.getLatitudeInRadians();
+            double longA = target.getLongitudeInRadians();
+
+            for (double radius : new double[]{1_000.0, 100_000.0, 2_000_000.0}) {
+                PreparedRangeQuery query = new EllipsoidalRangeQuery(new Wgs84DistanceStrategy(), target, radius);
+
+                for (int i = 0; i < 2_000; i++) {
+                    // given: random point at up to 1% from the radius, in a random direction
+                    double bearing = 2 * PI * random.nextDouble();
+                    double angle = radius * (0.99 + 0.02 * random.nextDouble()) / MEAN_EARTH_RADIUS;
+                    double latB = asin(sin(latA) * cos(angle) + cos(latA) * sin(angle) * cos(bearing));
+                    double longB = longA + atan2(sin(bearing) * sin(angle) * cos(latA), cos(angle) - sin(latA) * sin(latB));
+
+                    // when
+                    boolean contains = query.contains(latB, longB);
+
+                    // then
+                    double distance = geodesic.distance(latA, longA, latB, longB);
+                    assertThat("distance " + distance, contains, is(equalTo(distance <= radius)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void contains_shouldAgreeWithGeodesicDistance_whenCandidatesAreNearTheSphericalErrorBoundAtTheEquatorAndPoles() {
+        Random random = new Random(42);
+
+        for (String latitude : new String[]{"0.0", "89.5", "-89.5"}) {
+            Coordinate target = Coordinate.of(latitude, "-6.257664");
+            double latA = target.getLatitudeInRadians();
+            double longA = target.getLongitudeInRadians();
+
+            for (double radius : new double[]{100_000.0, 200_000.0, 500_000.0, 2_000_000.0}) {
+                PreparedRangeQuery query = new EllipsoidalRangeQuery(new Wgs84DistanceStrategy(), target, radius);
+
+                for (int i = 0; i < 4_000; i++) {
+                    // given: point mostly due north or south of the target, near the relative error of the sphere
+                    // along the meridian at the equator (about 0.56%) or at the poles (about 0.45%)
+                    double bearing = i % 4 == 0 ? 2 * PI * random.nextDouble() : (i % 2) * PI;
+                    double relativeError = (random.nextBoolean() ? 0.0055 : 0.0044) + 0.0002 * random.nextDouble();
+                    double angle = radius * (random.nextBoolean() ? 1 - relativeError : 1 + relativeError) / MEAN_EARTH_RADIUS;
+                    double latB = asin(sin(latA) * cos(angle) + cos(latA) * sin(angle) * cos(bearing));
+                    double longB = longA + atan2(sin(bearing) * sin(angle) * cos(latA), cos(angle) - sin(latA) * sin(latB));
+
+                    // when
+                    boolean contains = query.contains(latB, longB);
+
+                    // then
+                    double distance = geodesic.distance(latA, longA, latB, longB);
+                    assertThat("distance " + distance, contains, is(equalTo(distance <= radius)));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void contains_shouldAgreeForCoordinateAndUnitVector() {
+        // given
+        Random random = new Random(7);
+        Coordinate target = Coordinate.of("53.339428", "-6.257664");
+        PreparedRangeQuery query = new EllipsoidalRangeQuery(new Wgs84DistanceStrategy(), target, 100_000.0);
+
+        for (int i = 0; i < 5_000; i++) {
+            Coordinate candidate = Coordinate.of(
+                    BigDecimal.valueOf(51.0 + 4.0 * random.nextDouble()),
+                    BigDecimal.valueOf(-9.0 + 5.0 * random.nextDouble()));
+
+            // when
+            boolean contains = query.contains(candidate);
+
+            // then
+            assertThat(query.contains(candidate.getUnitVector()), is(equalTo(contains)));
+            assertThat(query.contains(candidate.getLatitudeInRadians(), candidate.getLongitudeInRadians()), is(equalTo(contains)));
+        }
+    }
+
+    @Test
+    public void contains_shouldReturnTrue_whenCandidateIsTheTarget_evenWithZeroRadius() {
+        // given
+        Coordinate target = Coordinate.of("53.339428", "-6.257664");
+        PreparedRangeQuery query = new EllipsoidalRangeQuery(new Wgs84DistanceStrategy(), target, 0.0);
+
+        // then
+        assertThat(query.contains(target), is(true));
+    }
+}
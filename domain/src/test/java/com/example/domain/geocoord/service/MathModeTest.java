@@ -0,0 +1,75 @@
+package com.example.domain.geocoord.service;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static java.lang.StrictMath.PI;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.assertThat;
+
+public class MathModeTest {
+
+    @Test
+    public void sinAndCos_shouldBeWithinDeclaredError_forEveryMode() {
+        Random random = new Random(42);
+
+        for (MathMode math : MathMode.values()) {
+            for (int i = 0; i < 100_000; i++) {
+                double x = 4 * PI * (2 * random.nextDouble() - 1);
+
+                assertThat(math.sin(x), is(closeTo(StrictMath.sin(x), math.getMaxTrigError())));
+                assertThat(math.cos(x), is(closeTo(StrictMath.cos(x), math.getMaxTrigError())));
+            }
+        }
+    }
+
+    @Test
+    public void asinAndAcos_shouldBeWithinDeclaredError_forEveryMode() {
+        Random random = new Random(42);
+
+        for (MathMode math : MathMode.values()) {
+            for (int i = 0; i < 100_000; i++) {
+                // half of the values close to 1, where acos is ill-conditioned
+                double x = i % 2 == 0 ? 2 * random.nextDouble() - 1 : 1 - 1e-6 * random.nextDouble();
+
+                assertThat(math.asin(x), is(closeTo(StrictMath.asin(x), math.getMaxInverseTrigError())));
+                assertThat(math.acos(x), is(closeTo(StrictMath.acos(x), math.getMaxInverseTrigError())));
+            }
+        }
+    }
+
+    @Test
+    public void approx_shouldFallBackToMath_whenArgumentIsLarge() {
+        // given
+        double x = 1e6;
+
+        // then
+        assertThat(MathMode.APPROX.sin(x), is(equalTo(Math.sin(x))));
+        assertThat(MathMode.APPROX.cos(x), is(equalTo(Math.cos(x))));
+    }
+
+    @Test
+    public void approx_shouldReturnNaN_whenAcosArgumentIsOutOfRange() {
+        assertThat(Double.isNaN(MathMode.APPROX.acos(1.0 + 1e-15)), is(true));
+        assertThat(Double.isNaN(MathMode.APPROX.acos(Double.NaN)), is(true));
+    }
+
+    @Test
+    public void maxDistanceError_shouldBeZero_forStrictMode() {
+        assertThat(MathMode.STRICT.maxDistanceError(), is(equalTo(0.0)));
+    }
+
+    @Test
+    public void maxDistanceError_shouldBeAFewMeters_forApproxMode() {
+        assertThat(MathMode.APPROX.maxDistanceError(), is(lessThanOrEqualTo(3.0)));
+    }
+
+    @Test
+    public void getName_shouldReturnLowerCaseName() {
+        assertThat(MathMode.FAST.getName(), is(equalTo("fast")));
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.domain.geocoord.service;
+
+import com.example.domain.geocoord.model.Coordinate;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+@RunWith(Parameterized.class)
+public class RangeFilterKernelParameterizedTest {
+
+    private static final int SIZE = 1_003; // not a multiple of any vector length, to exercise the tail loop
+
+    @Parameterized.Parameters(name = "{index}: {0}")
+    public static Collection<Object[]> data() {
+        List<Object[]> data = new ArrayList<>();
+        data.add(new Object[]{RangeFilterKernels.scalar()});
+        RangeFilterKernels.vector().ifPresent(kernel -> data.add(new Object[]{kernel}));
+        return data;
+    }
+
+    @Parameterized.Parameter
+    public RangeFilterKernel kernel;
+
+    @Test
+    public void filter_shouldAgreeWithContains_forLawOfCosinesQuery() {
+        assertFilterAgreesWithContains(new LawOfCosinesDistanceStrategy());
+    }
+
+    @Test
+    public void filter_shouldAgreeWithContains_forHaversineQuery() {
+        assertFilterAgreesWithContains(new HaversineDistanceStrategy());
+    }
+
+    @Test
+    public void filter_shouldOnlySetBitsWithinGivenInterval() {
+        // given
+        double[] xs = new double[SIZE];
+        double[] ys = new double[SIZE];
+        double[] zs = new double[SIZE];
+        Arrays.fill(xs, 1.0);
+        BitSet result = new BitSet();
+
+        // when
+        kernel.filterByDotProduct(1.0, 0.0, 0.0, 0.5, xs, ys, zs, 5, SIZE - 7, result);
+
+        // then
+        assertThat(result.nextSetBit(0), is(equalTo(5)));
+        assertThat(result.length(), is(equalTo(SIZE - 7)));
+        assertThat(result.cardinality(), is(equalTo(SIZE - 12)));
+    }
+
+    private void assertFilterAgreesWithContains(DistanceStrategy distanceStrategy) {
+        // given
+        Random random = new Random(42);
+        PreparedRangeQuery query = distanceStrategy.prepareRangeQuery(Coordinate.of("53.339428", "-6.257664"), 100_000.0);
+        double[] xs = new double[SIZE];
+        double[] ys = new double[SIZE];
+        double[] zs = new double[SIZE];
+        BitSet expected = new BitSet();
+        for (int i = 0; i < SIZE; i++) {
+            Coordinate candidate = Coordinate.of(
+                    BigDecimal.valueOf(51.0 + 4.0 * random.nextDouble()),
+                    BigDecimal.valueOf(-9.0 + 5.0 * random.nextDouble()));
+            xs[i] = candidate.getUnitVector().getX();
+            ys[i] = candidate.getUnitVector().getY();
+            zs[i] = candidate.getUnitVector().getZ();
+            expected.set(i, query.contains(candidate));
+        }
+
+        // when
+        BitSet result = new BitSet();
+        query.filter(kernel, xs, ys, zs, 0, SIZE, result);
+
+        // then
+        assertThat(result, is(equalTo(expected)));
+    }
+}
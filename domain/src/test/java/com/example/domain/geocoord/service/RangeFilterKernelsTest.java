@@ -0,0 +1,79 @@
+package com.example.domain.geocoord.service;
+
+import org.junit.Test;
+
+import static org.hamcrest.Matchers.anyOf;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+public class RangeFilterKernelsTest {
+
+    @Test
+    public void byName_shouldReturnScalarKernel_whenScalarIsRequested() {
+        // when
+        RangeFilterKernel kernel = RangeFilterKernels.byName(RangeFilterKernels.SCALAR);
+
+        // then
+        assertThat(kernel, is(sameInstance(RangeFilterKernels.scalar())));
+    }
+
+    @Test
+    public void byName_shouldReturnVectorKernel_orFallBackToScalarOne_whenVectorIsRequested() {
+        // when
+        RangeFilterKernel kernel = RangeFilterKernels.byName(RangeFilterKernels.VECTOR);
+
+        // then
+        String expected = RangeFilterKernels.vector().isPresent() ? RangeFilterKernels.VECTOR : RangeFilterKernels.SCALAR;
+        assertThat(kernel.getName(), is(equalTo(expected)));
+    }
+
+    @Test
+    public void byName_shouldReturnAnAvailableKernel_whenAutoIsRequested() {
+        // when
+        RangeFilterKernel kernel = RangeFilterKernels.byName(RangeFilterKernels.AUTO);
+
+        // then
+        assertThat(kernel.getName(), is(anyOf(equalTo(RangeFilterKernels.VECTOR), equalTo(RangeFilterKernels.SCALAR))));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void byName_shouldThrowException_whenNameIsUnknown() {
+        // when
+        RangeFilterKernels.byName("gpu");
+    }
+
+    @Test
+    public void fromSystemProperty_shouldNotFallBackToScalarKernel_whenVectorKernelIsRequested() {
+        // given: requested by the java17 build profile
+        assumeThat(System.getProperty(RangeFilterKernels.SYSTEM_PROPERTY), is(equalTo(RangeFilterKernels.VECTOR)));
+
+        // when
+        RangeFilterKernel kernel = RangeFilterKernels.fromSystemProperty();
+
+        // then
+        assertThat(kernel.getName(), is(equalTo(RangeFilterKernels.VECTOR)));
+    }
+
+    @Test
+    public void fromSystemProperty_shouldReturnKernelNamedBySystemProperty() {
+        // given
+        String previous = System.setProperty(RangeFilterKernels.SYSTEM_PROPERTY, RangeFilterKernels.SCALAR);
+
+        try {
+            // when
+            RangeFilterKernel kernel = RangeFilterKernels.fromSystemProperty();
+
+            // then
+            assertThat(kernel, is(sameInstance(RangeFilterKernels.scalar())));
+        } finally {
+            if (previous == null) {
+                System.clearProperty(RangeFilterKernels.SYSTEM_PROPERTY);
+            } else {
+                System.setProperty(RangeFilterKernels.SYSTEM_PROPERTY, previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.domain.geocoord.service;
+
+import org.junit.Test;
+
+import static java.lang.StrictMath.PI;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+public class VincentyDistanceStrategyTest {
+
+    private static final double MILLIMETER = 0.001;
+
+    private final VincentyDistanceStrategy distanceStrategy = new VincentyDistanceStrategy();
+
+    private static double radians(double degrees, double minutes, double seconds) {
+        double sign = degrees < 0 ? -1.0 : 1.0;
+        return sign * (Math.abs(degrees) + minutes / 60.0 + seconds / 3600.0) * PI / 180.0;
+    }
+
+    @Test
+    public void distance_shouldMatchReferenceGeodesic_betweenFlindersPeakAndBuninyong() {
+        // reference values from Geoscience Australia, "Geodetic Calculations - Vincenty's Formulae"
+        double distance = distanceStrategy.distance(
+                radians(-37, 57, 3.72030), radians(144, 25, 29.52440),
+                radians(-37, 39, 10.15610), radians(143, 55, 35.38390));
+
+        assertThat(distance, is(closeTo(54_972.271, MILLIMETER)));
+    }
+
+    @Test
+    public void distance_shouldReturnQuarterMeridian_betweenEquatorAndPole() {
+        double distance = distanceStrategy.distance(0.0, 0.0, PI / 2, 0.0);
+
+        assertThat(distance, is(closeTo(10_001_965.729, MILLIMETER)));
+    }
+
+    @Test
+    public void distance_shouldFollowEquator_betweenPointsOnTheEquator() {
+        double distance = distanceStrategy.distance(0.0, 0.0, 0.0, PI / 2);
+
+        assertThat(distance, is(closeTo(6_378_137.0 * PI / 2, MILLIMETER)));
+    }
+
+    @Test
+    public void distance_shouldFallBackToSphericalDistance_forAntipodalPoints() {
+        double distance = distanceStrategy.distance(0.0, 0.0, 0.0, PI);
+
+        assertThat(distance, is(closeTo(new HaversineDistanceStrategy().distance(0.0, 0.0, 0.0, PI), MILLIMETER)));
+    }
+}